@@ -18,6 +18,8 @@
  */
 package org.apache.deltaspike.core.api.config;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -26,6 +28,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -52,26 +57,40 @@ import org.apache.deltaspike.core.util.ServiceUtils;
  * <p>
  * The resolved configuration is also accessible by simple injection using the {@link ConfigProperty} qualifier.</p>
  *
+ * <p>
+ * Resolved values can optionally be cached for a configurable time via {@link #CACHE_TIME_TO_LIVE_KEY}. The cache
+ * gets invalidated automatically whenever ConfigSources or ConfigFilters get added or removed.</p>
+ *
  * @see <a href="http://deltaspike.apache.org/documentation/configuration.html">DeltaSpike Configuration Mechanism</a>
  */
 @Typed()
 public final class ConfigResolver
 {
+    /**
+     * Key of the property which enables the cache for resolved values. The value is the time in milliseconds a
+     * resolved value stays valid. A value of 0 (the default) disables the cache.
+     */
+    public static final String CACHE_TIME_TO_LIVE_KEY = "deltaspike.config.cache.ttl_ms";
+
     private static final Logger LOG = Logger.getLogger(ConfigResolver.class.getName());
 
     /**
      * The content of this map will get lazily initiated and will hold the
-     * sorted List of ConfigSources for each WebApp/EAR, etc (thus the
-     * ClassLoader).
+     * sorted List of ConfigSources together with the cache of resolved values
+     * for each WebApp/EAR, etc (thus the ClassLoader).
+     * The snapshots stored in this map are immutable. Changes get applied
+     * by replacing the whole snapshot, therefore reading them doesn't need any lock
+     * and a value always gets cached in the snapshot of the ConfigSources it was resolved from.
      */
-    private static Map<ClassLoader, ConfigSource[]> configSources
-        = new ConcurrentHashMap<ClassLoader, ConfigSource[]>();
+    private static ConcurrentMap<ClassLoader, ConfigSnapshot> configSnapshots
+        = new ConcurrentHashMap<ClassLoader, ConfigSnapshot>();
 
     /**
      * The content of this map will hold the List of ConfigFilters
      * for each WebApp/EAR, etc (thus the ClassLoader).
+     * We use a copy-on-write list since filters get added rarely but read on every lookup.
      */
-    private static Map<ClassLoader, List<ConfigFilter>> configFilters
+    private static ConcurrentMap<ClassLoader, List<ConfigFilter>> configFilters
         = new ConcurrentHashMap<ClassLoader, List<ConfigFilter>>();
 
     private static volatile ProjectStage projectStage = null;
@@ -90,26 +109,89 @@ public final class ConfigResolver
     public static synchronized void addConfigSources(List<ConfigSource> configSourcesToAdd)
     {
         // we first pickup all pre-configured ConfigSources...
-        getConfigSources();
+        ConfigSnapshot configSnapshot = getConfigSnapshot();
 
         // and now we can easily add our own
         ClassLoader currentClassLoader = ConfigResolver.class.getClassLoader();
-        ConfigSource[] configuredConfigSources = configSources.get(currentClassLoader);
 
         List<ConfigSource> allConfigSources = new ArrayList<ConfigSource>();
-        allConfigSources.addAll(Arrays.asList(configuredConfigSources));
+        allConfigSources.addAll(Arrays.asList(configSnapshot.configSources));
         allConfigSources.addAll(configSourcesToAdd);
 
-        // finally put all the configSources back into the map
-        configSources.put(currentClassLoader, sortDescending(allConfigSources));
+        // finally publish a new snapshot, readers either see the old or the new one
+        publishConfigSnapshot(currentClassLoader, sortDescending(allConfigSources), configSnapshot.valueCache);
     }
 
     /**
      * Clear all ConfigSources for the current ClassLoader.
+     * ConfigSources which implement {@link Closeable} get closed.
      */
     public static synchronized void freeConfigSources()
     {
-        configSources.remove(ConfigResolver.class.getClassLoader());
+        ClassLoader currentClassLoader = ConfigResolver.class.getClassLoader();
+
+        ConfigSnapshot configSnapshot = configSnapshots.get(currentClassLoader);
+        if (configSnapshot != null)
+        {
+            if (configSnapshot.configSources != null)
+            {
+                closeConfigSources(configSnapshot.configSources);
+            }
+
+            // the ConfigSources and the time to live get picked up again with the next lookup,
+            // only the statistics of the cache are kept
+            configSnapshots.put(currentClassLoader, new ConfigSnapshot(null, configSnapshot.valueCache.renew(0)));
+        }
+    }
+
+    /**
+     * Removes the cached value for the given key, if the cache for resolved values is enabled via
+     * {@link #CACHE_TIME_TO_LIVE_KEY}.
+     *
+     * @param key the property key
+     */
+    public static void invalidate(String key)
+    {
+        ConfigSnapshot configSnapshot = configSnapshots.get(ConfigResolver.class.getClassLoader());
+
+        if (configSnapshot != null)
+        {
+            configSnapshot.valueCache.invalidate(key);
+        }
+    }
+
+    /**
+     * Removes all cached values, if the cache for resolved values is enabled via {@link #CACHE_TIME_TO_LIVE_KEY}.
+     */
+    public static synchronized void invalidateAll()
+    {
+        ClassLoader currentClassLoader = ConfigResolver.class.getClassLoader();
+        ConfigSnapshot configSnapshot = configSnapshots.get(currentClassLoader);
+
+        if (configSnapshot != null)
+        {
+            configSnapshots.put(currentClassLoader,
+                new ConfigSnapshot(configSnapshot.configSources, configSnapshot.valueCache.renew()));
+        }
+    }
+
+    /**
+     * @return the number of lookups which were answered by the cache for resolved values
+     */
+    public static long getCacheHitCount()
+    {
+        ConfigSnapshot configSnapshot = configSnapshots.get(ConfigResolver.class.getClassLoader());
+        return configSnapshot != null ? configSnapshot.valueCache.getHitCount() : 0;
+    }
+
+    /**
+     * @return the number of lookups which had to go through the ConfigSources although the cache for resolved values
+     *         is enabled
+     */
+    public static long getCacheMissCount()
+    {
+        ConfigSnapshot configSnapshot = configSnapshots.get(ConfigResolver.class.getClassLoader());
+        return configSnapshot != null ? configSnapshot.valueCache.getMissCount() : 0;
     }
 
     /**
@@ -122,6 +204,9 @@ public final class ConfigResolver
     {
         List<ConfigFilter> currentConfigFilters = getConfigFilters();
         currentConfigFilters.add(configFilter);
+
+        // values which got cached before were filtered without the new filter
+        invalidateAll();
     }
 
     /**
@@ -133,8 +218,12 @@ public final class ConfigResolver
         List<ConfigFilter> currentConfigFilters = configFilters.get(cl);
         if (currentConfigFilters == null)
         {
-            currentConfigFilters = new ArrayList<ConfigFilter>();
-            configFilters.put(cl, currentConfigFilters);
+            currentConfigFilters = new CopyOnWriteArrayList<ConfigFilter>();
+            List<ConfigFilter> existingConfigFilters = configFilters.putIfAbsent(cl, currentConfigFilters);
+            if (existingConfigFilters != null)
+            {
+                currentConfigFilters = existingConfigFilters;
+            }
         }
 
         return currentConfigFilters;
@@ -167,8 +256,28 @@ public final class ConfigResolver
      */
     public static String getPropertyValue(String key)
     {
-        ConfigSource[] appConfigSources = getConfigSources();
+        // the ConfigSources and the cache have to be taken from the same snapshot,
+        // otherwise a value resolved from outdated ConfigSources could end up in a new cache
+        ConfigSnapshot configSnapshot = getConfigSnapshot();
+        ConfigValueCache valueCache = configSnapshot.valueCache;
+
+        if (!valueCache.isEnabled())
+        {
+            return resolvePropertyValue(configSnapshot.configSources, key);
+        }
 
+        ConfigValueCache.CachedValue cachedValue = valueCache.getCachedValue(key);
+        if (cachedValue == null)
+        {
+            long modificationCount = valueCache.getModificationCount();
+            cachedValue = valueCache.cacheValue(
+                key, resolvePropertyValue(configSnapshot.configSources, key), modificationCount);
+        }
+        return cachedValue.getValue();
+    }
+
+    private static String resolvePropertyValue(ConfigSource[] appConfigSources, String key)
+    {
         String value;
         for (ConfigSource configSource : appConfigSources)
         {
@@ -188,6 +297,34 @@ public final class ConfigResolver
         return null;
     }
 
+    /**
+     * Creates a reusable handle for resolving the value of the given key in a typesafe way.
+     *
+     * <p>
+     * <b>Example:</b>
+     * <pre>
+     * private static final ConfigResolver.TypedResolver&lt;Integer&gt; MAX_COUNT =
+     *     ConfigResolver.resolve("myproject.max-count").as(Integer.class).withDefault(1024);
+     *
+     * int maxCount = MAX_COUNT.getValue();
+     * </pre>
+     * </p>
+     *
+     * <p>
+     * The handle keeps the converted value together with the raw value it got converted from. As long as the raw
+     * value doesn't change, it isn't converted again. With {@link TypedResolver#cacheFor(TimeUnit, long)} even the
+     * lookup of the raw value can be skipped for the given time.</p>
+     *
+     * @param key the property key
+     *
+     * @return a handle which resolves the value as String until another type is requested via
+     *         {@link UntypedResolver#as(Class)}
+     */
+    public static UntypedResolver<String> resolve(String key)
+    {
+        return DefaultTypedResolver.create(key);
+    }
+
     /**
      * Resolves the value configured for the given key in the current
      * {@link org.apache.deltaspike.core.api.projectstage.ProjectStage}.
@@ -329,7 +466,7 @@ public final class ConfigResolver
     {
         // must use a new list because Arrays.asList() is resistant to sorting on some JVMs:
         List<ConfigSource> appConfigSources = sortAscending(new ArrayList<ConfigSource>(
-                Arrays.<ConfigSource> asList(getConfigSources())));
+                Arrays.<ConfigSource> asList(getConfigSnapshot().configSources)));
         List<String> result = new ArrayList<String>();
 
         for (ConfigSource configSource : appConfigSources)
@@ -360,7 +497,7 @@ public final class ConfigResolver
     {
         // must use a new list because Arrays.asList() is resistant to sorting on some JVMs:
         List<ConfigSource> appConfigSources = sortAscending(new ArrayList<ConfigSource>(
-                Arrays.<ConfigSource> asList(getConfigSources())));
+                Arrays.<ConfigSource> asList(getConfigSnapshot().configSources)));
         Map<String, String> result = new HashMap<String, String>();
 
         for (ConfigSource configSource : appConfigSources)
@@ -374,15 +511,127 @@ public final class ConfigResolver
         return Collections.unmodifiableMap(result);
     }
 
-    private static synchronized ConfigSource[] getConfigSources()
+    /**
+     * Converts the raw String value of a configured property to the target type.
+     *
+     * @param <T> target type
+     */
+    public interface Converter<T>
+    {
+        /**
+         * @param value the configured value, never <code>null</code>
+         *
+         * @return the converted value
+         */
+        T convert(String value);
+    }
+
+    /**
+     * Handle for resolving a configured value in a typesafe way. The configuration of a handle (key, type, default
+     * value,...) can't be changed, all the {@code with...} methods return a new handle. Internally a handle caches
+     * the last converted value. Handles are thread-safe, therefore they can be stored in static fields.
+     *
+     * @param <T> type of the resolved value
+     */
+    public interface TypedResolver<T>
+    {
+        /**
+         * @return the key of the property
+         */
+        String getKey();
+
+        /**
+         * @return the converted value or the default value if no value is configured (<code>null</code> or empty)
+         *
+         * @throws IllegalArgumentException if the configured value can't be converted to the target type
+         */
+        T getValue();
+
+        /**
+         * @param value typed default value
+         *
+         * @return a handle which returns the given value if no value is configured (<code>null</code> or empty)
+         */
+        TypedResolver<T> withDefault(T value);
+
+        /**
+         * @param value default value which gets converted like a configured value
+         *
+         * @return a handle which converts the given value if no value is configured (<code>null</code> or empty)
+         */
+        TypedResolver<T> withStringDefault(String value);
+
+        /**
+         * @param projectStageAware <code>true</code> for using {@link #getProjectStageAwarePropertyValue(String)}
+         *
+         * @return a handle which takes the current ProjectStage into account
+         */
+        TypedResolver<T> withCurrentProjectStage(boolean projectStageAware);
+
+        /**
+         * @param timeUnit unit of the given value
+         * @param value    time the resolved value stays valid, 0 for resolving the raw value on every call
+         *
+         * @return a handle which doesn't look up the configured value again before the given time elapsed
+         */
+        TypedResolver<T> cacheFor(TimeUnit timeUnit, long value);
+
+        /**
+         * @return a handle which splits the configured value at ',' and converts every (trimmed) element
+         */
+        TypedResolver<List<T>> asList();
+    }
+
+    /**
+     * A {@link TypedResolver} which can still get switched to another target type.
+     *
+     * @param <T> type of the resolved value
+     */
+    public interface UntypedResolver<T> extends TypedResolver<T>
+    {
+        /**
+         * Supported out of the box are String, Integer, Long, Boolean, Float, Double and Class.
+         *
+         * @param clazz target type
+         * @param <N>   target type
+         *
+         * @return a handle which converts the configured value to the given type
+         */
+        <N> TypedResolver<N> as(Class<N> clazz);
+
+        /**
+         * @param clazz     target type
+         * @param converter converter for the given type
+         * @param <N>       target type
+         *
+         * @return a handle which converts the configured value via the given converter
+         */
+        <N> TypedResolver<N> as(Class<N> clazz, Converter<N> converter);
+    }
+
+    private static ConfigSnapshot getConfigSnapshot()
     {
         ClassLoader currentClassLoader = ConfigResolver.class.getClassLoader();
 
-        ConfigSource[] appConfigSources = configSources.get(currentClassLoader);
+        // fast path without any lock: the map only ever contains fully initialized snapshots
+        ConfigSnapshot configSnapshot = configSnapshots.get(currentClassLoader);
+
+        if (configSnapshot == null || configSnapshot.configSources == null)
+        {
+            configSnapshot = initConfigSources(currentClassLoader);
+        }
+
+        return configSnapshot;
+    }
+
+    private static synchronized ConfigSnapshot initConfigSources(ClassLoader currentClassLoader)
+    {
+        // double check, another thread might have initialized it meanwhile
+        ConfigSnapshot configSnapshot = configSnapshots.get(currentClassLoader);
 
-        if (appConfigSources == null)
+        if (configSnapshot == null || configSnapshot.configSources == null)
         {
-            appConfigSources = sortDescending(resolveConfigSources());
+            ConfigSource[] appConfigSources = sortDescending(resolveConfigSources());
 
             if (LOG.isLoggable(Level.FINE))
             {
@@ -393,10 +642,71 @@ public final class ConfigResolver
                 }
             }
 
-            configSources.put(currentClassLoader, appConfigSources);
+            configSnapshot = publishConfigSnapshot(currentClassLoader, appConfigSources,
+                configSnapshot != null ? configSnapshot.valueCache : null);
         }
 
-        return appConfigSources;
+        return configSnapshot;
+    }
+
+    private static ConfigSnapshot publishConfigSnapshot(ClassLoader currentClassLoader,
+                                                        ConfigSource[] appConfigSources,
+                                                        ConfigValueCache previousValueCache)
+    {
+        long timeToLive = resolveCacheTimeToLive(appConfigSources);
+
+        ConfigValueCache valueCache;
+        if (previousValueCache == null)
+        {
+            valueCache = new ConfigValueCache(timeToLive);
+        }
+        else
+        {
+            valueCache = previousValueCache.renew(timeToLive);
+        }
+
+        ConfigSnapshot configSnapshot = new ConfigSnapshot(appConfigSources, valueCache);
+        configSnapshots.put(currentClassLoader, configSnapshot);
+        return configSnapshot;
+    }
+
+    private static void closeConfigSources(ConfigSource[] appConfigSources)
+    {
+        for (ConfigSource configSource : appConfigSources)
+        {
+            if (configSource instanceof Closeable)
+            {
+                try
+                {
+                    ((Closeable) configSource).close();
+                }
+                catch (IOException e)
+                {
+                    LOG.log(Level.WARNING, "Failed to close ConfigSource " + configSource.getConfigName(), e);
+                }
+            }
+        }
+    }
+
+    private static long resolveCacheTimeToLive(ConfigSource[] appConfigSources)
+    {
+        String configuredTimeToLive = resolvePropertyValue(appConfigSources, CACHE_TIME_TO_LIVE_KEY);
+
+        if (configuredTimeToLive == null || configuredTimeToLive.trim().isEmpty())
+        {
+            return 0;
+        }
+
+        try
+        {
+            return Long.parseLong(configuredTimeToLive.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            LOG.log(Level.WARNING, "invalid value {0} for {1}, the cache for resolved values stays disabled.",
+                    new Object[]{configuredTimeToLive, CACHE_TIME_TO_LIVE_KEY});
+            return 0;
+        }
     }
 
     private static List<ConfigSource> resolveConfigSources()
@@ -498,4 +808,19 @@ public final class ConfigResolver
         return logValue;
     }
 
+    /**
+     * Immutable combination of the sorted ConfigSources and the cache for the values resolved from them.
+     * The ConfigSources are <code>null</code> after {@link #freeConfigSources()}.
+     */
+    private static final class ConfigSnapshot
+    {
+        private final ConfigSource[] configSources;
+        private final ConfigValueCache valueCache;
+
+        private ConfigSnapshot(ConfigSource[] configSources, ConfigValueCache valueCache)
+        {
+            this.configSources = configSources;
+            this.valueCache = valueCache;
+        }
+    }
 }
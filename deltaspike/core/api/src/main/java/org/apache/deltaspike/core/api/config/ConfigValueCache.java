@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.api.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the already resolved (and filtered) values of the {@link ConfigResolver} for a limited time.
+ *
+ * <p>
+ * Instances never get cleared. If all values have to be invalidated the {@link ConfigResolver} replaces the whole
+ * instance via {@link #renew()} together with the ConfigSources the values get resolved from. Threads which are
+ * still resolving a value based on an outdated state will therefore only store it in the discarded instance.
+ * Values which get stored while a single key gets invalidated via {@link #invalidate(String)} are dropped again,
+ * since they might have been resolved before the invalidation.</p>
+ */
+final class ConfigValueCache
+{
+    private final long timeToLiveMillis;
+
+    private final ConcurrentMap<String, CachedValue> cachedValues = new ConcurrentHashMap<String, CachedValue>();
+
+    // incremented by #invalidate before an entry gets removed
+    private final AtomicLong modificationCount = new AtomicLong();
+
+    // the counters survive #renew to provide the statistics for the whole lifetime of the application
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+
+    ConfigValueCache(long timeToLiveMillis)
+    {
+        this(timeToLiveMillis, new AtomicLong(), new AtomicLong());
+    }
+
+    private ConfigValueCache(long timeToLiveMillis, AtomicLong hitCount, AtomicLong missCount)
+    {
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+    }
+
+    /**
+     * @param key the property key
+     * @return the cached entry (which might contain a <code>null</code> value for keys without configured value) or
+     *         <code>null</code> if there is no valid entry for the given key
+     */
+    CachedValue getCachedValue(String key)
+    {
+        CachedValue cachedValue = cachedValues.get(key);
+
+        if (cachedValue != null)
+        {
+            if (!cachedValue.isExpired())
+            {
+                hitCount.incrementAndGet();
+                return cachedValue;
+            }
+            cachedValues.remove(key, cachedValue);
+        }
+
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * @return the current modification count which has to be passed to {@link #cacheValue(String, String, long)}
+     *         for a value resolved afterwards
+     */
+    long getModificationCount()
+    {
+        return modificationCount.get();
+    }
+
+    /**
+     * @param key the property key
+     * @param value the resolved value
+     * @param expectedModificationCount the result of {@link #getModificationCount()} before the value got resolved
+     * @return the new entry
+     */
+    CachedValue cacheValue(String key, String value, long expectedModificationCount)
+    {
+        CachedValue cachedValue = new CachedValue(value, System.currentTimeMillis() + timeToLiveMillis);
+        cachedValues.put(key, cachedValue);
+
+        // #invalidate increments the counter before it removes the entry, therefore either the entry got removed
+        // by #invalidate or the changed counter is visible here
+        if (modificationCount.get() != expectedModificationCount)
+        {
+            cachedValues.remove(key, cachedValue);
+        }
+        return cachedValue;
+    }
+
+    void invalidate(String key)
+    {
+        modificationCount.incrementAndGet();
+        cachedValues.remove(key);
+    }
+
+    /**
+     * @return an empty cache with the same time to live which shares the statistics with the current instance
+     */
+    ConfigValueCache renew()
+    {
+        return renew(timeToLiveMillis);
+    }
+
+    /**
+     * @param newTimeToLiveMillis the time to live for the entries of the new instance
+     * @return an empty cache which shares the statistics with the current instance
+     */
+    ConfigValueCache renew(long newTimeToLiveMillis)
+    {
+        return new ConfigValueCache(newTimeToLiveMillis, hitCount, missCount);
+    }
+
+    boolean isEnabled()
+    {
+        return timeToLiveMillis > 0;
+    }
+
+    long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    static final class CachedValue
+    {
+        private final String value;
+        private final long expiresAt;
+
+        private CachedValue(String value, long expiresAt)
+        {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        String getValue()
+        {
+            return value;
+        }
+
+        boolean isExpired()
+        {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.api.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.deltaspike.core.util.ClassUtils;
+
+/**
+ * Default implementation of {@link ConfigResolver.UntypedResolver}.
+ *
+ * <p>
+ * The last resolved value is stored together with the raw value it got converted from in an immutable holder,
+ * therefore a shared instance can be used by multiple threads without locking.</p>
+ *
+ * @param <T> type of the resolved value
+ */
+final class DefaultTypedResolver<T> implements ConfigResolver.UntypedResolver<T>
+{
+    private static final Map<Class<?>, ConfigResolver.Converter<?>> DEFAULT_CONVERTERS =
+        new HashMap<Class<?>, ConfigResolver.Converter<?>>();
+
+    static
+    {
+        DEFAULT_CONVERTERS.put(String.class, new ConfigResolver.Converter<String>()
+        {
+            @Override
+            public String convert(String value)
+            {
+                return value;
+            }
+        });
+        DEFAULT_CONVERTERS.put(Integer.class, new ConfigResolver.Converter<Integer>()
+        {
+            @Override
+            public Integer convert(String value)
+            {
+                return Integer.valueOf(value.trim());
+            }
+        });
+        DEFAULT_CONVERTERS.put(Long.class, new ConfigResolver.Converter<Long>()
+        {
+            @Override
+            public Long convert(String value)
+            {
+                return Long.valueOf(value.trim());
+            }
+        });
+        DEFAULT_CONVERTERS.put(Float.class, new ConfigResolver.Converter<Float>()
+        {
+            @Override
+            public Float convert(String value)
+            {
+                return Float.valueOf(value.trim());
+            }
+        });
+        DEFAULT_CONVERTERS.put(Double.class, new ConfigResolver.Converter<Double>()
+        {
+            @Override
+            public Double convert(String value)
+            {
+                return Double.valueOf(value.trim());
+            }
+        });
+        DEFAULT_CONVERTERS.put(Boolean.class, new ConfigResolver.Converter<Boolean>()
+        {
+            @Override
+            public Boolean convert(String value)
+            {
+                String trimmedValue = value.trim();
+
+                // same values as supported by the @ConfigProperty producer
+                return "TRUE".equalsIgnoreCase(trimmedValue)
+                    || "1".equalsIgnoreCase(trimmedValue)
+                    || "YES".equalsIgnoreCase(trimmedValue)
+                    || "Y".equalsIgnoreCase(trimmedValue)
+                    || "JA".equalsIgnoreCase(trimmedValue)
+                    || "J".equalsIgnoreCase(trimmedValue)
+                    || "OUI".equalsIgnoreCase(trimmedValue);
+            }
+        });
+        DEFAULT_CONVERTERS.put(Class.class, new ConfigResolver.Converter<Class>()
+        {
+            @Override
+            public Class convert(String value)
+            {
+                try
+                {
+                    return ClassUtils.loadClassForName(value.trim());
+                }
+                catch (ClassNotFoundException e)
+                {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+        });
+    }
+
+    private final String key;
+    private final Class<?> targetType;
+    private final ConfigResolver.Converter<T> converter;
+
+    private final T defaultValue;
+    private final String stringDefaultValue;
+    private final boolean projectStageAware;
+    private final long cacheTimeToLiveMillis;
+
+    private volatile ResolvedValue<T> resolvedValue;
+
+    private DefaultTypedResolver(String key, Class<?> targetType, ConfigResolver.Converter<T> converter)
+    {
+        this(key, targetType, converter, null, null, false, 0);
+    }
+
+    private DefaultTypedResolver(String key,
+                                 Class<?> targetType,
+                                 ConfigResolver.Converter<T> converter,
+                                 T defaultValue,
+                                 String stringDefaultValue,
+                                 boolean projectStageAware,
+                                 long cacheTimeToLiveMillis)
+    {
+        this.key = key;
+        this.targetType = targetType;
+        this.converter = converter;
+        this.defaultValue = defaultValue;
+        this.stringDefaultValue = stringDefaultValue;
+        this.projectStageAware = projectStageAware;
+        this.cacheTimeToLiveMillis = cacheTimeToLiveMillis;
+    }
+
+    @SuppressWarnings("unchecked")
+    static DefaultTypedResolver<String> create(String key)
+    {
+        return new DefaultTypedResolver<String>(
+                key, String.class, (ConfigResolver.Converter<String>) DEFAULT_CONVERTERS.get(String.class));
+    }
+
+    @Override
+    public <N> ConfigResolver.TypedResolver<N> as(Class<N> clazz)
+    {
+        @SuppressWarnings("unchecked")
+        ConfigResolver.Converter<N> defaultConverter = (ConfigResolver.Converter<N>) DEFAULT_CONVERTERS.get(clazz);
+
+        if (defaultConverter == null)
+        {
+            throw new IllegalArgumentException("No default converter available for " + clazz.getName() +
+                    ", please provide a ConfigResolver.Converter for it.");
+        }
+        return as(clazz, defaultConverter);
+    }
+
+    @Override
+    public <N> ConfigResolver.TypedResolver<N> as(Class<N> clazz, ConfigResolver.Converter<N> converter)
+    {
+        return new DefaultTypedResolver<N>(
+                key, clazz, converter, null, stringDefaultValue, projectStageAware, cacheTimeToLiveMillis);
+    }
+
+    @Override
+    public ConfigResolver.TypedResolver<T> withDefault(T value)
+    {
+        return new DefaultTypedResolver<T>(
+                key, targetType, converter, value, stringDefaultValue, projectStageAware, cacheTimeToLiveMillis);
+    }
+
+    @Override
+    public ConfigResolver.TypedResolver<T> withStringDefault(String value)
+    {
+        return new DefaultTypedResolver<T>(
+                key, targetType, converter, defaultValue, value, projectStageAware, cacheTimeToLiveMillis);
+    }
+
+    @Override
+    public ConfigResolver.TypedResolver<T> withCurrentProjectStage(boolean projectStageAware)
+    {
+        return new DefaultTypedResolver<T>(
+                key, targetType, converter, defaultValue, stringDefaultValue, projectStageAware, cacheTimeToLiveMillis);
+    }
+
+    @Override
+    public ConfigResolver.TypedResolver<T> cacheFor(TimeUnit timeUnit, long value)
+    {
+        return new DefaultTypedResolver<T>(
+                key, targetType, converter, defaultValue, stringDefaultValue, projectStageAware,
+                timeUnit.toMillis(value));
+    }
+
+    @Override
+    public ConfigResolver.TypedResolver<List<T>> asList()
+    {
+        List<T> defaultList = null;
+        if (defaultValue != null)
+        {
+            defaultList = Collections.singletonList(defaultValue);
+        }
+
+        return new DefaultTypedResolver<List<T>>(
+                key, List.class, new ListConverter<T>(converter), defaultList, stringDefaultValue, projectStageAware,
+                cacheTimeToLiveMillis);
+    }
+
+    @Override
+    public String getKey()
+    {
+        return key;
+    }
+
+    @Override
+    public T getValue()
+    {
+        ResolvedValue<T> currentValue = resolvedValue;
+
+        long now = 0;
+        if (cacheTimeToLiveMillis > 0)
+        {
+            now = System.currentTimeMillis();
+
+            if (currentValue != null && now < currentValue.reloadAfter)
+            {
+                return currentValue.value;
+            }
+        }
+
+        String rawValue = resolveRawValue();
+
+        if (currentValue != null && (rawValue == null ? currentValue.rawValue == null
+                : rawValue.equals(currentValue.rawValue)))
+        {
+            if (cacheTimeToLiveMillis > 0)
+            {
+                resolvedValue = new ResolvedValue<T>(rawValue, currentValue.value, now + cacheTimeToLiveMillis);
+            }
+            return currentValue.value;
+        }
+
+        T value = defaultValue;
+        if (rawValue != null)
+        {
+            value = convert(rawValue);
+        }
+
+        resolvedValue = new ResolvedValue<T>(rawValue, value, now + cacheTimeToLiveMillis);
+        return value;
+    }
+
+    private String resolveRawValue()
+    {
+        String rawValue;
+        if (projectStageAware)
+        {
+            rawValue = ConfigResolver.getProjectStageAwarePropertyValue(key);
+        }
+        else
+        {
+            rawValue = ConfigResolver.getPropertyValue(key);
+        }
+
+        if (rawValue == null || rawValue.isEmpty())
+        {
+            rawValue = stringDefaultValue;
+        }
+
+        if (rawValue == null || rawValue.isEmpty())
+        {
+            return null;
+        }
+        return rawValue;
+    }
+
+    private T convert(String rawValue)
+    {
+        try
+        {
+            return converter.convert(rawValue);
+        }
+        catch (RuntimeException e)
+        {
+            throw new IllegalArgumentException("Error while converting the value of property '" + key +
+                    "' to " + targetType.getName() + ": " + rawValue, e);
+        }
+    }
+
+    private static final class ResolvedValue<T>
+    {
+        private final String rawValue;
+        private final T value;
+        private final long reloadAfter;
+
+        private ResolvedValue(String rawValue, T value, long reloadAfter)
+        {
+            this.rawValue = rawValue;
+            this.value = value;
+            this.reloadAfter = reloadAfter;
+        }
+    }
+
+    private static final class ListConverter<T> implements ConfigResolver.Converter<List<T>>
+    {
+        private final ConfigResolver.Converter<T> elementConverter;
+
+        private ListConverter(ConfigResolver.Converter<T> elementConverter)
+        {
+            this.elementConverter = elementConverter;
+        }
+
+        @Override
+        public List<T> convert(String value)
+        {
+            List<T> result = new ArrayList<T>();
+
+            for (String element : value.split(","))
+            {
+                String trimmedElement = element.trim();
+                if (trimmedElement.length() > 0)
+                {
+                    result.add(elementConverter.convert(trimmedElement));
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.api.config.event;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * This event is fired after a reloadable {@link org.apache.deltaspike.core.spi.config.ConfigSource} detected and
+ * applied changes of its values.
+ */
+public class ConfigChangedEvent
+{
+    private final String configName;
+    private final Set<String> changedKeys;
+
+    /**
+     * Constructor for creating the event for the given ConfigSource and keys.
+     *
+     * @param configName  name of the changed ConfigSource
+     * @param changedKeys keys which got added, removed or changed
+     */
+    public ConfigChangedEvent(String configName, Set<String> changedKeys)
+    {
+        this.configName = configName;
+        this.changedKeys = Collections.unmodifiableSet(changedKeys);
+    }
+
+    /**
+     * @return the name of the changed ConfigSource
+     *
+     * @see org.apache.deltaspike.core.spi.config.ConfigSource#getConfigName()
+     */
+    public String getConfigName()
+    {
+        return configName;
+    }
+
+    /**
+     * @return the keys which got added, removed or changed
+     */
+    public Set<String> getChangedKeys()
+    {
+        return changedKeys;
+    }
+}
@@ -75,4 +75,11 @@ public interface ExceptionEvent<T extends Throwable>
      * Check to see if this exception has been handled.
      */
     boolean isMarkedHandled();
+
+    /**
+     * Number of equal exceptions which were suppressed (and therefore not passed to the handlers) since the last
+     * one got handled, e.g. to log a summary instead of every single exception. It's always 0 if the deduplication
+     * of exceptions isn't enabled (see <code>deltaspike.exception.deduplication.max_per_window</code>).
+     */
+    int getSuppressedCount();
 }
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.api.provider;
+
+import javax.enterprise.inject.Typed;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import java.lang.annotation.Annotation;
+
+/**
+ * Reusable lookup of a Contextual Reference created via {@link BeanProvider#lookupHandle(Class, Annotation...)}.
+ *
+ * <p>
+ * The Contextual Reference of a &#064;NormalScoped bean is a proxy which can be used as long as the container is
+ * running. Therefore it gets resolved only once per BeanManager. For all other beans a new Contextual Reference gets
+ * created for every call of {@link #get()}.</p>
+ *
+ * @param <T> target type
+ */
+@Typed()
+public final class BeanLookupHandle<T>
+{
+    private final Class<T> type;
+    private final Annotation[] qualifiers;
+
+    private volatile ResolvedReference<T> resolvedReference;
+
+    BeanLookupHandle(Class<T> type, Annotation[] qualifiers)
+    {
+        this.type = type;
+        this.qualifiers = qualifiers;
+    }
+
+    /**
+     * @return the Contextual Reference for the BeanManager of the current application
+     *
+     * @throws IllegalStateException if the bean could not be found.
+     */
+    public T get()
+    {
+        BeanManager beanManager = BeanManagerProvider.getInstance().getBeanManager();
+
+        ResolvedReference<T> currentReference = resolvedReference;
+        if (currentReference != null && currentReference.beanManager == beanManager)
+        {
+            return currentReference.reference;
+        }
+
+        Bean<?> bean = BeanProvider.resolveBean(beanManager, type, false, qualifiers);
+        T reference = BeanProvider.createContextualReference(type, beanManager, bean);
+
+        if (beanManager.isNormalScope(bean.getScope()))
+        {
+            resolvedReference = new ResolvedReference<T>(beanManager, reference);
+        }
+        return reference;
+    }
+
+    private static final class ResolvedReference<T>
+    {
+        private final BeanManager beanManager;
+        private final T reference;
+
+        private ResolvedReference(BeanManager beanManager, T reference)
+        {
+            this.beanManager = beanManager;
+            this.reference = reference;
+        }
+    }
+}
@@ -266,6 +266,11 @@ public class BeanManagerProvider implements Extension
     {
         for (BeanManagerInfo bmi : bmpSingleton.bmInfos.values())
         {
+            if (bmi.finalBm != bmi.loadTimeBm)
+            {
+                // the next lookup might result in another instance, whose caches get released on shutdown
+                BeanProvider.releaseCaches(bmi.finalBm);
+            }
             bmi.finalBm = null;
             bmi.booted = true;
 
@@ -289,7 +294,45 @@ public class BeanManagerProvider implements Extension
             return;
         }
 
-        bmpSingleton.bmInfos.remove(ClassUtils.getClassLoader(null));
+        BeanManagerInfo bmi = bmpSingleton.bmInfos.remove(ClassUtils.getClassLoader(null));
+
+        if (bmi != null)
+        {
+            BeanProvider.releaseCaches(bmi.loadTimeBm);
+            BeanProvider.releaseCaches(bmi.finalBm);
+        }
+    }
+
+    /**
+     * Checks if the given BeanManager is the current BeanManager of an application, which means
+     * {@link BeanProvider#releaseCaches(BeanManager)} gets called for it on shutdown.
+     *
+     * @param beanManager BeanManager to check
+     * @return true if the BeanManager is tracked by this provider, false otherwise
+     */
+    static boolean isTrackedBeanManager(BeanManager beanManager)
+    {
+        BeanManagerProvider beanManagerProvider = bmpSingleton;
+        if (beanManagerProvider == null || beanManager == null)
+        {
+            return false;
+        }
+
+        BeanManagerInfo bmi = beanManagerProvider.bmInfos.get(ClassUtils.getClassLoader(null));
+        if (bmi != null && (bmi.finalBm == beanManager || bmi.loadTimeBm == beanManager))
+        {
+            return true;
+        }
+
+        // e.g. an EAR with DeltaSpike in a shared ClassLoader
+        for (BeanManagerInfo currentBmi : beanManagerProvider.bmInfos.values())
+        {
+            if (currentBmi.finalBm == beanManager || currentBmi.loadTimeBm == beanManager)
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
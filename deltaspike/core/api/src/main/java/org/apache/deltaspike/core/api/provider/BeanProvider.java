@@ -37,6 +37,8 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -66,6 +68,24 @@ public final class BeanProvider
                         ProjectStageProducer.getInstance().getProjectStage());
     }
 
+    /**
+     * {@link InjectionTarget}s used by {@link #injectFields(Object, CreationalContext)} per BeanManager and class.
+     * An InjectionTarget references its BeanManager and the class, therefore weak keys wouldn't get released.
+     * Instead the entries of a BeanManager get removed via {@link #releaseCaches(BeanManager)} during the shutdown
+     * of the container. That's only the case for the BeanManagers tracked by the {@link BeanManagerProvider}, others
+     * (e.g. passed to {@link #getContextualReference(BeanManager, Class, boolean, Annotation...)}) don't get cached.
+     */
+    private static final ConcurrentMap<BeanManager, ConcurrentMap<Class<?>, InjectionTarget<?>>> INJECTION_TARGETS =
+        new ConcurrentHashMap<BeanManager, ConcurrentMap<Class<?>, InjectionTarget<?>>>();
+
+    /**
+     * Result of the typesafe resolution per BeanManager, type and qualifiers. Only successfully resolved beans get
+     * cached, the entries of a BeanManager get removed via {@link #releaseCaches(BeanManager)}. Like for
+     * {@link #INJECTION_TARGETS} only the BeanManagers tracked by the {@link BeanManagerProvider} get cached.
+     */
+    private static final ConcurrentMap<BeanManager, ConcurrentMap<ResolvedBeanKey, Bean<?>>> RESOLVED_BEANS =
+        new ConcurrentHashMap<BeanManager, ConcurrentMap<ResolvedBeanKey, Bean<?>>>();
+
     private BeanProvider()
     {
         // this is a utility class which doesn't get instantiated.
@@ -141,20 +161,34 @@ public final class BeanProvider
                                                boolean optional,
                                                Annotation... qualifiers)
     {
-        Set<Bean<?>> beans = beanManager.getBeans(type, qualifiers);
+        Bean<?> bean = resolveBean(beanManager, type, optional, qualifiers);
 
-        if (beans == null || beans.isEmpty())
+        if (bean == null)
         {
-            if (optional)
-            {
-                return null;
-            }
-
-            throw new IllegalStateException("Could not find beans for Type=" + type
-                    + " and qualifiers:" + Arrays.toString(qualifiers));
+            return null;
         }
 
-        return getContextualReference(type, beanManager, beans);
+        return createContextualReference(type, beanManager, bean);
+    }
+
+    /**
+     * Creates a handle for looking up the Contextual Reference of the given type and qualifiers. The handle can be
+     * stored e.g. in a static field. The bean gets resolved once and the Contextual Reference of a
+     * &#064;NormalScoped bean gets reused as long as the BeanManager of the current application doesn't change.
+     *
+     * <p>
+     * <b>Attention:</b> please see the notes on manually resolving &#064;Dependent beans in
+     * {@link #getContextualReference(Class, java.lang.annotation.Annotation...)}!</p>
+     *
+     * @param type       the type of the bean in question
+     * @param qualifiers additional qualifiers which further distinct the resolved bean
+     * @param <T>        target type
+     *
+     * @return a handle for the Contextual Reference
+     */
+    public static <T> BeanLookupHandle<T> lookupHandle(Class<T> type, Annotation... qualifiers)
+    {
+        return new BeanLookupHandle<T>(type, qualifiers.clone());
     }
 
     /**
@@ -270,8 +304,7 @@ public final class BeanProvider
 
     private static <T> T getContextualReference(Class<T> type, BeanManager beanManager, Bean<?> bean)
     {
-        //noinspection unchecked
-        return getContextualReference(type, beanManager, Collections.<Bean<?>> singleton(bean));
+        return createContextualReference(type, beanManager, bean);
     }
 
     /**
@@ -433,7 +466,6 @@ public final class BeanProvider
      *
      * @return instance with injected fields (if possible - or null if the given instance is null)
      */
-    @SuppressWarnings("unchecked")
     public static <T> T injectFields(T instance)
     {
         if (instance == null)
@@ -445,12 +477,153 @@ public final class BeanProvider
 
         CreationalContext<T> creationalContext = beanManager.createCreationalContext(null);
 
-        AnnotatedType<T> annotatedType = beanManager.createAnnotatedType((Class<T>) instance.getClass());
-        InjectionTarget<T> injectionTarget = beanManager.createInjectionTarget(annotatedType);
-        injectionTarget.inject(instance, creationalContext);
+        getInjectionTarget(beanManager, instance).inject(instance, creationalContext);
+        return instance;
+    }
+
+    /**
+     * Performs dependency injection on an instance. Useful for instances which aren't managed by CDI.
+     * In contrast to {@link #injectFields(Object)} the caller provides the {@link CreationalContext} and is able to
+     * destroy the injected &#064;Dependent scoped instances via {@link CreationalContext#release()}.
+     * <p/>
+     * <b>Attention:</b><br/>
+     * The resulting instance isn't managed by CDI; only fields annotated with @Inject get initialized.
+     *
+     * @param instance          current instance
+     * @param creationalContext creational-context which gets used for the injected instances
+     * @param <T>               current type
+     *
+     * @return instance with injected fields (if possible - or null if the given instance is null)
+     */
+    public static <T> T injectFields(T instance, CreationalContext<T> creationalContext)
+    {
+        if (instance == null)
+        {
+            return null;
+        }
+
+        getInjectionTarget(getBeanManager(), instance).inject(instance, creationalContext);
         return instance;
     }
 
+    /**
+     * Removes all cached information about the beans of the given BeanManager.
+     * Gets called during the shutdown of the container.
+     *
+     * @param beanManager the BeanManager of the container which gets stopped
+     */
+    static void releaseCaches(BeanManager beanManager)
+    {
+        if (beanManager != null)
+        {
+            INJECTION_TARGETS.remove(beanManager);
+            RESOLVED_BEANS.remove(beanManager);
+        }
+    }
+
+    /**
+     * Resolves the bean for the given type and qualifiers. The result gets cached per (tracked) BeanManager.
+     *
+     * @return the resolved bean or <code>null</code> if there is no bean and optional is <code>true</code>
+     * @throws IllegalStateException if there is no bean and optional is <code>false</code>
+     */
+    static Bean<?> resolveBean(BeanManager beanManager, Class<?> type, boolean optional, Annotation[] qualifiers)
+    {
+        ConcurrentMap<ResolvedBeanKey, Bean<?>> resolvedBeans = getCache(RESOLVED_BEANS, beanManager);
+
+        if (resolvedBeans != null)
+        {
+            Bean<?> bean = resolvedBeans.get(new ResolvedBeanKey(type, qualifiers));
+            if (bean != null)
+            {
+                return bean;
+            }
+        }
+
+        Set<Bean<?>> beans = beanManager.getBeans(type, qualifiers);
+
+        if (beans == null || beans.isEmpty())
+        {
+            if (optional)
+            {
+                return null;
+            }
+
+            throw new IllegalStateException("Could not find beans for Type=" + type
+                    + " and qualifiers:" + Arrays.toString(qualifiers));
+        }
+
+        Bean<?> bean = beanManager.resolve(beans);
+
+        if (resolvedBeans != null)
+        {
+            // the array of the caller might get changed later on
+            Bean<?> existingBean = resolvedBeans.putIfAbsent(new ResolvedBeanKey(type, qualifiers.clone()), bean);
+            if (existingBean != null)
+            {
+                bean = existingBean;
+            }
+        }
+        return bean;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> InjectionTarget<T> getInjectionTarget(BeanManager beanManager, T instance)
+    {
+        Class<T> instanceClass = (Class<T>) instance.getClass();
+
+        ConcurrentMap<Class<?>, InjectionTarget<?>> injectionTargets = getCache(INJECTION_TARGETS, beanManager);
+
+        InjectionTarget<T> injectionTarget =
+                injectionTargets != null ? (InjectionTarget<T>) injectionTargets.get(instanceClass) : null;
+        if (injectionTarget == null)
+        {
+            AnnotatedType<T> annotatedType = beanManager.createAnnotatedType(instanceClass);
+            injectionTarget = beanManager.createInjectionTarget(annotatedType);
+            if (injectionTargets != null)
+            {
+                InjectionTarget<T> existingInjectionTarget =
+                        (InjectionTarget<T>) injectionTargets.putIfAbsent(instanceClass, injectionTarget);
+                if (existingInjectionTarget != null)
+                {
+                    injectionTarget = existingInjectionTarget;
+                }
+            }
+        }
+        return injectionTarget;
+    }
+
+    /**
+     * @return the cache of the given BeanManager or <code>null</code> if the BeanManager isn't tracked by the
+     *         {@link BeanManagerProvider}, since its cache wouldn't get released
+     */
+    private static <K, V> ConcurrentMap<K, V> getCache(ConcurrentMap<BeanManager, ConcurrentMap<K, V>> caches,
+                                                       BeanManager beanManager)
+    {
+        ConcurrentMap<K, V> cache = caches.get(beanManager);
+        if (cache == null)
+        {
+            if (!BeanManagerProvider.isTrackedBeanManager(beanManager))
+            {
+                return null;
+            }
+
+            cache = new ConcurrentHashMap<K, V>();
+            ConcurrentMap<K, V> existingCache = caches.putIfAbsent(beanManager, cache);
+            if (existingCache != null)
+            {
+                cache = existingCache;
+            }
+            else if (!BeanManagerProvider.isTrackedBeanManager(beanManager))
+            {
+                // the container got stopped in the meantime and #releaseCaches might have been called already
+                caches.remove(beanManager, cache);
+                return null;
+            }
+        }
+        return cache;
+    }
+
     private static Set<Bean<?>> filterDefaultScopedBeans(Set<Bean<?>> beans)
     {
         Set<Bean<?>> result = new HashSet<Bean<?>>(beans.size());
@@ -476,8 +649,20 @@ public final class BeanProvider
      */
     private static <T> T getContextualReference(Class<T> type, BeanManager beanManager, Set<Bean<?>> beans)
     {
-        Bean<?> bean = beanManager.resolve(beans);
+        return createContextualReference(type, beanManager, beanManager.resolve(beans));
+    }
 
+    /**
+     * Internal helper method to create the contextual reference for an already resolved bean.
+     *
+     * @param type the type of the bean in question
+     * @param beanManager current bean-manager
+     * @param bean resolved bean
+     * @param <T> target type
+     * @return the contextual reference
+     */
+    static <T> T createContextualReference(Class<T> type, BeanManager beanManager, Bean<?> bean)
+    {
         logWarningIfDependent(bean);
 
         CreationalContext<?> creationalContext = beanManager.createCreationalContext(bean);
@@ -509,4 +694,40 @@ public final class BeanProvider
     {
         return BeanManagerProvider.getInstance().getBeanManager();
     }
+
+    private static final class ResolvedBeanKey
+    {
+        private final Class<?> type;
+        private final Annotation[] qualifiers;
+        private final int hashCode;
+
+        private ResolvedBeanKey(Class<?> type, Annotation[] qualifiers)
+        {
+            this.type = type;
+            this.qualifiers = qualifiers;
+            this.hashCode = 31 * type.hashCode() + Arrays.hashCode(qualifiers);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof ResolvedBeanKey))
+            {
+                return false;
+            }
+
+            ResolvedBeanKey that = (ResolvedBeanKey) o;
+            return hashCode == that.hashCode && type.equals(that.type) && Arrays.equals(qualifiers, that.qualifiers);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
 }
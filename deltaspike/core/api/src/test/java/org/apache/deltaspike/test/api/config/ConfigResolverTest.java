@@ -21,12 +21,18 @@ package org.apache.deltaspike.test.api.config;
 import org.apache.deltaspike.core.api.config.ConfigResolver;
 import org.apache.deltaspike.core.api.projectstage.ProjectStage;
 import org.apache.deltaspike.core.spi.config.ConfigFilter;
+import org.apache.deltaspike.core.spi.config.ConfigSource;
 import org.apache.deltaspike.core.util.ProjectStageProducer;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class ConfigResolverTest
 {
@@ -135,6 +141,161 @@ public class ConfigResolverTest
 
     }
 
+    @Test
+    public void testCachedValues()
+    {
+        MutableConfigSource mutableConfigSource = new MutableConfigSource();
+        mutableConfigSource.put(ConfigResolver.CACHE_TIME_TO_LIVE_KEY, "60000");
+        mutableConfigSource.put("cachedkey", "initialvalue");
+
+        try
+        {
+            ConfigResolver.addConfigSources(Arrays.<ConfigSource>asList(mutableConfigSource));
+
+            long hitCount = ConfigResolver.getCacheHitCount();
+            long missCount = ConfigResolver.getCacheMissCount();
+
+            Assert.assertEquals("initialvalue", ConfigResolver.getPropertyValue("cachedkey"));
+            Assert.assertEquals(missCount + 1, ConfigResolver.getCacheMissCount());
+
+            mutableConfigSource.put("cachedkey", "changedvalue");
+            Assert.assertEquals("initialvalue", ConfigResolver.getPropertyValue("cachedkey"));
+            Assert.assertEquals(hitCount + 1, ConfigResolver.getCacheHitCount());
+
+            ConfigResolver.invalidate("cachedkey");
+            Assert.assertEquals("changedvalue", ConfigResolver.getPropertyValue("cachedkey"));
+
+            // not existing values are cached as well
+            Assert.assertNull(ConfigResolver.getPropertyValue("cachedkey2"));
+            mutableConfigSource.put("cachedkey2", "newvalue");
+            Assert.assertNull(ConfigResolver.getPropertyValue("cachedkey2"));
+
+            ConfigResolver.invalidateAll();
+            Assert.assertEquals("newvalue", ConfigResolver.getPropertyValue("cachedkey2"));
+
+            // adding a ConfigSource invalidates the cache
+            mutableConfigSource.put("cachedkey2", "anothervalue");
+            ConfigResolver.addConfigSources(Collections.<ConfigSource>emptyList());
+            Assert.assertEquals("anothervalue", ConfigResolver.getPropertyValue("cachedkey2"));
+        }
+        finally
+        {
+            // back to the ConfigSources which got registered via the ServiceLoader
+            ConfigResolver.freeConfigSources();
+        }
+
+        long hitCount = ConfigResolver.getCacheHitCount();
+        Assert.assertEquals("testvalue", ConfigResolver.getPropertyValue("testkey"));
+        Assert.assertEquals("testvalue", ConfigResolver.getPropertyValue("testkey"));
+        Assert.assertEquals(hitCount, ConfigResolver.getCacheHitCount());
+    }
+
+    @Test
+    public void testTypedResolver()
+    {
+        Assert.assertEquals(Integer.valueOf(42), ConfigResolver.resolve("intkey").as(Integer.class).getValue());
+        Assert.assertEquals(Long.valueOf(42), ConfigResolver.resolve("intkey").as(Long.class).getValue());
+        Assert.assertEquals(Integer.valueOf(4711),
+                ConfigResolver.resolve("intkey").as(Integer.class).withCurrentProjectStage(true).getValue());
+        Assert.assertEquals(Boolean.TRUE, ConfigResolver.resolve("boolkey").as(Boolean.class).getValue());
+        Assert.assertEquals(String.class, ConfigResolver.resolve("classkey").as(Class.class).getValue());
+        Assert.assertEquals(Arrays.asList(1, 2, 3),
+                ConfigResolver.resolve("listkey").as(Integer.class).asList().getValue());
+        Assert.assertEquals("testvalue", ConfigResolver.resolve("testkey").getValue());
+
+        Assert.assertNull(ConfigResolver.resolve("notexisting").as(Integer.class).getValue());
+        Assert.assertEquals(Integer.valueOf(7),
+                ConfigResolver.resolve("notexisting").as(Integer.class).withDefault(7).getValue());
+        Assert.assertEquals(Integer.valueOf(8),
+                ConfigResolver.resolve("notexisting").as(Integer.class).withStringDefault("8").getValue());
+
+        Assert.assertEquals(Integer.valueOf(2), ConfigResolver.resolve("intkey").as(Integer.class,
+                new ConfigResolver.Converter<Integer>()
+                {
+                    @Override
+                    public Integer convert(String value)
+                    {
+                        return value.length();
+                    }
+                }).getValue());
+    }
+
+    @Test
+    public void testTypedResolverReusesConvertedValue()
+    {
+        MutableConfigSource mutableConfigSource = new MutableConfigSource();
+        mutableConfigSource.put("typedkey", "1");
+
+        try
+        {
+            ConfigResolver.addConfigSources(Arrays.<ConfigSource>asList(mutableConfigSource));
+
+            ConfigResolver.TypedResolver<Integer> resolver = ConfigResolver.resolve("typedkey").as(Integer.class);
+            Integer value = resolver.getValue();
+            Assert.assertEquals(Integer.valueOf(1), value);
+            Assert.assertSame(value, resolver.getValue());
+
+            mutableConfigSource.put("typedkey", "1000");
+            Assert.assertEquals(Integer.valueOf(1000), resolver.getValue());
+
+            ConfigResolver.TypedResolver<Integer> cachingResolver = resolver.cacheFor(TimeUnit.MINUTES, 5);
+            Assert.assertEquals(Integer.valueOf(1000), cachingResolver.getValue());
+            mutableConfigSource.put("typedkey", "2000");
+            Assert.assertEquals(Integer.valueOf(1000), cachingResolver.getValue());
+            Assert.assertEquals(Integer.valueOf(2000), resolver.getValue());
+        }
+        finally
+        {
+            ConfigResolver.freeConfigSources();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypedResolverWithInvalidValue()
+    {
+        ConfigResolver.resolve("testkey").as(Integer.class).getValue();
+    }
+
+    public static class MutableConfigSource implements ConfigSource
+    {
+        private Map<String, String> props = new ConcurrentHashMap<String, String>();
+
+        public void put(String key, String value)
+        {
+            props.put(key, value);
+        }
+
+        @Override
+        public int getOrdinal()
+        {
+            return 1000;
+        }
+
+        @Override
+        public Map<String, String> getProperties()
+        {
+            return props;
+        }
+
+        @Override
+        public String getPropertyValue(String key)
+        {
+            return props.get(key);
+        }
+
+        @Override
+        public String getConfigName()
+        {
+            return "mutableConfig";
+        }
+
+        @Override
+        public boolean isScannable()
+        {
+            return true;
+        }
+    }
+
     public static class TestConfigFilter implements ConfigFilter
     {
         @Override
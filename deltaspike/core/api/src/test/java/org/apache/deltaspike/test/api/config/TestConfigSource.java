@@ -65,6 +65,13 @@ public class TestConfigSource implements ConfigSource
         props.put("testkey4.encrypted", "value");
         props.put("testkey4.password", "mysecretvalue");
 
+        // values for the typed lookups
+        props.put("intkey", "42");
+        props.put("intkey.UnitTest", "4711");
+        props.put("boolkey", "yes");
+        props.put("classkey", "java.lang.String");
+        props.put("listkey", "1, 2,3");
+
     }
 
     @Override
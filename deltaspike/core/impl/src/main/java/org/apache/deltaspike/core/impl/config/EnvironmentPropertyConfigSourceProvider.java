@@ -23,6 +23,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -52,7 +53,7 @@ class EnvironmentPropertyConfigSourceProvider implements ConfigSourceProvider
                 LOG.log(Level.INFO,
                         "Custom config found by DeltaSpike. Name: ''{0}'', URL: ''{1}''",
                         new Object[] {propertyFileName, propertyFileUrl});
-                configSources.add(new PropertyFileConfigSource(propertyFileUrl));
+                configSources.add(createPropertyFileConfigSource(propertyFileUrl));
             }
         }
         catch (IOException ioe)
@@ -62,6 +63,20 @@ class EnvironmentPropertyConfigSourceProvider implements ConfigSourceProvider
 
     }
 
+    private ConfigSource createPropertyFileConfigSource(URL propertyFileUrl)
+    {
+        Properties properties = PropertyFileUtils.loadProperties(propertyFileUrl);
+
+        long checkIntervalMillis =
+            ReloadablePropertyFileConfigSource.getCheckIntervalMillis(propertyFileUrl, properties);
+
+        if (checkIntervalMillis > 0)
+        {
+            return new ReloadablePropertyFileConfigSource(propertyFileUrl, properties, checkIntervalMillis);
+        }
+        return new PropertyFileConfigSource(propertyFileUrl, properties);
+    }
+
     @Override
     public List<ConfigSource> getConfigSources()
     {
@@ -18,24 +18,67 @@
  */
 package org.apache.deltaspike.core.impl.config;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
 
 import javax.enterprise.inject.Typed;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
 
 import org.apache.deltaspike.core.impl.util.JndiUtils;
 
 /**
  * {@link org.apache.deltaspike.core.spi.config.ConfigSource}
  * which uses JNDI for the lookup
+ *
+ * <p>Since most keys aren't configured via JNDI, failed lookups are expensive
+ * (every miss creates a NamingException). Therefore it's possible to configure:</p>
+ * <ul>
+ * <li>{@value #PRELOAD_KEY}: if 'true', all entries of java:comp/env/deltaspike get read once
+ * and afterwards lookups are answered from memory</li>
+ * <li>{@value #REFRESH_INTERVAL_KEY}: the interval in milliseconds for reading the preloaded entries again.
+ * Without preloading, keys without value won't get looked up again within this interval.
+ * 0 (the default) means that preloaded entries don't get refreshed and misses don't get cached.</li>
+ * </ul>
+ * <p>If reading the preloaded entries fails, the previously read entries are kept until the next refresh.
+ * At most {@value #MAX_NEGATIVE_LOOKUPS} keys without value are remembered.</p>
+ * <p>Both settings have to be provided as system property or via JNDI, since they are needed
+ * before the ConfigResolver is available.</p>
  */
 @Typed()
 class LocalJndiConfigSource extends BaseConfigSource
 {
+    static final String PRELOAD_KEY = "deltaspike.config.jndi.preload";
+    static final String REFRESH_INTERVAL_KEY = "deltaspike.config.jndi.refresh_interval_ms";
+
+    static final int MAX_NEGATIVE_LOOKUPS = 1024;
+
     private static final String BASE_NAME = "java:comp/env/deltaspike/";
 
+    private final boolean preload;
+    private final long refreshIntervalMillis;
+
+    private volatile Map<String, String> preloadedValues = Collections.emptyMap();
+    private volatile long nextRefresh;
+
+    // key -> time when the key should be looked up again
+    private final ConcurrentMap<String, Long> negativeLookups = new ConcurrentHashMap<String, Long>();
+
     public LocalJndiConfigSource()
     {
+        preload = Boolean.parseBoolean(getBootstrapValue(PRELOAD_KEY));
+        refreshIntervalMillis = parseRefreshInterval(getBootstrapValue(REFRESH_INTERVAL_KEY));
+
+        if (preload)
+        {
+            preloadValues();
+        }
+
         initOrdinal(200);
     }
 
@@ -47,10 +90,63 @@ class LocalJndiConfigSource extends BaseConfigSource
      */
     @Override
     public String getPropertyValue(String key)
+    {
+        if (preload && !key.startsWith("java:comp/env"))
+        {
+            return getPreloadedValues().get(key);
+        }
+
+        if (refreshIntervalMillis > 0)
+        {
+            Long lookupAgainAfter = negativeLookups.get(key);
+            if (lookupAgainAfter != null)
+            {
+                if (System.currentTimeMillis() < lookupAgainAfter)
+                {
+                    return null;
+                }
+                negativeLookups.remove(key);
+            }
+        }
+
+        String value = lookup(getJndiKey(key));
+
+        if (value == null && refreshIntervalMillis > 0)
+        {
+            rememberNegativeLookup(key);
+        }
+        return value;
+    }
+
+    private void rememberNegativeLookup(String key)
+    {
+        long now = System.currentTimeMillis();
+
+        if (negativeLookups.size() >= MAX_NEGATIVE_LOOKUPS)
+        {
+            Iterator<Long> lookupAgainAfterIterator = negativeLookups.values().iterator();
+            while (lookupAgainAfterIterator.hasNext())
+            {
+                if (now >= lookupAgainAfterIterator.next())
+                {
+                    lookupAgainAfterIterator.remove();
+                }
+            }
+
+            if (negativeLookups.size() >= MAX_NEGATIVE_LOOKUPS)
+            {
+                // too many different keys without value - they just get looked up again
+                return;
+            }
+        }
+        negativeLookups.put(key, now + refreshIntervalMillis);
+    }
+
+    private String lookup(String jndiKey)
     {
         try
         {
-            return JndiUtils.lookup(getJndiKey(key), String.class);
+            return JndiUtils.lookup(jndiKey, String.class);
         }
         catch (Exception e)
         {
@@ -59,6 +155,74 @@ class LocalJndiConfigSource extends BaseConfigSource
         return null;
     }
 
+    private Map<String, String> getPreloadedValues()
+    {
+        if (refreshIntervalMillis > 0 && System.currentTimeMillis() >= nextRefresh)
+        {
+            refreshPreloadedValues();
+        }
+        return preloadedValues;
+    }
+
+    private synchronized void refreshPreloadedValues()
+    {
+        // another thread might have done it already
+        if (System.currentTimeMillis() >= nextRefresh)
+        {
+            preloadValues();
+        }
+    }
+
+    private void preloadValues()
+    {
+        try
+        {
+            preloadedValues = JndiUtils.listOrFail(BASE_NAME, String.class);
+        }
+        catch (NameNotFoundException e)
+        {
+            // nothing configured via JNDI
+            preloadedValues = Collections.emptyMap();
+        }
+        catch (NamingException e)
+        {
+            // e.g. a temporary failure - keep the entries we have
+            log.log(Level.WARNING, "Failed to read the entries of " + BASE_NAME +
+                    ", the previously read entries are used until the next refresh.", e);
+        }
+        nextRefresh = System.currentTimeMillis() + refreshIntervalMillis;
+    }
+
+    private String getBootstrapValue(String key)
+    {
+        String value = System.getProperty(key);
+
+        if (value == null)
+        {
+            value = lookup(BASE_NAME + key);
+        }
+        return value;
+    }
+
+    private long parseRefreshInterval(String configuredValue)
+    {
+        if (configuredValue == null)
+        {
+            return 0;
+        }
+
+        try
+        {
+            return Long.parseLong(configuredValue.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            log.log(Level.WARNING, "The configured value of " + REFRESH_INTERVAL_KEY +
+                    " isn't a valid number. Invalid value: " + configuredValue);
+            return 0;
+        }
+    }
+
     private String getJndiKey(String key)
     {
         if (key.startsWith("java:comp/env"))
@@ -19,6 +19,7 @@
 package org.apache.deltaspike.core.impl.config;
 
 import java.net.URL;
+import java.util.Properties;
 
 import org.apache.deltaspike.core.util.PropertyFileUtils;
 
@@ -32,7 +33,12 @@ class PropertyFileConfigSource extends PropertiesConfigSource
 
     PropertyFileConfigSource(URL propertyFileUrl)
     {
-        super(PropertyFileUtils.loadProperties(propertyFileUrl));
+        this(propertyFileUrl, PropertyFileUtils.loadProperties(propertyFileUrl));
+    }
+
+    PropertyFileConfigSource(URL propertyFileUrl, Properties properties)
+    {
+        super(properties);
         fileName = propertyFileUrl.toExternalForm();
         initOrdinal(100);
     }
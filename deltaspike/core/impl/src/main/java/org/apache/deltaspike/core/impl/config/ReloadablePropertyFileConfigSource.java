@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.impl.config;
+
+import java.io.Closeable;
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.inject.Typed;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.apache.deltaspike.core.api.config.ConfigResolver;
+import org.apache.deltaspike.core.api.config.event.ConfigChangedEvent;
+import org.apache.deltaspike.core.api.provider.BeanManagerProvider;
+import org.apache.deltaspike.core.util.PropertyFileUtils;
+
+/**
+ * {@link org.apache.deltaspike.core.spi.config.ConfigSource} for a property file in the file-system which
+ * picks up changes of the file without restarting the application.
+ *
+ * <p>It gets used instead of {@link PropertyFileConfigSource} if the property file contains the property
+ * {@value #RELOAD_INTERVAL_KEY}, which defines the interval (in seconds) for checking the last modification
+ * of the file. The check is performed lazily during a lookup and only the file of this ConfigSource gets parsed
+ * again. The new values are published atomically and the changed keys get removed from the cache of the
+ * {@link ConfigResolver}. Afterwards a {@link ConfigChangedEvent} gets fired by a notification thread of this
+ * ConfigSource, so the lookup which detected the change doesn't wait for the observers and observers don't run
+ * within the lookup (therefore observers can't rely on active request- or session-contexts).
+ * The events of a file are fired one after the other in the order of the changes.</p>
+ * <p>The notification thread gets stopped if there are no changes for a minute and finally by {@link #close()},
+ * which is called by {@link ConfigResolver#freeConfigSources()}.</p>
+ */
+@Typed()
+public class ReloadablePropertyFileConfigSource extends BaseConfigSource implements Closeable
+{
+    public static final String RELOAD_INTERVAL_KEY = "deltaspike_reload";
+
+    private static final Logger LOG = Logger.getLogger(ReloadablePropertyFileConfigSource.class.getName());
+
+    private final String fileName;
+    private final URL propertyFileUrl;
+    private final File propertyFile;
+    private final long checkIntervalMillis;
+
+    private volatile Map<String, String> properties;
+    private volatile long nextCheck;
+    private long lastModified;
+
+    // guarded by this, created with the first change
+    private ThreadPoolExecutor notifier;
+    private boolean closed;
+
+    public ReloadablePropertyFileConfigSource(URL propertyFileUrl, Properties properties, long checkIntervalMillis)
+    {
+        this.fileName = propertyFileUrl.toExternalForm();
+        this.propertyFileUrl = propertyFileUrl;
+        this.propertyFile = toFile(propertyFileUrl);
+        this.checkIntervalMillis = checkIntervalMillis;
+
+        this.properties = toMap(properties);
+        this.lastModified = propertyFile.lastModified();
+        this.nextCheck = System.currentTimeMillis() + checkIntervalMillis;
+
+        initOrdinal(100);
+    }
+
+    /**
+     * @param propertyFileUrl url of the property file
+     * @param properties      the content of the property file
+     * @return the interval for checking the file in milliseconds or 0 if the file can't (or shouldn't) be reloaded
+     */
+    public static long getCheckIntervalMillis(URL propertyFileUrl, Properties properties)
+    {
+        String configuredInterval = properties.getProperty(RELOAD_INTERVAL_KEY);
+
+        if (configuredInterval == null || !"file".equals(propertyFileUrl.getProtocol()))
+        {
+            return 0;
+        }
+
+        try
+        {
+            return Long.parseLong(configuredInterval.trim()) * 1000;
+        }
+        catch (NumberFormatException e)
+        {
+            LOG.log(Level.WARNING, "The configured " + RELOAD_INTERVAL_KEY + " of " + propertyFileUrl +
+                    " isn't a valid number. Invalid value: " + configuredInterval);
+            return 0;
+        }
+    }
+
+    @Override
+    public String getPropertyValue(String key)
+    {
+        checkForChanges();
+        return properties.get(key);
+    }
+
+    @Override
+    public Map<String, String> getProperties()
+    {
+        checkForChanges();
+        return properties;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getConfigName()
+    {
+        return fileName;
+    }
+
+    @Override
+    public boolean isScannable()
+    {
+        return true;
+    }
+
+    /**
+     * Stops the notification thread. Changes of the file are still picked up, but no {@link ConfigChangedEvent}
+     * gets fired anymore.
+     */
+    @Override
+    public synchronized void close()
+    {
+        closed = true;
+
+        if (notifier != null)
+        {
+            // the container is shutting down - there is nobody left to notify
+            notifier.shutdownNow();
+            notifier = null;
+        }
+    }
+
+    private void checkForChanges()
+    {
+        if (System.currentTimeMillis() < nextCheck)
+        {
+            return;
+        }
+
+        Set<String> changedKeys = reloadIfModified();
+
+        if (!changedKeys.isEmpty())
+        {
+            for (String changedKey : changedKeys)
+            {
+                ConfigResolver.invalidate(changedKey);
+            }
+
+            BeanManager beanManager = getBeanManager();
+            ExecutorService currentNotifier = getNotifier();
+            if (beanManager != null && currentNotifier != null)
+            {
+                fireConfigChangedEvent(currentNotifier, beanManager, changedKeys);
+            }
+        }
+    }
+
+    private BeanManager getBeanManager()
+    {
+        if (!BeanManagerProvider.isActive())
+        {
+            return null;
+        }
+
+        try
+        {
+            return BeanManagerProvider.getInstance().getBeanManager();
+        }
+        catch (IllegalStateException e)
+        {
+            // e.g. a lookup outside of the application (or during the shutdown) - nobody to notify
+            LOG.log(Level.FINE, "No BeanManager available for notifying about changes of " + fileName, e);
+            return null;
+        }
+    }
+
+    private synchronized ExecutorService getNotifier()
+    {
+        if (closed)
+        {
+            return null;
+        }
+
+        if (notifier == null)
+        {
+            ThreadFactory threadFactory = new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(Runnable runnable)
+                {
+                    Thread notificationThread =
+                            new Thread(runnable, "DeltaSpike config change notification for " + fileName);
+                    notificationThread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+                    notificationThread.setDaemon(true);
+                    return notificationThread;
+                }
+            };
+
+            // a single thread keeps the order of the events
+            notifier = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), threadFactory);
+            // reloading happens rarely, therefore the thread doesn't wait for further changes
+            notifier.allowCoreThreadTimeOut(true);
+        }
+        return notifier;
+    }
+
+    private void fireConfigChangedEvent(ExecutorService currentNotifier,
+                                        final BeanManager beanManager,
+                                        Set<String> changedKeys)
+    {
+        final ConfigChangedEvent configChangedEvent = new ConfigChangedEvent(fileName, changedKeys);
+
+        try
+        {
+            currentNotifier.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        beanManager.fireEvent(configChangedEvent);
+                    }
+                    catch (RuntimeException e)
+                    {
+                        LOG.log(Level.WARNING, "Failed to notify the observers about changes of " + fileName, e);
+                    }
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            // closed in the meantime
+            LOG.log(Level.FINE, "No notification about changes of " + fileName + " after closing it", e);
+        }
+    }
+
+    private synchronized Set<String> reloadIfModified()
+    {
+        long now = System.currentTimeMillis();
+
+        // another thread might have done the check already
+        if (now < nextCheck)
+        {
+            return Collections.emptySet();
+        }
+        nextCheck = now + checkIntervalMillis;
+
+        long currentLastModified = propertyFile.lastModified();
+        if (currentLastModified == lastModified)
+        {
+            return Collections.emptySet();
+        }
+
+        Map<String, String> newProperties;
+        try
+        {
+            newProperties = toMap(PropertyFileUtils.loadProperties(propertyFileUrl));
+        }
+        catch (IllegalStateException e)
+        {
+            // e.g. the file gets replaced right now, we just try it again with the next check
+            LOG.log(Level.WARNING, "Couldn't reload " + fileName, e);
+            return Collections.emptySet();
+        }
+        lastModified = currentLastModified;
+
+        Map<String, String> oldProperties = properties;
+        Set<String> changedKeys = new HashSet<String>();
+
+        for (Map.Entry<String, String> newEntry : newProperties.entrySet())
+        {
+            if (!newEntry.getValue().equals(oldProperties.get(newEntry.getKey())))
+            {
+                changedKeys.add(newEntry.getKey());
+            }
+        }
+        for (String oldKey : oldProperties.keySet())
+        {
+            if (!newProperties.containsKey(oldKey))
+            {
+                changedKeys.add(oldKey);
+            }
+        }
+
+        properties = newProperties;
+
+        if (!changedKeys.isEmpty())
+        {
+            LOG.log(Level.INFO, "Reloaded {0}, changed keys: {1}", new Object[]{fileName, changedKeys});
+        }
+        return changedKeys;
+    }
+
+    private static File toFile(URL propertyFileUrl)
+    {
+        try
+        {
+            return new File(propertyFileUrl.toURI());
+        }
+        catch (URISyntaxException e)
+        {
+            return new File(propertyFileUrl.getPath());
+        }
+    }
+
+    private static Map<String, String> toMap(Properties properties)
+    {
+        Map<String, String> result = new HashMap<String, String>();
+        for (String propertyName : properties.stringPropertyNames())
+        {
+            result.put(propertyName, properties.getProperty(propertyName));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
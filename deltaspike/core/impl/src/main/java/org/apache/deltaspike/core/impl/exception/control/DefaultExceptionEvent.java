@@ -40,6 +40,7 @@ public class DefaultExceptionEvent<T extends Throwable> implements Introspective
     private Throwable throwNewException;
     private final boolean beforeTraversal;
     private final boolean markedHandled;
+    private final int suppressedCount;
 
 
     /**
@@ -52,6 +53,21 @@ public class DefaultExceptionEvent<T extends Throwable> implements Introspective
      */
     public DefaultExceptionEvent(final ExceptionStackEvent stackEvent, final boolean beforeTraversal,
                                  final boolean handled)
+    {
+        this(stackEvent, beforeTraversal, handled, 0);
+    }
+
+    /**
+     * Initial state constructor.
+     *
+     * @param stackEvent           Information about the current exception and cause chain.
+     * @param beforeTraversal flag indicating the direction of the cause chain traversal
+     * @param handled         flag indicating the exception has already been handled by a previous handler
+     * @param suppressedCount number of suppressed duplicates of the exception
+     * @throws IllegalArgumentException if stackEvent is null
+     */
+    public DefaultExceptionEvent(final ExceptionStackEvent stackEvent, final boolean beforeTraversal,
+                                 final boolean handled, final int suppressedCount)
     {
         if (stackEvent == null)
         {
@@ -61,6 +77,7 @@ public class DefaultExceptionEvent<T extends Throwable> implements Introspective
         exception = (T) stackEvent.getCurrent();
         this.beforeTraversal = beforeTraversal;
         markedHandled = handled;
+        this.suppressedCount = suppressedCount;
         flow = ExceptionHandlingFlow.HANDLED_AND_CONTINUE;
     }
 
@@ -129,6 +146,12 @@ public class DefaultExceptionEvent<T extends Throwable> implements Introspective
         return markedHandled;
     }
 
+    @Override
+    public int getSuppressedCount()
+    {
+        return suppressedCount;
+    }
+
     @Override
     public boolean isBeforeTraversal()
     {
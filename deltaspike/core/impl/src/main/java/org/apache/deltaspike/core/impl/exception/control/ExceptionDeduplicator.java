@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.core.impl.exception.control;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.inject.Typed;
+
+/**
+ * Limits the number of equal exceptions which get passed to the exception handlers within a sliding time window.
+ *
+ * <p>
+ * Exceptions are considered as equal if they have the same type, the same top stack-trace frames and get fired
+ * with the same qualifiers. Exceptions above the configured rate are suppressed, the next exception which is
+ * passed to the handlers again reports the number of suppressed duplicates via
+ * {@link org.apache.deltaspike.core.api.exception.control.event.ExceptionEvent#getSuppressedCount()}.</p>
+ *
+ * <p>
+ * A suppressed exception gets the {@link Outcome} of the last equal exception which was passed to the handlers.
+ * If that outcome can't be replayed (e.g. a handler threw a new exception), equal exceptions aren't suppressed.</p>
+ */
+@Typed()
+public class ExceptionDeduplicator
+{
+    public static final String MAX_PER_WINDOW_KEY = "deltaspike.exception.deduplication.max_per_window";
+    public static final String WINDOW_KEY = "deltaspike.exception.deduplication.window_ms";
+    public static final String STACK_FRAMES_KEY = "deltaspike.exception.deduplication.stack_frames";
+
+    /**
+     * Returned by {@link Registration#getSuppressedCount()} if the exception should not be passed to the handlers.
+     */
+    public static final int SUPPRESSED = -1;
+
+    // internal marker for the first suppressed exception after the rate got exceeded
+    private static final int FIRST_SUPPRESSED = -2;
+
+    private static final Logger LOG = Logger.getLogger(ExceptionDeduplicator.class.getName());
+
+    // protects against an unlimited growth e.g. caused by exceptions with generated stack-traces
+    private static final int MAX_FINGERPRINT_COUNT = 1024;
+
+    /**
+     * Result of passing an exception to the handlers which can be replayed for suppressed duplicates.
+     */
+    public enum Outcome
+    {
+        /**
+         * The exception got marked as handled.
+         */
+        HANDLED,
+
+        /**
+         * The exception didn't get marked as handled (e.g. an optional exception or an aborted handler chain).
+         */
+        NOT_HANDLED,
+
+        /**
+         * The original exception got re-thrown.
+         */
+        RETHROWN
+    }
+
+    private final int maxPerWindow;
+    private final long windowMillis;
+    private final int stackFrames;
+
+    private final ConcurrentMap<Fingerprint, SlidingWindow> windows =
+        new ConcurrentHashMap<Fingerprint, SlidingWindow>();
+
+    // fingerprints in the order of their registration, used for evicting the oldest windows
+    private final Queue<Fingerprint> fingerprints = new ConcurrentLinkedQueue<Fingerprint>();
+
+    /**
+     * @param maxPerWindow max. number of equal exceptions which get passed to the handlers within the window
+     * @param windowMillis size of the sliding window in milliseconds
+     * @param stackFrames  number of top stack-trace frames which are part of the fingerprint
+     */
+    public ExceptionDeduplicator(int maxPerWindow, long windowMillis, int stackFrames)
+    {
+        if (maxPerWindow < 1)
+        {
+            throw new IllegalArgumentException("maxPerWindow has to be greater than 0");
+        }
+
+        this.maxPerWindow = maxPerWindow;
+        this.windowMillis = windowMillis;
+        this.stackFrames = Math.max(stackFrames, 0);
+    }
+
+    /**
+     * Registers the given exception.
+     *
+     * @param exception  exception which should get handled
+     * @param qualifiers qualifiers of the {@link
+     *                   org.apache.deltaspike.core.api.exception.control.event.ExceptionToCatchEvent}
+     * @return the registration which tells if the exception has to be passed to the handlers
+     */
+    public Registration register(Throwable exception, Set<Annotation> qualifiers)
+    {
+        Fingerprint fingerprint = new Fingerprint(exception, qualifiers, stackFrames);
+
+        SlidingWindow window = windows.get(fingerprint);
+        if (window == null)
+        {
+            window = new SlidingWindow(maxPerWindow);
+            SlidingWindow existingWindow = windows.putIfAbsent(fingerprint, window);
+            if (existingWindow != null)
+            {
+                window = existingWindow;
+            }
+            else
+            {
+                fingerprints.add(fingerprint);
+                evictOldestWindows();
+            }
+        }
+
+        Registration registration = window.register(currentTimeMillis(), windowMillis);
+
+        if (registration.suppressedCount == FIRST_SUPPRESSED)
+        {
+            if (LOG.isLoggable(Level.INFO))
+            {
+                LOG.info(String.format("More than %d exceptions of type %s within %d ms - suppressing duplicates",
+                        maxPerWindow, exception.getClass().getName(), windowMillis));
+            }
+            registration.suppressedCount = SUPPRESSED;
+        }
+        return registration;
+    }
+
+    /**
+     * @return the current time in milliseconds
+     */
+    protected long currentTimeMillis()
+    {
+        return System.currentTimeMillis();
+    }
+
+    private void evictOldestWindows()
+    {
+        while (windows.size() > MAX_FINGERPRINT_COUNT)
+        {
+            Fingerprint oldestFingerprint = fingerprints.poll();
+            if (oldestFingerprint == null)
+            {
+                return;
+            }
+            windows.remove(oldestFingerprint);
+        }
+    }
+
+    /**
+     * Registration of a single exception.
+     */
+    public static final class Registration
+    {
+        private final SlidingWindow window;
+        private final Outcome replayedOutcome;
+        private int suppressedCount;
+
+        private Registration(SlidingWindow window, int suppressedCount, Outcome replayedOutcome)
+        {
+            this.window = window;
+            this.suppressedCount = suppressedCount;
+            this.replayedOutcome = replayedOutcome;
+        }
+
+        /**
+         * @return true if the exception should not be passed to the handlers
+         */
+        public boolean isSuppressed()
+        {
+            return suppressedCount == SUPPRESSED;
+        }
+
+        /**
+         * @return {@link #SUPPRESSED} if the exception exceeds the configured rate, otherwise the number of equal
+         *         exceptions which were suppressed since the last one got passed to the handlers
+         */
+        public int getSuppressedCount()
+        {
+            return suppressedCount;
+        }
+
+        /**
+         * @return the outcome which has to be replayed for a suppressed exception, otherwise null
+         */
+        public Outcome getReplayedOutcome()
+        {
+            return replayedOutcome;
+        }
+
+        /**
+         * Records the outcome of passing the exception to the handlers. Suppressed duplicates replay it.
+         *
+         * @param outcome the outcome or null if it can't be replayed
+         */
+        public void recordOutcome(Outcome outcome)
+        {
+            if (!isSuppressed())
+            {
+                window.recordOutcome(outcome);
+            }
+        }
+    }
+
+    /**
+     * Keeps the timestamps of the last exceptions which were passed to the handlers in a ring-buffer.
+     * If the oldest of them is still within the window, the rate is exceeded.
+     */
+    private static final class SlidingWindow
+    {
+        private final long[] timestamps;
+        private int next;
+        private int suppressedCount;
+        private Outcome lastOutcome;
+
+        private SlidingWindow(int size)
+        {
+            this.timestamps = new long[size];
+        }
+
+        synchronized Registration register(long now, long windowMillis)
+        {
+            // an exception is only suppressed if the handlers produced a replayable outcome for an equal one
+            if (lastOutcome != null && timestamps[next] != 0 && now - timestamps[next] < windowMillis)
+            {
+                suppressedCount++;
+                return new Registration(this, suppressedCount == 1 ? FIRST_SUPPRESSED : SUPPRESSED, lastOutcome);
+            }
+
+            timestamps[next] = now;
+            next = (next + 1) % timestamps.length;
+
+            int result = suppressedCount;
+            suppressedCount = 0;
+            return new Registration(this, result, null);
+        }
+
+        synchronized void recordOutcome(Outcome outcome)
+        {
+            lastOutcome = outcome;
+        }
+    }
+
+    private static final class Fingerprint
+    {
+        private final Class<? extends Throwable> exceptionType;
+        private final StackTraceElement[] frames;
+        private final Set<Annotation> qualifiers;
+        private final int hashCode;
+
+        private Fingerprint(Throwable exception, Set<Annotation> qualifiers, int stackFrames)
+        {
+            this.exceptionType = exception.getClass();
+
+            StackTraceElement[] stackTrace = exception.getStackTrace();
+            if (stackTrace.length > stackFrames)
+            {
+                stackTrace = Arrays.copyOf(stackTrace, stackFrames);
+            }
+            this.frames = stackTrace;
+
+            if (qualifiers == null || qualifiers.isEmpty())
+            {
+                this.qualifiers = Collections.emptySet();
+            }
+            else
+            {
+                this.qualifiers = new HashSet<Annotation>(qualifiers);
+            }
+
+            int result = exceptionType.hashCode();
+            result = 31 * result + Arrays.hashCode(frames);
+            result = 31 * result + this.qualifiers.hashCode();
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Fingerprint))
+            {
+                return false;
+            }
+
+            Fingerprint that = (Fingerprint) o;
+            return hashCode == that.hashCode
+                    && exceptionType.equals(that.exceptionType)
+                    && Arrays.equals(frames, that.frames)
+                    && qualifiers.equals(that.qualifiers);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
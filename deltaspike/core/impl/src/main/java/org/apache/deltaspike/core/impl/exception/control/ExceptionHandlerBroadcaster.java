@@ -19,24 +19,22 @@
 
 package org.apache.deltaspike.core.impl.exception.control;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Any;
 import javax.enterprise.inject.spi.BeanManager;
+import javax.inject.Inject;
 
+import org.apache.deltaspike.core.api.config.ConfigResolver;
 import org.apache.deltaspike.core.api.exception.control.HandlerMethod;
 import org.apache.deltaspike.core.api.exception.control.event.ExceptionStackEvent;
 import org.apache.deltaspike.core.api.exception.control.event.ExceptionToCatchEvent;
-import org.apache.deltaspike.core.api.provider.BeanProvider;
 
 /**
  * Observer of {@link org.apache.deltaspike.core.api.exception.control.event.ExceptionToCatchEvent} events and handler
@@ -47,6 +45,29 @@ public class ExceptionHandlerBroadcaster
 {
     private static final Logger LOG = Logger.getLogger(ExceptionHandlerBroadcaster.class.getName());
 
+    @Inject
+    private HandlerMethodStorage handlerMethodStorage;
+
+    // null if the deduplication isn't enabled
+    private ExceptionDeduplicator exceptionDeduplicator;
+
+    @PostConstruct
+    protected void init()
+    {
+        int maxPerWindow = ConfigResolver.resolve(ExceptionDeduplicator.MAX_PER_WINDOW_KEY)
+                .as(Integer.class).withDefault(0).getValue();
+
+        if (maxPerWindow > 0)
+        {
+            long windowMillis = ConfigResolver.resolve(ExceptionDeduplicator.WINDOW_KEY)
+                    .as(Long.class).withDefault(1000L).getValue();
+            int stackFrames = ConfigResolver.resolve(ExceptionDeduplicator.STACK_FRAMES_KEY)
+                    .as(Integer.class).withDefault(5).getValue();
+
+            this.exceptionDeduplicator = new ExceptionDeduplicator(maxPerWindow, windowMillis, stackFrames);
+        }
+    }
+
     /**
      * Observes the event, finds the correct exception handler(s) and invokes them.
      * 
@@ -65,16 +86,31 @@ public class ExceptionHandlerBroadcaster
 
         CreationalContext<Object> creationalContext = null;
 
-        Throwable throwException = null;
+        Throwable exceptionToThrow = null;
+
+        ExceptionDeduplicator.Registration deduplicationRegistration = null;
+        int suppressedCount = 0;
+        if (exceptionDeduplicator != null)
+        {
+            deduplicationRegistration = exceptionDeduplicator.register(
+                    exceptionEventEvent.getException(), exceptionEventEvent.getQualifiers());
+
+            if (deduplicationRegistration.isSuppressed())
+            {
+                // the handlers were notified about equal exceptions already
+                replayOutcome(exceptionEventEvent, deduplicationRegistration.getReplayedOutcome());
+                return;
+            }
+            suppressedCount = deduplicationRegistration.getSuppressedCount();
+        }
 
-        final HandlerMethodStorage handlerMethodStorage =
-                BeanProvider.getContextualReference(HandlerMethodStorage.class);
+        Throwable thrownException = null;
 
         try
         {
             creationalContext = beanManager.createCreationalContext(null);
 
-            final Set<HandlerMethod<?>> processedHandlers = new HashSet<HandlerMethod<?>>();
+            final ProcessedHandlers processedHandlers = new ProcessedHandlers();
 
             final ExceptionStackEvent stack = new ExceptionStackEvent(exceptionEventEvent.getException());
 
@@ -84,24 +120,21 @@ public class ExceptionHandlerBroadcaster
         inbound_cause:
             while (stack.getCurrent() != null)
             {
-                final List<HandlerMethod<?>> callbackExceptionEvent = new ArrayList<HandlerMethod<?>>(
+                final List<HandlerMethod<? extends Throwable>> callbackExceptionEvent =
                         handlerMethodStorage.getHandlersForException(stack.getCurrent().getClass(),
-                                beanManager, exceptionEventEvent.getQualifiers(), true));
+                                beanManager, exceptionEventEvent.getQualifiers(), true);
 
-                for (HandlerMethod<?> handler : callbackExceptionEvent)
+                for (int i = 0; i < callbackExceptionEvent.size(); i++)
                 {
+                    final HandlerMethod<?> handler = callbackExceptionEvent.get(i);
+
                     if (!processedHandlers.contains(handler))
                     {
-                        LOG.fine(String.format("Notifying handler %s", handler));
-
                         @SuppressWarnings("rawtypes")
                         final DefaultExceptionEvent callbackEvent = new DefaultExceptionEvent(stack, true,
-                                exceptionEventEvent.isHandled());
-
-                        handler.notify(callbackEvent, beanManager);
+                                exceptionEventEvent.isHandled(), suppressedCount);
 
-                        LOG.fine(String.format("Handler %s returned status %s", handler,
-                                callbackEvent.getCurrentExceptionHandlingFlow().name()));
+                        notifyHandler(handler, callbackEvent, beanManager);
 
                         if (!callbackEvent.isUnmute())
                         {
@@ -133,29 +166,22 @@ public class ExceptionHandlerBroadcaster
                     }
                 }
 
-                final Collection<HandlerMethod<? extends Throwable>> handlersForException =
+                final List<HandlerMethod<? extends Throwable>> handlerMethods =
                         handlerMethodStorage.getHandlersForException(stack.getCurrent().getClass(),
                                 beanManager, exceptionEventEvent.getQualifiers(), false);
 
-                final List<HandlerMethod<? extends Throwable>> handlerMethods =
-                        new ArrayList<HandlerMethod<? extends Throwable>>(handlersForException);
-
-                // Reverse these so category handlers are last
-                Collections.reverse(handlerMethods);
-
-                for (HandlerMethod<?> handler : handlerMethods)
+                // Iterate backwards so category handlers are last
+                for (int i = handlerMethods.size() - 1; i >= 0; i--)
                 {
+                    final HandlerMethod<?> handler = handlerMethods.get(i);
+
                     if (!processedHandlers.contains(handler))
                     {
-                        LOG.fine(String.format("Notifying handler %s", handler));
-
                         @SuppressWarnings("rawtypes")
                         final DefaultExceptionEvent depthFirstEvent = new DefaultExceptionEvent(stack, false,
-                                exceptionEventEvent.isHandled());
-                        handler.notify(depthFirstEvent, beanManager);
+                                exceptionEventEvent.isHandled(), suppressedCount);
 
-                        LOG.fine(String.format("Handler %s returned status %s", handler,
-                                depthFirstEvent.getCurrentExceptionHandlingFlow().name()));
+                        notifyHandler(handler, depthFirstEvent, beanManager);
 
                         if (!depthFirstEvent.isUnmute())
                         {
@@ -177,10 +203,10 @@ public class ExceptionHandlerBroadcaster
                                 stack.skipCause();
                                 continue inbound_cause;
                             case THROW_ORIGINAL:
-                                throwException = exceptionEventEvent.getException();
+                                exceptionToThrow = exceptionEventEvent.getException();
                                 break;
                             case THROW:
-                                throwException = depthFirstEvent.getThrowNewException();
+                                exceptionToThrow = depthFirstEvent.getThrowNewException();
                                 break;
                             default:
                                 throw new IllegalStateException(
@@ -191,19 +217,32 @@ public class ExceptionHandlerBroadcaster
                 stack.skipCause();
             }
 
-            if (!exceptionEventEvent.isHandled() && throwException == null && !exceptionEventEvent.isOptional())
+            if (!exceptionEventEvent.isHandled() && exceptionToThrow == null && !exceptionEventEvent.isOptional())
             {
-                LOG.warning(String.format("No handlers found for exception %s", exceptionEventEvent.getException()));
+                if (LOG.isLoggable(Level.WARNING))
+                {
+                    LOG.warning(String.format("No handlers found for exception %s",
+                            exceptionEventEvent.getException()));
+                }
                 throw exceptionEventEvent.getException();
             }
 
-            if (throwException != null)
+            if (exceptionToThrow != null)
             {
-                throw throwException;
+                throw exceptionToThrow;
             }
         }
+        catch (Throwable t)
+        {
+            thrownException = t;
+            throw t;
+        }
         finally
         {
+            if (deduplicationRegistration != null)
+            {
+                deduplicationRegistration.recordOutcome(toOutcome(exceptionEventEvent, thrownException));
+            }
             if (creationalContext != null)
             {
                 creationalContext.release();
@@ -212,4 +251,103 @@ public class ExceptionHandlerBroadcaster
                     exceptionEventEvent.getException());
         }
     }
+
+    private void replayOutcome(ExceptionToCatchEvent exceptionEventEvent, ExceptionDeduplicator.Outcome outcome)
+        throws Throwable
+    {
+        try
+        {
+            switch (outcome)
+            {
+                case HANDLED:
+                    exceptionEventEvent.setHandled(true);
+                    break;
+                case NOT_HANDLED:
+                    break;
+                case RETHROWN:
+                    throw exceptionEventEvent.getException();
+                default:
+                    throw new IllegalStateException("Unexpected enum type " + outcome);
+            }
+        }
+        finally
+        {
+            LOG.exiting(ExceptionHandlerBroadcaster.class.getName(), "executeHandlers",
+                    exceptionEventEvent.getException());
+        }
+    }
+
+    // null if the outcome can't be replayed for a suppressed duplicate (e.g. a new exception was thrown)
+    private ExceptionDeduplicator.Outcome toOutcome(ExceptionToCatchEvent exceptionEventEvent,
+                                                    Throwable thrownException)
+    {
+        if (thrownException == null)
+        {
+            return exceptionEventEvent.isHandled() ?
+                    ExceptionDeduplicator.Outcome.HANDLED : ExceptionDeduplicator.Outcome.NOT_HANDLED;
+        }
+        if (thrownException == exceptionEventEvent.getException())
+        {
+            return ExceptionDeduplicator.Outcome.RETHROWN;
+        }
+        return null;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void notifyHandler(HandlerMethod handler, DefaultExceptionEvent event, BeanManager beanManager)
+        throws Exception
+    {
+        boolean fineLoggable = LOG.isLoggable(Level.FINE);
+
+        if (fineLoggable)
+        {
+            LOG.fine(String.format("Notifying handler %s", handler));
+        }
+
+        handler.notify(event, beanManager);
+
+        if (fineLoggable)
+        {
+            LOG.fine(String.format("Handler %s returned status %s", handler,
+                    event.getCurrentExceptionHandlingFlow().name()));
+        }
+    }
+
+    /**
+     * Tracks the handlers which were already notified during the processing of a single event.
+     * Usually only a few handlers get notified, therefore a small array which gets compared by identity
+     * (the storage always returns the same instances) is cheaper than a hash based set.
+     */
+    private static final class ProcessedHandlers
+    {
+        private HandlerMethod<?>[] handlers;
+        private int size;
+
+        boolean contains(HandlerMethod<?> handler)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                if (handlers[i] == handler)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(HandlerMethod<?> handler)
+        {
+            if (handlers == null)
+            {
+                handlers = new HandlerMethod<?>[4];
+            }
+            else if (size == handlers.length)
+            {
+                HandlerMethod<?>[] newHandlers = new HandlerMethod<?>[size * 2];
+                System.arraycopy(handlers, 0, newHandlers, 0, size);
+                handlers = newHandlers;
+            }
+            handlers[size++] = handler;
+        }
+    }
 }
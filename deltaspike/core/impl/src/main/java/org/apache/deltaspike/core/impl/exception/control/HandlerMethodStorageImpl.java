@@ -27,23 +27,36 @@ import javax.enterprise.inject.Typed;
 import javax.enterprise.inject.spi.BeanManager;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Basic implementation for {@link HandlerMethodStorage}.
+ *
+ * <p>The resolved and sorted handlers get cached per exception type, qualifiers and traversal mode,
+ * since exceptions of the same type usually occur many times (e.g. during an outage of a backend).
+ * The cache gets dropped whenever a new handler gets registered.</p>
  */
 @SuppressWarnings("CdiManagedBeanInconsistencyInspection")
 @Typed()
 class HandlerMethodStorageImpl implements HandlerMethodStorage
 {
+    private static final AnyLiteral ANY_LITERAL = new AnyLiteral();
+
     private final Map<Type, Collection<HandlerMethod<? extends Throwable>>> allHandlers;
 
+    private volatile Map<HandlerCacheKey, List<HandlerMethod<? extends Throwable>>> cachedHandlers =
+        new ConcurrentHashMap<HandlerCacheKey, List<HandlerMethod<? extends Throwable>>>();
+
     private Logger log = Logger.getLogger(HandlerMethodStorageImpl.class.toString());
 
     HandlerMethodStorageImpl(Map<Type, Collection<HandlerMethod<? extends Throwable>>> allHandlers)
@@ -54,7 +67,10 @@ class HandlerMethodStorageImpl implements HandlerMethodStorage
     @Override
     public <T extends Throwable> void registerHandlerMethod(HandlerMethod<T> handlerMethod)
     {
-        log.fine(String.format("Adding handler %s to known handlers", handlerMethod));
+        if (log.isLoggable(Level.FINE))
+        {
+            log.fine(String.format("Adding handler %s to known handlers", handlerMethod));
+        }
         if (allHandlers.containsKey(handlerMethod.getExceptionType()))
         {
             allHandlers.get(handlerMethod.getExceptionType()).add(handlerMethod);
@@ -64,11 +80,34 @@ class HandlerMethodStorageImpl implements HandlerMethodStorage
             allHandlers.put(handlerMethod.getExceptionType(),
                     new HashSet<HandlerMethod<? extends Throwable>>(Collections.singleton(handlerMethod)));
         }
+
+        // a new map instead of #clear, since a concurrent lookup might still add an outdated result
+        cachedHandlers = new ConcurrentHashMap<HandlerCacheKey, List<HandlerMethod<? extends Throwable>>>();
     }
 
     @Override
-    public Collection<HandlerMethod<? extends Throwable>> getHandlersForException(Type exceptionClass,
-                                                                                  BeanManager bm,
+    public List<HandlerMethod<? extends Throwable>> getHandlersForException(Type exceptionClass,
+                                                                            BeanManager bm,
+                                                                            Set<Annotation> handlerQualifiers,
+                                                                            boolean isBefore)
+    {
+        Map<HandlerCacheKey, List<HandlerMethod<? extends Throwable>>> currentCachedHandlers = cachedHandlers;
+
+        List<HandlerMethod<? extends Throwable>> result =
+                currentCachedHandlers.get(new HandlerCacheKey(exceptionClass, handlerQualifiers, isBefore));
+
+        if (result == null)
+        {
+            result = resolveHandlersForException(exceptionClass, handlerQualifiers, isBefore);
+
+            // the qualifiers get copied, since the given set could be changed later on
+            currentCachedHandlers.put(new HandlerCacheKey(exceptionClass,
+                    new HashSet<Annotation>(handlerQualifiers), isBefore), result);
+        }
+        return result;
+    }
+
+    private List<HandlerMethod<? extends Throwable>> resolveHandlersForException(Type exceptionClass,
                                                                                   Set<Annotation> handlerQualifiers,
                                                                                   boolean isBefore)
     {
@@ -85,7 +124,7 @@ class HandlerMethodStorageImpl implements HandlerMethodStorage
                 {
                     if (handler.isBeforeHandler() && isBefore)
                     {
-                        if (handler.getQualifiers().contains(new AnyLiteral()))
+                        if (handler.getQualifiers().contains(ANY_LITERAL))
                         {
                             returningHandlers.add(handler);
                         }
@@ -99,7 +138,7 @@ class HandlerMethodStorageImpl implements HandlerMethodStorage
                     }
                     else if (!handler.isBeforeHandler() && !isBefore)
                     {
-                        if (handler.getQualifiers().contains(new AnyLiteral()))
+                        if (handler.getQualifiers().contains(ANY_LITERAL))
                         {
                             returningHandlers.add(handler);
                         }
@@ -115,8 +154,54 @@ class HandlerMethodStorageImpl implements HandlerMethodStorage
             }
         }
 
-        log.fine(String.format("Found handlers %s for exception type %s, qualifiers %s", returningHandlers,
-                exceptionClass, handlerQualifiers));
-        return Collections.unmodifiableCollection(returningHandlers);
+        if (log.isLoggable(Level.FINE))
+        {
+            log.fine(String.format("Found handlers %s for exception type %s, qualifiers %s", returningHandlers,
+                    exceptionClass, handlerQualifiers));
+        }
+        return Collections.unmodifiableList(new ArrayList<HandlerMethod<? extends Throwable>>(returningHandlers));
+    }
+
+    private static final class HandlerCacheKey
+    {
+        private final Type exceptionType;
+        private final Set<Annotation> qualifiers;
+        private final boolean before;
+        private final int hashCode;
+
+        private HandlerCacheKey(Type exceptionType, Set<Annotation> qualifiers, boolean before)
+        {
+            this.exceptionType = exceptionType;
+            this.qualifiers = qualifiers;
+            this.before = before;
+
+            int result = exceptionType.hashCode();
+            result = 31 * result + qualifiers.hashCode();
+            result = 31 * result + (before ? 1 : 0);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof HandlerCacheKey))
+            {
+                return false;
+            }
+
+            HandlerCacheKey that = (HandlerCacheKey) o;
+            return before == that.before && exceptionType.equals(that.exceptionType) &&
+                    qualifiers.equals(that.qualifiers);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
     }
 }
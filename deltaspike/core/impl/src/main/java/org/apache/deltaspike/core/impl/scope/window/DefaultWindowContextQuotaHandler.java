@@ -41,8 +41,8 @@ public class DefaultWindowContextQuotaHandler implements WindowContextQuotaHandl
     @PostConstruct
     protected void init()
     {
-        String maxCount = ConfigResolver.getPropertyValue("deltaspike.scope.window.max-count", "" + 1024);
-        this.maxWindowContextCount = Integer.parseInt(maxCount);
+        this.maxWindowContextCount = ConfigResolver.resolve("deltaspike.scope.window.max-count")
+                .as(Integer.class).withDefault(1024).getValue();
     }
 
     public synchronized /*no issue due to session-scoped instance*/ void checkWindowContextQuota(String windowId)
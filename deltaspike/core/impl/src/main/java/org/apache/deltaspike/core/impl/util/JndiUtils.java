@@ -175,30 +175,9 @@ public abstract class JndiUtils
      */
     public static <T> Map<String, T> list(String name, Class<T> type)
     {
-        Map<String, T> result = new HashMap<String, T>();
-
         try
         {
-            NameParser nameParser = initialContext.getNameParser(name);
-            NamingEnumeration<NameClassPair> enumeration = initialContext.list(name);
-            while (enumeration.hasMoreElements())
-            {
-                try
-                {
-                    NameClassPair binding = enumeration.nextElement();
-                    Name bindingName = nameParser.parse(name).add(binding.getName());                
-                    result.put(binding.getName(), lookup(bindingName, type));
-                }
-                catch (NamingException e)
-                {
-                    if (LOG.isLoggable(Level.FINEST))
-                    {
-                        // this is expected if there is no entry in JNDI for the requested name or type
-                        // so finest level is ok, if devs want to see it they can enable this logger level.
-                        LOG.log(Level.FINEST, "InitialContext#list failed!", e);
-                    }
-                }
-            }
+            return listOrFail(name, type);
         }
         catch (NamingException e)
         {
@@ -206,6 +185,44 @@ public abstract class JndiUtils
             LOG.log(Level.WARNING,"Problem reading the name of the JNDI location " + name
                 + " or failuring listing pairs.",e);
         }
+        return new HashMap<String, T>();
+    }
+
+    /**
+     * Resolves an instances for the given naming context.
+     * In contrast to {@link #list(String, Class)} a failure of listing the context gets propagated,
+     * which allows to distinguish it from an empty context.
+     *
+     * @param name       context name
+     * @param type       target type
+     * @param <T>        type
+     * @return the found instances
+     * @throws NamingException if the given context can't be listed
+     */
+    public static <T> Map<String, T> listOrFail(String name, Class<T> type) throws NamingException
+    {
+        Map<String, T> result = new HashMap<String, T>();
+
+        NameParser nameParser = initialContext.getNameParser(name);
+        NamingEnumeration<NameClassPair> enumeration = initialContext.list(name);
+        while (enumeration.hasMoreElements())
+        {
+            try
+            {
+                NameClassPair binding = enumeration.nextElement();
+                Name bindingName = nameParser.parse(name).add(binding.getName());                
+                result.put(binding.getName(), lookup(bindingName, type));
+            }
+            catch (NamingException e)
+            {
+                if (LOG.isLoggable(Level.FINEST))
+                {
+                    // this is expected if there is no entry in JNDI for the requested name or type
+                    // so finest level is ok, if devs want to see it they can enable this logger level.
+                    LOG.log(Level.FINEST, "InitialContext#list failed!", e);
+                }
+            }
+        }
         return result;
     }
 }
@@ -0,0 +1,88 @@
+/*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements. See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership. The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License. You may obtain a copy of the License at
+*
+* http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied. See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.apache.deltaspike.test.core.api.provider;
+
+import org.apache.deltaspike.core.api.provider.BeanManagerProvider;
+import org.apache.deltaspike.core.api.provider.BeanProvider;
+import org.apache.deltaspike.test.util.ArchiveUtils;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.enterprise.inject.spi.BeanManager;
+import java.lang.reflect.Field;
+import java.util.Map;
+
+/**
+ * Tests that the static caches of {@link BeanProvider} don't keep a BeanManager after the shutdown of its container.
+ */
+@RunWith(Arquillian.class)
+public class BeanProviderCacheTest
+{
+    @Deployment
+    public static WebArchive deploy()
+    {
+        JavaArchive testJar = ShrinkWrap.create(JavaArchive.class, "beanProviderCacheTest.jar")
+                .addPackage(BeanProviderCacheTest.class.getPackage())
+                .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+
+        return ShrinkWrap.create(WebArchive.class, "beanProviderCache.war")
+                .addAsLibraries(ArchiveUtils.getDeltaSpikeCoreArchive())
+                .addAsLibraries(testJar)
+                .addAsWebInfResource(EmptyAsset.INSTANCE, "beans.xml");
+    }
+
+    @Test
+    public void cachesOfStoppedContainerGetReleased() throws Exception
+    {
+        BeanManager beanManager = BeanManagerProvider.getInstance().getBeanManager();
+
+        Assert.assertNotNull(BeanProvider.getContextualReference(TestBean.class, false));
+        Assert.assertTrue(getResolvedBeans().containsKey(beanManager));
+
+        // like during the shutdown of the container
+        BeanManagerProvider.getInstance().cleanupStoredBeanManagerOnShutdown(null);
+        try
+        {
+            Assert.assertFalse(getResolvedBeans().containsKey(beanManager));
+
+            // the BeanManager isn't tracked anymore, therefore it mustn't get cached again
+            Assert.assertNotNull(BeanProvider.getContextualReference(beanManager, TestBean.class, false));
+            Assert.assertFalse(getResolvedBeans().containsKey(beanManager));
+        }
+        finally
+        {
+            // like during the startup of the container
+            BeanManagerProvider.getInstance().setBeanManager(null, beanManager);
+        }
+    }
+
+    private static Map<?, ?> getResolvedBeans() throws Exception
+    {
+        Field resolvedBeansField = BeanProvider.class.getDeclaredField("RESOLVED_BEANS");
+        resolvedBeansField.setAccessible(true);
+        return (Map<?, ?>) resolvedBeansField.get(null);
+    }
+}
@@ -19,6 +19,8 @@
 package org.apache.deltaspike.test.core.api.provider;
 
 
+import org.apache.deltaspike.core.api.provider.BeanLookupHandle;
+import org.apache.deltaspike.core.api.provider.BeanManagerProvider;
 import org.apache.deltaspike.core.api.provider.BeanProvider;
 import org.apache.deltaspike.core.api.provider.DependentProvider;
 import org.apache.deltaspike.test.util.ArchiveUtils;
@@ -35,6 +37,8 @@ import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.BeanManager;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -72,6 +76,21 @@ public class BeanProviderTest
         Assert.assertNotNull(testBean);
     }
 
+    /**
+     * lookup via a handle which reuses the contextual reference of a normal-scoped bean
+     */
+    @Test
+    public void beanLookupViaHandle()
+    {
+        BeanLookupHandle<TestBean> handle = BeanProvider.lookupHandle(TestBean.class);
+
+        TestBean testBean = handle.get();
+
+        Assert.assertNotNull(testBean);
+        Assert.assertSame(testBean, handle.get());
+        Assert.assertEquals(BeanProvider.getContextualReference(TestBean.class).getI(), testBean.getI());
+    }
+
     /**
      * lookup by name with expected type
      */
@@ -203,6 +222,28 @@ public class BeanProviderTest
         testBean.setI(4711); // reset the value if this test is executed first
     }
 
+    /*
+     * the injection-target gets reused, therefore all manual instances of the same class have to get injected
+     */
+    @Test
+    public void injectBeansInMultipleNonManagedInstances() throws Exception
+    {
+        BeanManager beanManager = BeanManagerProvider.getInstance().getBeanManager();
+
+        for (int i = 0; i < 3; i++)
+        {
+            CreationalContext<ManualBean> creationalContext = beanManager.createCreationalContext(null);
+            ManualBean manualBean = BeanProvider.injectFields(new ManualBean(), creationalContext);
+
+            Assert.assertNotNull(manualBean.getTestBean());
+            Assert.assertEquals(4711, manualBean.getTestBean().getI());
+
+            creationalContext.release();
+        }
+
+        Assert.assertNull(BeanProvider.injectFields(null, null));
+    }
+
     @Test
     public void testDependentBeanResolving() throws Exception
     {
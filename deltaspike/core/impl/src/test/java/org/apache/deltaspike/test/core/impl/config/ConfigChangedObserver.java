@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+
+import org.apache.deltaspike.core.api.config.event.ConfigChangedEvent;
+
+@ApplicationScoped
+public class ConfigChangedObserver
+{
+    private final List<ConfigChangedEvent> events = new ArrayList<ConfigChangedEvent>();
+    private final List<String> threadNames = new ArrayList<String>();
+
+    public synchronized void onConfigChange(@Observes ConfigChangedEvent configChangedEvent)
+    {
+        events.add(configChangedEvent);
+        threadNames.add(Thread.currentThread().getName());
+        notifyAll();
+    }
+
+    public synchronized List<ConfigChangedEvent> awaitEvents(int count, long timeoutMillis)
+        throws InterruptedException
+    {
+        long end = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+
+        while (events.size() < count && remaining > 0)
+        {
+            wait(remaining);
+            remaining = end - System.currentTimeMillis();
+        }
+        return new ArrayList<ConfigChangedEvent>(events);
+    }
+
+    public synchronized List<String> getThreadNames()
+    {
+        return new ArrayList<String>(threadNames);
+    }
+
+    public synchronized void reset()
+    {
+        events.clear();
+        threadNames.clear();
+    }
+}
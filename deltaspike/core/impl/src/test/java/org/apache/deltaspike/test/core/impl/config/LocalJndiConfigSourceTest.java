@@ -0,0 +1,453 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.naming.CompositeName;
+import javax.naming.Context;
+import javax.naming.Name;
+import javax.naming.NameClassPair;
+import javax.naming.NameNotFoundException;
+import javax.naming.NameParser;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.NoInitialContextException;
+import javax.naming.OperationNotSupportedException;
+import javax.naming.ServiceUnavailableException;
+import javax.naming.spi.InitialContextFactory;
+import javax.naming.spi.InitialContextFactoryBuilder;
+import javax.naming.spi.NamingManager;
+
+import org.apache.deltaspike.core.impl.config.DefaultConfigSourceProvider;
+import org.apache.deltaspike.core.spi.config.ConfigSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Test for the preloading and the negative lookup cache of the JNDI {@link ConfigSource}.
+ *
+ * <p>The container tests (see {@link org.apache.deltaspike.test.core.impl.util.JndiUtilsTest}) can't change
+ * java:comp/env at runtime, therefore this test installs an in-memory JNDI context.
+ * As long as no test is running, it behaves like a missing JNDI environment.</p>
+ */
+public class LocalJndiConfigSourceTest
+{
+    private static final String BASE_NAME = "java:comp/env/deltaspike/";
+
+    private static final String PRELOAD_KEY = "deltaspike.config.jndi.preload";
+    private static final String REFRESH_INTERVAL_KEY = "deltaspike.config.jndi.refresh_interval_ms";
+
+    private static final int MAX_NEGATIVE_LOOKUPS = 1024;
+
+    @BeforeClass
+    public static void installJndiContext() throws NamingException
+    {
+        InMemoryJndi.install();
+    }
+
+    @After
+    public void resetJndiContext()
+    {
+        System.clearProperty(PRELOAD_KEY);
+        System.clearProperty(REFRESH_INTERVAL_KEY);
+        InMemoryJndi.deactivate();
+    }
+
+    @Test
+    public void preloadedValuesAreUsedWithoutLookup()
+    {
+        InMemoryJndi.activate();
+        InMemoryJndi.bind(BASE_NAME + "testKey", "initial value");
+        System.setProperty(PRELOAD_KEY, "true");
+
+        ConfigSource configSource = createJndiConfigSource();
+        InMemoryJndi.LOOKUPS.set(0);
+
+        Assert.assertEquals("initial value", configSource.getPropertyValue("testKey"));
+        Assert.assertNull(configSource.getPropertyValue("missingKey"));
+
+        // without refresh-interval the preloaded entries don't change
+        InMemoryJndi.bind(BASE_NAME + "testKey", "changed value");
+        Assert.assertEquals("initial value", configSource.getPropertyValue("testKey"));
+
+        Assert.assertEquals(0, InMemoryJndi.LOOKUPS.get());
+    }
+
+    @Test
+    public void preloadIsConfigurableViaJndi()
+    {
+        InMemoryJndi.activate();
+        InMemoryJndi.bind(BASE_NAME + PRELOAD_KEY, "true");
+        InMemoryJndi.bind(BASE_NAME + "testKey", "value");
+
+        ConfigSource configSource = createJndiConfigSource();
+        InMemoryJndi.LOOKUPS.set(0);
+
+        Assert.assertEquals("value", configSource.getPropertyValue("testKey"));
+        Assert.assertEquals(0, InMemoryJndi.LOOKUPS.get());
+    }
+
+    @Test
+    public void preloadedValuesGetRefreshed() throws InterruptedException
+    {
+        InMemoryJndi.activate();
+        InMemoryJndi.bind(BASE_NAME + "testKey", "initial value");
+        System.setProperty(PRELOAD_KEY, "true");
+        System.setProperty(REFRESH_INTERVAL_KEY, "1");
+
+        ConfigSource configSource = createJndiConfigSource();
+
+        InMemoryJndi.bind(BASE_NAME + "testKey", "changed value");
+        Thread.sleep(10);
+
+        Assert.assertEquals("changed value", configSource.getPropertyValue("testKey"));
+    }
+
+    @Test
+    public void failedRefreshKeepsPreloadedValues() throws InterruptedException
+    {
+        InMemoryJndi.activate();
+        InMemoryJndi.bind(BASE_NAME + "testKey", "initial value");
+        System.setProperty(PRELOAD_KEY, "true");
+        System.setProperty(REFRESH_INTERVAL_KEY, "1");
+
+        ConfigSource configSource = createJndiConfigSource();
+
+        InMemoryJndi.failListing(true);
+        Thread.sleep(10);
+
+        Assert.assertEquals("initial value", configSource.getPropertyValue("testKey"));
+
+        // the next refresh after the failure reads the entries again
+        InMemoryJndi.failListing(false);
+        InMemoryJndi.bind(BASE_NAME + "testKey", "changed value");
+        Thread.sleep(10);
+
+        Assert.assertEquals("changed value", configSource.getPropertyValue("testKey"));
+    }
+
+    @Test
+    public void missingKeyIsLookedUpAgainAfterRefreshInterval() throws InterruptedException
+    {
+        InMemoryJndi.activate();
+        System.setProperty(REFRESH_INTERVAL_KEY, "1000");
+
+        ConfigSource configSource = createJndiConfigSource();
+        InMemoryJndi.LOOKUPS.set(0);
+
+        Assert.assertNull(configSource.getPropertyValue("lateKey"));
+
+        InMemoryJndi.bind(BASE_NAME + "lateKey", "value");
+
+        // the failed lookup is remembered within the refresh-interval
+        Assert.assertNull(configSource.getPropertyValue("lateKey"));
+        Assert.assertEquals(1, InMemoryJndi.LOOKUPS.get());
+
+        Thread.sleep(1100);
+
+        Assert.assertEquals("value", configSource.getPropertyValue("lateKey"));
+        Assert.assertEquals(2, InMemoryJndi.LOOKUPS.get());
+    }
+
+    @Test
+    public void missingKeyIsLookedUpEveryTimeWithoutRefreshInterval()
+    {
+        InMemoryJndi.activate();
+
+        ConfigSource configSource = createJndiConfigSource();
+        InMemoryJndi.LOOKUPS.set(0);
+
+        Assert.assertNull(configSource.getPropertyValue("missingKey"));
+        Assert.assertNull(configSource.getPropertyValue("missingKey"));
+
+        Assert.assertEquals(2, InMemoryJndi.LOOKUPS.get());
+    }
+
+    @Test
+    public void negativeLookupsAreLimited()
+    {
+        InMemoryJndi.activate();
+        System.setProperty(REFRESH_INTERVAL_KEY, "60000");
+
+        ConfigSource configSource = createJndiConfigSource();
+        InMemoryJndi.LOOKUPS.set(0);
+
+        for (int i = 0; i < MAX_NEGATIVE_LOOKUPS; i++)
+        {
+            Assert.assertNull(configSource.getPropertyValue("missingKey" + i));
+        }
+        Assert.assertEquals(MAX_NEGATIVE_LOOKUPS, InMemoryJndi.LOOKUPS.get());
+
+        // the remembered keys aren't looked up again
+        Assert.assertNull(configSource.getPropertyValue("missingKey0"));
+        Assert.assertEquals(MAX_NEGATIVE_LOOKUPS, InMemoryJndi.LOOKUPS.get());
+
+        // further keys don't get remembered, since none of the remembered keys is expired
+        Assert.assertNull(configSource.getPropertyValue("additionalKey"));
+        Assert.assertNull(configSource.getPropertyValue("additionalKey"));
+        Assert.assertEquals(MAX_NEGATIVE_LOOKUPS + 2, InMemoryJndi.LOOKUPS.get());
+    }
+
+    @Test
+    public void expiredNegativeLookupsAreEvicted() throws InterruptedException
+    {
+        InMemoryJndi.activate();
+        System.setProperty(REFRESH_INTERVAL_KEY, "500");
+
+        ConfigSource configSource = createJndiConfigSource();
+
+        for (int i = 0; i < MAX_NEGATIVE_LOOKUPS; i++)
+        {
+            configSource.getPropertyValue("missingKey" + i);
+        }
+
+        Thread.sleep(600);
+        InMemoryJndi.LOOKUPS.set(0);
+
+        // evicts the expired keys and remembers the new one
+        Assert.assertNull(configSource.getPropertyValue("additionalKey"));
+        Assert.assertNull(configSource.getPropertyValue("additionalKey"));
+        Assert.assertEquals(1, InMemoryJndi.LOOKUPS.get());
+
+        Assert.assertNull(configSource.getPropertyValue("missingKey0"));
+        Assert.assertEquals(2, InMemoryJndi.LOOKUPS.get());
+    }
+
+    private ConfigSource createJndiConfigSource()
+    {
+        for (ConfigSource configSource : new DefaultConfigSourceProvider().getConfigSources())
+        {
+            if (BASE_NAME.equals(configSource.getConfigName()))
+            {
+                return configSource;
+            }
+        }
+        throw new IllegalStateException("no JNDI ConfigSource found");
+    }
+
+    /**
+     * Minimal JNDI context which supports the lookups and listings used by JndiUtils.
+     */
+    private static class InMemoryJndi implements InvocationHandler
+    {
+        private static final AtomicInteger LOOKUPS = new AtomicInteger();
+
+        private static volatile Map<String, Object> bindings;
+        private static volatile boolean failListing;
+
+        private static boolean installed;
+
+        static synchronized void install() throws NamingException
+        {
+            if (installed)
+            {
+                return;
+            }
+
+            final Context context = (Context) Proxy.newProxyInstance(InMemoryJndi.class.getClassLoader(),
+                    new Class<?>[] { Context.class }, new InMemoryJndi());
+
+            NamingManager.setInitialContextFactoryBuilder(new InitialContextFactoryBuilder()
+            {
+                @Override
+                public InitialContextFactory createInitialContextFactory(Hashtable<?, ?> environment)
+                {
+                    return new InitialContextFactory()
+                    {
+                        @Override
+                        public Context getInitialContext(Hashtable<?, ?> environment)
+                        {
+                            return context;
+                        }
+                    };
+                }
+            });
+            installed = true;
+        }
+
+        static void activate()
+        {
+            bindings = new ConcurrentHashMap<String, Object>();
+        }
+
+        static void deactivate()
+        {
+            bindings = null;
+            failListing = false;
+        }
+
+        static void bind(String name, Object value)
+        {
+            bindings.put(name, value);
+        }
+
+        static void failListing(boolean fail)
+        {
+            failListing = fail;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+        {
+            String methodName = method.getName();
+
+            if ("close".equals(methodName))
+            {
+                return null;
+            }
+
+            Map<String, Object> currentBindings = bindings;
+            if (currentBindings == null)
+            {
+                throw new NoInitialContextException();
+            }
+
+            if ("lookup".equals(methodName))
+            {
+                String name = normalize(args[0]);
+                if (name.startsWith(BASE_NAME))
+                {
+                    LOOKUPS.incrementAndGet();
+                }
+
+                Object value = currentBindings.get(name);
+                if (value == null)
+                {
+                    throw new NameNotFoundException(name);
+                }
+                return value;
+            }
+            if ("getNameParser".equals(methodName))
+            {
+                return new NameParser()
+                {
+                    @Override
+                    public Name parse(String name) throws NamingException
+                    {
+                        return new CompositeName(name);
+                    }
+                };
+            }
+            if ("list".equals(methodName))
+            {
+                return list(currentBindings, normalize(args[0]) + "/");
+            }
+            throw new OperationNotSupportedException(methodName);
+        }
+
+        private NamingEnumeration<NameClassPair> list(Map<String, Object> currentBindings, String contextName)
+            throws NamingException
+        {
+            if (failListing)
+            {
+                throw new ServiceUnavailableException(contextName);
+            }
+
+            List<NameClassPair> result = new ArrayList<NameClassPair>();
+            for (Map.Entry<String, Object> binding : currentBindings.entrySet())
+            {
+                String name = binding.getKey();
+                if (name.startsWith(contextName) && name.indexOf('/', contextName.length()) < 0)
+                {
+                    result.add(new NameClassPair(
+                            name.substring(contextName.length()), binding.getValue().getClass().getName()));
+                }
+            }
+
+            if (result.isEmpty())
+            {
+                throw new NameNotFoundException(contextName);
+            }
+            return new IteratorNamingEnumeration<NameClassPair>(result.iterator());
+        }
+
+        // JndiUtils combines the parsed context name and the relative names
+        private static String normalize(Object name) throws NamingException
+        {
+            Name compositeName = name instanceof Name ? (Name) name : new CompositeName((String) name);
+
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < compositeName.size(); i++)
+            {
+                String component = compositeName.get(i);
+                if (component.length() > 0)
+                {
+                    if (result.length() > 0)
+                    {
+                        result.append('/');
+                    }
+                    result.append(component);
+                }
+            }
+            return result.toString();
+        }
+    }
+
+    private static class IteratorNamingEnumeration<T> implements NamingEnumeration<T>
+    {
+        private final Iterator<T> iterator;
+
+        IteratorNamingEnumeration(Iterator<T> iterator)
+        {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public T next()
+        {
+            return iterator.next();
+        }
+
+        @Override
+        public boolean hasMore()
+        {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public void close()
+        {
+            // nothing to release
+        }
+
+        @Override
+        public boolean hasMoreElements()
+        {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T nextElement()
+        {
+            return iterator.next();
+        }
+    }
+}
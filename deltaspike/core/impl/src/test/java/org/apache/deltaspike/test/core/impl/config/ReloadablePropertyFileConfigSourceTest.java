@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import javax.inject.Inject;
+
+import org.apache.deltaspike.core.api.config.event.ConfigChangedEvent;
+import org.apache.deltaspike.core.impl.config.ReloadablePropertyFileConfigSource;
+import org.apache.deltaspike.core.util.PropertyFileUtils;
+import org.apache.deltaspike.test.util.ArchiveUtils;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Test for {@link ReloadablePropertyFileConfigSource}
+ */
+@RunWith(Arquillian.class)
+public class ReloadablePropertyFileConfigSourceTest
+{
+    private File propertyFile;
+
+    @Inject
+    private ConfigChangedObserver configChangedObserver;
+
+    @Deployment
+    public static WebArchive deploy()
+    {
+        JavaArchive testJar = ShrinkWrap.create(JavaArchive.class, "reloadablePropertyFileConfigSourceTest.jar")
+                .addClass(ConfigChangedObserver.class)
+                .addAsManifestResource(EmptyAsset.INSTANCE, "beans.xml");
+
+        return ShrinkWrap.create(WebArchive.class, "reloadablePropertyFileConfigSourceTest.war")
+                .addAsLibraries(ArchiveUtils.getDeltaSpikeCoreArchive())
+                .addAsLibraries(testJar)
+                .addAsWebInfResource(EmptyAsset.INSTANCE, "beans.xml");
+    }
+
+    @Before
+    public void createPropertyFile() throws IOException
+    {
+        propertyFile = File.createTempFile("reloadable", ".properties");
+    }
+
+    @After
+    public void deletePropertyFile()
+    {
+        propertyFile.delete();
+    }
+
+    @Test
+    public void checkIntervalIsOnlyUsedForFilesWithReloadKey() throws IOException
+    {
+        URL propertyFileUrl = propertyFile.toURI().toURL();
+
+        Assert.assertEquals(0, ReloadablePropertyFileConfigSource.getCheckIntervalMillis(
+                propertyFileUrl, createProperties(null, "value")));
+        Assert.assertEquals(5000, ReloadablePropertyFileConfigSource.getCheckIntervalMillis(
+                propertyFileUrl, createProperties("5", "value")));
+        Assert.assertEquals(0, ReloadablePropertyFileConfigSource.getCheckIntervalMillis(
+                propertyFileUrl, createProperties("invalid", "value")));
+        Assert.assertEquals(0, ReloadablePropertyFileConfigSource.getCheckIntervalMillis(
+                new URL("jar:" + propertyFileUrl + "!/test.properties"), createProperties("5", "value")));
+    }
+
+    @Test
+    public void changedFileGetsReloaded() throws IOException
+    {
+        writePropertyFile(createProperties("1", "initial value"));
+        URL propertyFileUrl = propertyFile.toURI().toURL();
+
+        // a check interval of 0 checks the file with every lookup
+        ReloadablePropertyFileConfigSource configSource = new ReloadablePropertyFileConfigSource(
+                propertyFileUrl, PropertyFileUtils.loadProperties(propertyFileUrl), 0);
+
+        Assert.assertEquals("initial value", configSource.getPropertyValue("testKey"));
+        Assert.assertNull(configSource.getPropertyValue("addedKey"));
+
+        Properties changedProperties = createProperties("1", "changed value");
+        changedProperties.setProperty("addedKey", "added value");
+        writePropertyFile(changedProperties);
+
+        Assert.assertEquals("changed value", configSource.getPropertyValue("testKey"));
+        Assert.assertEquals("added value", configSource.getPropertyValue("addedKey"));
+
+        writePropertyFile(createProperties("1", null));
+
+        Assert.assertNull(configSource.getPropertyValue("testKey"));
+        Assert.assertNull(configSource.getPropertyValue("addedKey"));
+        Assert.assertEquals("1",
+                configSource.getProperties().get(ReloadablePropertyFileConfigSource.RELOAD_INTERVAL_KEY));
+    }
+
+    @Test
+    public void unchangedFileIsNotReloadedWithinCheckInterval() throws IOException
+    {
+        writePropertyFile(createProperties("60", "initial value"));
+        URL propertyFileUrl = propertyFile.toURI().toURL();
+
+        ReloadablePropertyFileConfigSource configSource = new ReloadablePropertyFileConfigSource(
+                propertyFileUrl, PropertyFileUtils.loadProperties(propertyFileUrl), 60000);
+
+        writePropertyFile(createProperties("60", "changed value"));
+
+        Assert.assertEquals("initial value", configSource.getPropertyValue("testKey"));
+    }
+
+    @Test
+    public void changesAreNotifiedInOrderByOneThread() throws Exception
+    {
+        writePropertyFile(createProperties("1", "initial value"));
+        URL propertyFileUrl = propertyFile.toURI().toURL();
+        configChangedObserver.reset();
+
+        ReloadablePropertyFileConfigSource configSource = new ReloadablePropertyFileConfigSource(
+                propertyFileUrl, PropertyFileUtils.loadProperties(propertyFileUrl), 0);
+
+        try
+        {
+            writePropertyFile(createProperties("1", "changed value"));
+            Assert.assertEquals("changed value", configSource.getPropertyValue("testKey"));
+
+            Properties changedProperties = createProperties("1", "changed value");
+            changedProperties.setProperty("addedKey", "added value");
+            writePropertyFile(changedProperties);
+            Assert.assertEquals("added value", configSource.getPropertyValue("addedKey"));
+
+            List<ConfigChangedEvent> events = configChangedObserver.awaitEvents(2, 5000);
+            Assert.assertEquals(2, events.size());
+            Assert.assertEquals(configSource.getConfigName(), events.get(0).getConfigName());
+            Assert.assertEquals(Collections.singleton("testKey"), events.get(0).getChangedKeys());
+            Assert.assertEquals(Collections.singleton("addedKey"), events.get(1).getChangedKeys());
+
+            List<String> threadNames = configChangedObserver.getThreadNames();
+            Assert.assertEquals(threadNames.get(0), threadNames.get(1));
+            Assert.assertFalse(Thread.currentThread().getName().equals(threadNames.get(0)));
+        }
+        finally
+        {
+            configSource.close();
+        }
+
+        // a closed ConfigSource still gets reloaded, but doesn't notify the observers anymore
+        writePropertyFile(createProperties("1", "value after close"));
+        Assert.assertEquals("value after close", configSource.getPropertyValue("testKey"));
+        Assert.assertEquals(2, configChangedObserver.awaitEvents(3, 200).size());
+    }
+
+    private Properties createProperties(String reloadInterval, String testValue)
+    {
+        Properties properties = new Properties();
+        if (reloadInterval != null)
+        {
+            properties.setProperty(ReloadablePropertyFileConfigSource.RELOAD_INTERVAL_KEY, reloadInterval);
+        }
+        if (testValue != null)
+        {
+            properties.setProperty("testKey", testValue);
+        }
+        return properties;
+    }
+
+    private void writePropertyFile(Properties properties) throws IOException
+    {
+        long previousLastModified = propertyFile.lastModified();
+
+        OutputStream outputStream = new FileOutputStream(propertyFile);
+        try
+        {
+            properties.store(outputStream, null);
+        }
+        finally
+        {
+            outputStream.close();
+        }
+
+        // the resolution of the modification date depends on the file-system
+        propertyFile.setLastModified(previousLastModified + 2000);
+    }
+}
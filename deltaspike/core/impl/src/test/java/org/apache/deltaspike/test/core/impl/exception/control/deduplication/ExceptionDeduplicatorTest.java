@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.core.impl.exception.control.deduplication;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.deltaspike.core.api.exception.control.event.ExceptionEvent;
+import org.apache.deltaspike.core.api.exception.control.event.ExceptionStackEvent;
+import org.apache.deltaspike.core.impl.exception.control.DefaultExceptionEvent;
+import org.apache.deltaspike.core.impl.exception.control.ExceptionDeduplicator;
+import org.apache.deltaspike.test.core.impl.exception.control.extension.literal.CatchQualifierLiteral;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link ExceptionDeduplicator}
+ */
+public class ExceptionDeduplicatorTest
+{
+    private static final Set<Annotation> NO_QUALIFIERS = Collections.emptySet();
+
+    private long now = 1000;
+
+    @Test
+    public void duplicatesAboveTheRateAreSuppressed()
+    {
+        ExceptionDeduplicator deduplicator = createDeduplicator(2, 200);
+
+        Assert.assertEquals(0, registerHandled(deduplicator, createException()).getSuppressedCount());
+        Assert.assertEquals(0, registerHandled(deduplicator, createException()).getSuppressedCount());
+        Assert.assertTrue(registerHandled(deduplicator, createException()).isSuppressed());
+        Assert.assertTrue(registerHandled(deduplicator, createException()).isSuppressed());
+
+        now += 250;
+
+        // the next handled exception reports the suppressed duplicates to the handlers
+        Assert.assertEquals(2, createEvent(registerHandled(deduplicator, createException())).getSuppressedCount());
+        Assert.assertEquals(0, createEvent(registerHandled(deduplicator, createException())).getSuppressedCount());
+    }
+
+    @Test
+    public void differentExceptionsAreNotSuppressed()
+    {
+        ExceptionDeduplicator deduplicator = createDeduplicator(1, 60000);
+
+        Assert.assertFalse(registerHandled(deduplicator, createException()).isSuppressed());
+        Assert.assertFalse(registerHandled(deduplicator, new IllegalArgumentException()).isSuppressed());
+        Assert.assertFalse(registerHandled(deduplicator, createException(),
+                Collections.<Annotation>singleton(new CatchQualifierLiteral())).isSuppressed());
+
+        Assert.assertTrue(registerHandled(deduplicator, createException()).isSuppressed());
+    }
+
+    @Test
+    public void suppressedDuplicatesReplayTheOutcome()
+    {
+        ExceptionDeduplicator deduplicator = createDeduplicator(1, 60000);
+
+        deduplicator.register(createException(), NO_QUALIFIERS).recordOutcome(ExceptionDeduplicator.Outcome.RETHROWN);
+
+        ExceptionDeduplicator.Registration registration = deduplicator.register(createException(), NO_QUALIFIERS);
+        Assert.assertTrue(registration.isSuppressed());
+        Assert.assertEquals(ExceptionDeduplicator.Outcome.RETHROWN, registration.getReplayedOutcome());
+    }
+
+    @Test
+    public void duplicatesWithoutReplayableOutcomeAreNotSuppressed()
+    {
+        ExceptionDeduplicator deduplicator = createDeduplicator(1, 60000);
+
+        // e.g. a handler threw a new exception
+        deduplicator.register(createException(), NO_QUALIFIERS).recordOutcome(null);
+        Assert.assertFalse(deduplicator.register(createException(), NO_QUALIFIERS).isSuppressed());
+
+        // the outcome of the first exception is still unknown (e.g. still in progress)
+        ExceptionDeduplicator otherDeduplicator = createDeduplicator(1, 60000);
+        otherDeduplicator.register(createException(), NO_QUALIFIERS);
+        Assert.assertFalse(otherDeduplicator.register(createException(), NO_QUALIFIERS).isSuppressed());
+    }
+
+    @Test
+    public void oldestFingerprintsAreEvicted()
+    {
+        ExceptionDeduplicator deduplicator = createDeduplicator(1, 60000);
+
+        Throwable oldestException = new IllegalStateException();
+        registerHandled(deduplicator, oldestException);
+
+        Throwable newestException = null;
+        for (int i = 0; i < 1024; i++)
+        {
+            newestException = createExceptionWithFrame("generated" + i);
+            registerHandled(deduplicator, newestException);
+        }
+
+        Assert.assertFalse(registerHandled(deduplicator, oldestException).isSuppressed());
+        Assert.assertTrue(registerHandled(deduplicator, newestException).isSuppressed());
+    }
+
+    private ExceptionDeduplicator createDeduplicator(int maxPerWindow, long windowMillis)
+    {
+        return new ExceptionDeduplicator(maxPerWindow, windowMillis, 1)
+        {
+            @Override
+            protected long currentTimeMillis()
+            {
+                return now;
+            }
+        };
+    }
+
+    private static ExceptionDeduplicator.Registration registerHandled(ExceptionDeduplicator deduplicator,
+                                                                      Throwable exception)
+    {
+        return registerHandled(deduplicator, exception, NO_QUALIFIERS);
+    }
+
+    private static ExceptionDeduplicator.Registration registerHandled(ExceptionDeduplicator deduplicator,
+                                                                      Throwable exception,
+                                                                      Set<Annotation> qualifiers)
+    {
+        ExceptionDeduplicator.Registration registration = deduplicator.register(exception, qualifiers);
+        registration.recordOutcome(ExceptionDeduplicator.Outcome.HANDLED);
+        return registration;
+    }
+
+    // like ExceptionHandlerBroadcaster, but typed as the event a handler gets
+    private static ExceptionEvent<Throwable> createEvent(ExceptionDeduplicator.Registration registration)
+    {
+        return new DefaultExceptionEvent<Throwable>(new ExceptionStackEvent(createException()), false, false,
+                registration.getSuppressedCount());
+    }
+
+    // always created at the same location to get the same top frame
+    private static Throwable createException()
+    {
+        return new IllegalStateException("test");
+    }
+
+    private static Throwable createExceptionWithFrame(String methodName)
+    {
+        Throwable exception = new IllegalStateException();
+        exception.setStackTrace(new StackTraceElement[]{
+            new StackTraceElement(ExceptionDeduplicatorTest.class.getName(), methodName, null, -1)});
+        return exception;
+    }
+}
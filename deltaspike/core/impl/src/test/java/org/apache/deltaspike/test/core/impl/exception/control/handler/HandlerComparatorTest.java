@@ -39,6 +39,7 @@ import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -111,4 +112,24 @@ public class HandlerComparatorTest
 
         assertThat(handlers.size(), is(4));
     }
+
+    @Test
+    public void assertResolvedHandlersAreCached()
+    {
+        Set<Annotation> qualifiers = new HashSet<Annotation>();
+        qualifiers.add(new CatchQualifierLiteral());
+
+        Collection<HandlerMethod<? extends Throwable>> handlers =
+                storage.getHandlersForException(NullPointerException.class, bm, qualifiers, false);
+
+        // an equal set of qualifiers leads to the same (immutable) result
+        assertThat(storage.getHandlersForException(NullPointerException.class, bm,
+                new HashSet<Annotation>(qualifiers), false) == handlers, is(true));
+
+        // other qualifiers or traversal modes don't
+        assertThat(storage.getHandlersForException(NullPointerException.class, bm,
+                Collections.<Annotation>emptySet(), false).size(), is(4));
+        assertThat(storage.getHandlersForException(NullPointerException.class, bm, qualifiers, true) == handlers,
+                is(false));
+    }
 }
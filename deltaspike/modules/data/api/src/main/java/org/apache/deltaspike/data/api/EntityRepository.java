@@ -71,6 +71,31 @@ public interface EntityRepository<E, PK extends Serializable>
      */
     void removeAndFlush(E entity);
 
+    /**
+     * Save (persist or merge) all given entities. If {@code deltaspike.data.batch_size} is configured (default 0,
+     * disabled), the EntityManager gets flushed after every batch of entities, which get detached afterwards.
+     * Other entities of the persistence context stay managed.
+     * @param entities          Entities to save.
+     */
+    void saveAll(Iterable<E> entities);
+
+    /**
+     * Remove all given entities. The EntityManager gets flushed in batches like for {@link #saveAll(Iterable)}.
+     * @param entities          Entities to remove.
+     */
+    void removeAll(Iterable<E> entities);
+
+    /**
+     * Remove all entities of entity class {@code <E>} matching the given object and a specific set of
+     * properties with a single bulk delete query. Like every bulk operation, this bypasses the persistence
+     * context: matching entities which are already loaded aren't removed from it.
+     * @param example           Sample entity.
+     * @param attributes        Which attributes to consider for the query, at least one is required.
+     *
+     * @return                  Number of removed entities.
+     */
+    int removeBy(E example, SingularAttribute<E, ?>... attributes);
+
     /**
      * Convenience access to {@link javax.persistence.EntityManager#refresh(Object)}.
      * @param entity            Entity to refresh.
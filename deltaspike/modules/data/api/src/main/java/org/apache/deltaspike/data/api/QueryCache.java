@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the results of a query method per method and parameter values, independent of the
+ * persistence provider.
+ *
+ * <p>
+ * The cached results are kept in a region, by default one per entity of the repository. All regions of
+ * an entity get invalidated if {@code save}, {@code remove} or a {@link Modifying} query of a
+ * repository for this entity got invoked. Changes done outside of repositories (e.g. via a plain
+ * EntityManager) aren't detected, use {@link #timeToLive()} for such entities.</p>
+ *
+ * <p>
+ * Only results without entities or embeddables get cached, e.g. counts, scalar values and projections.
+ * Entities are managed by the EntityManager of the caller and therefore can't be shared with other callers,
+ * the annotation is ignored (with a warning) for methods returning them. Methods returning
+ * {@link QueryResult} or {@link ResultCursor}, {@link Modifying} methods and queries using a lock mode
+ * don't get cached either.</p>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryCache
+{
+    /**
+     * Name of the cache region. Defaults to the name of the entity class.
+     * The first method using a region defines its {@link #timeToLive()} and {@link #maxEntries()}.
+     */
+    String name() default "";
+
+    /**
+     * Seconds after which a cached result expires. {@code 0} keeps the results until they get invalidated
+     * or evicted.
+     */
+    long timeToLive() default 0;
+
+    /**
+     * Max. number of results in the region, the least recently used results get evicted first.
+     */
+    int maxEntries() default 1000;
+}
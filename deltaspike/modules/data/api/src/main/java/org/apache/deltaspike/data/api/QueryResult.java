@@ -134,6 +134,34 @@ public interface QueryResult<E>
      */
     QueryResult<E> hint(String hint, Object value);
 
+    /**
+     * Keyset pagination: restrict the query result to the entities following the given value
+     * of the entity singular attribute, in the order of this attribute. Unless an explicit order for this attribute
+     * has been defined, the result gets sorted ascending. Combined with {@link #maxResults(int)} and the attribute
+     * value of the last entity of the previous page, this pages without an offset, so the cost doesn't grow with
+     * the page number. The attribute has to be unique, e.g. the id, and the first ordering: another ordering defined
+     * before causes an {@link IllegalStateException}, the same applies to executing a query with an own
+     * {@code order by} or a {@code group by}.
+     * This is the typesafe version, alternatively a {@link #seekAfter(String, Object)} String can be used.
+     *
+     * @param attribute         Unique sort attribute.
+     * @param lastValue         Attribute value of the last entity of the previous page,
+     *                          {@code null} for the first page.
+     * @return                  Fluent API: the result instance.
+     */
+    <X> QueryResult<E> seekAfter(SingularAttribute<E, X> attribute, X lastValue);
+
+    /**
+     * Keyset pagination: restrict the query result to the entities following the given value
+     * of the entity attribute. See {@link #seekAfter(SingularAttribute, Object)}.
+     *
+     * @param attribute         Unique sort attribute.
+     * @param lastValue         Attribute value of the last entity of the previous page,
+     *                          {@code null} for the first page.
+     * @return                  Fluent API: the result instance.
+     */
+    QueryResult<E> seekAfter(String attribute, Object lastValue);
+
     /**
      * Fetch the result set.
      *
@@ -141,6 +169,14 @@ public interface QueryResult<E>
      */
     List<E> getResultList();
 
+    /**
+     * Fetch the result set in chunks instead of loading it at once.
+     *
+     * @param chunkSize         Number of entities fetched per query.
+     * @return                  Cursor over the entities retrieved by the query.
+     */
+    ResultCursor<E> getResultCursor(int chunkSize);
+
     /**
      * Fetch a single result entity.
      *
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.api;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Can be used as query result type to iterate over large results. The entities get fetched in chunks
+ * (the chunk size can be configured via {@code deltaspike.data.cursor.chunk_size}), entities of processed chunks
+ * get detached from the EntityManager. Changes of these entities get flushed before, if a transaction is active.
+ *
+ * <p>
+ * The chunks get fetched lazily, therefore the EntityManager used by the repository has to be available
+ * while iterating. If a resource-local transaction was active while creating the cursor, the cursor has to be used
+ * within this transaction. Fetching a chunk afterwards fails with an {@link IllegalStateException}.</p>
+ *
+ * <p>
+ * If the unique key got defined via {@link QueryResult#seekAfter(String, Object)}, every chunk continues after the
+ * key of the last entity of the previous chunk. Otherwise the chunks get fetched via first result (OFFSET),
+ * whose cost grows with the position in the result. In this case the query should define a unique ordering,
+ * otherwise the chunks might overlap.</p>
+ *
+ * @param <E> Entity type
+ */
+public interface ResultCursor<E> extends Iterator<E>, Closeable
+{
+
+    /**
+     * Flush and detach the entities of the current chunk and stop fetching further chunks.
+     */
+    @Override
+    void close();
+
+}
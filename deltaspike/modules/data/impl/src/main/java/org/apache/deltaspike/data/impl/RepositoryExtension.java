@@ -29,15 +29,18 @@ import javax.enterprise.inject.spi.AfterBeanDiscovery;
 import javax.enterprise.inject.spi.AnnotatedType;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.enterprise.inject.spi.BeforeBeanDiscovery;
+import javax.enterprise.inject.spi.BeforeShutdown;
 import javax.enterprise.inject.spi.Extension;
 import javax.enterprise.inject.spi.ProcessAnnotatedType;
 
 import org.apache.deltaspike.core.spi.activation.Deactivatable;
 import org.apache.deltaspike.core.util.ClassDeactivationUtils;
+import org.apache.deltaspike.core.util.ClassUtils;
 import org.apache.deltaspike.data.api.AbstractEntityRepository;
 import org.apache.deltaspike.data.api.Repository;
 import org.apache.deltaspike.data.impl.meta.RepositoryComponentsFactory;
 import org.apache.deltaspike.data.impl.meta.unit.PersistenceUnits;
+import org.apache.deltaspike.data.impl.property.query.PropertyQueries;
 
 /**
  * The main extension class for Repositories, based on PartialBeans. Handles following events:<br/>
@@ -51,7 +54,10 @@ import org.apache.deltaspike.data.impl.meta.unit.PersistenceUnits;
  *     all the methods on the repository are checked and analyzed for better runtime performance.<br/>
  * <br/>
  * <b>{@code @Observes AfterBeanDiscovery<X>}</b>:
- *     Raises any definition errors discovered before.
+ *     Raises any definition errors discovered before.<br/>
+ * <br/>
+ * <b>{@code @Observes BeforeShutdown}</b>:
+ *     Drops the cached properties of the classes of the application.
  */
 public class RepositoryExtension implements Extension, Deactivatable
 {
@@ -119,6 +125,12 @@ public class RepositoryExtension implements Extension, Deactivatable
         }
     }
 
+    void dropPropertyCache(@Observes BeforeShutdown beforeShutdown)
+    {
+        // the properties are also used without the extension (e.g. by the EntityUtils)
+        PropertyQueries.clearCache(ClassUtils.getClassLoader(null));
+    }
+
     private <X> boolean isRepository(AnnotatedType<X> annotatedType)
     {
         return (annotatedType.isAnnotationPresent(Repository.class) ||
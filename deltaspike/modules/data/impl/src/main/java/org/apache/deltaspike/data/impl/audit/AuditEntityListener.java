@@ -18,8 +18,10 @@
  */
 package org.apache.deltaspike.data.impl.audit;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
+import javax.enterprise.context.Dependent;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.persistence.PrePersist;
@@ -27,32 +29,128 @@ import javax.persistence.PreUpdate;
 
 import org.apache.deltaspike.core.api.provider.BeanManagerProvider;
 
+/**
+ * Delegates the JPA lifecycle callbacks to the {@link PrePersistAuditListener}s and {@link PreUpdateAuditListener}s.
+ *
+ * <p>
+ * The listener beans get resolved only once per BeanManager. The references of beans which aren't &#064;Dependent
+ * get reused, &#064;Dependent listeners get created for every callback.</p>
+ */
 public class AuditEntityListener
 {
 
+    private volatile AuditListeners listeners;
+
     @PrePersist
     public void persist(Object entity)
     {
-        BeanManager beanManager = BeanManagerProvider.getInstance().getBeanManager();
-        Set<Bean<?>> beans = beanManager.getBeans(PrePersistAuditListener.class);
-        for (Bean<?> bean : beans)
+        for (PrePersistAuditListener listener : getListeners().getPrePersistListeners())
         {
-            PrePersistAuditListener result = (PrePersistAuditListener) beanManager.getReference(
-                    bean, PrePersistAuditListener.class, beanManager.createCreationalContext(bean));
-            result.prePersist(entity);
+            listener.prePersist(entity);
         }
     }
 
     @PreUpdate
     public void update(Object entity)
+    {
+        for (PreUpdateAuditListener listener : getListeners().getPreUpdateListeners())
+        {
+            listener.preUpdate(entity);
+        }
+    }
+
+    private AuditListeners getListeners()
     {
         BeanManager beanManager = BeanManagerProvider.getInstance().getBeanManager();
-        Set<Bean<?>> beans = beanManager.getBeans(PreUpdateAuditListener.class);
-        for (Bean<?> bean : beans)
+        AuditListeners currentListeners = listeners;
+        if (currentListeners == null || currentListeners.beanManager != beanManager)
+        {
+            currentListeners = new AuditListeners(beanManager);
+            listeners = currentListeners;
+        }
+        return currentListeners;
+    }
+
+    private static final class AuditListeners
+    {
+        private final BeanManager beanManager;
+        private final ListenerReferences<PrePersistAuditListener> prePersistListeners;
+        private final ListenerReferences<PreUpdateAuditListener> preUpdateListeners;
+
+        private AuditListeners(BeanManager beanManager)
+        {
+            this.beanManager = beanManager;
+            this.prePersistListeners =
+                    new ListenerReferences<PrePersistAuditListener>(beanManager, PrePersistAuditListener.class);
+            this.preUpdateListeners =
+                    new ListenerReferences<PreUpdateAuditListener>(beanManager, PreUpdateAuditListener.class);
+        }
+
+        private List<PrePersistAuditListener> getPrePersistListeners()
+        {
+            return prePersistListeners.get(beanManager);
+        }
+
+        private List<PreUpdateAuditListener> getPreUpdateListeners()
+        {
+            return preUpdateListeners.get(beanManager);
+        }
+    }
+
+    private static final class ListenerReferences<T>
+    {
+        private final Class<T> type;
+        private final List<Bean<?>> beans;
+        private final List<T> cachedReferences;
+        private final boolean onlyCachedReferences;
+
+        private ListenerReferences(BeanManager beanManager, Class<T> type)
+        {
+            this.type = type;
+            this.beans = new ArrayList<Bean<?>>(beanManager.getBeans(type));
+            this.cachedReferences = new ArrayList<T>(beans.size());
+            boolean dependentBeans = false;
+            for (Bean<?> bean : beans)
+            {
+                if (Dependent.class.equals(bean.getScope()))
+                {
+                    dependentBeans = true;
+                }
+                else
+                {
+                    cachedReferences.add(getReference(beanManager, bean));
+                }
+            }
+            this.onlyCachedReferences = !dependentBeans;
+        }
+
+        private List<T> get(BeanManager beanManager)
+        {
+            if (onlyCachedReferences)
+            {
+                return cachedReferences;
+            }
+
+            // keep the order of the beans
+            List<T> result = new ArrayList<T>(beans.size());
+            int cachedIndex = 0;
+            for (Bean<?> bean : beans)
+            {
+                if (Dependent.class.equals(bean.getScope()))
+                {
+                    result.add(getReference(beanManager, bean));
+                }
+                else
+                {
+                    result.add(cachedReferences.get(cachedIndex++));
+                }
+            }
+            return result;
+        }
+
+        private T getReference(BeanManager beanManager, Bean<?> bean)
         {
-            PreUpdateAuditListener result = (PreUpdateAuditListener) beanManager.getReference(
-                    bean, PreUpdateAuditListener.class, beanManager.createCreationalContext(bean));
-            result.preUpdate(entity);
+            return type.cast(beanManager.getReference(bean, type, beanManager.createCreationalContext(bean)));
         }
     }
 
@@ -18,9 +18,13 @@
  */
 package org.apache.deltaspike.data.impl.audit;
 
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 
+import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
@@ -31,11 +35,22 @@ import org.apache.deltaspike.data.api.audit.ModifiedBy;
 import org.apache.deltaspike.data.impl.property.Property;
 import org.apache.deltaspike.data.impl.property.query.AnnotatedPropertyCriteria;
 import org.apache.deltaspike.data.impl.property.query.PropertyQueries;
-import org.apache.deltaspike.data.impl.property.query.PropertyQuery;
 
+/**
+ * Set the current user on marked properties.
+ * The properties get looked up only once per entity class, the {@link CurrentUser} bean once per property type.
+ */
+@ApplicationScoped
 class PrincipalProvider extends AuditProvider
 {
 
+    private static final CurrentUser CURRENT_USER = AnnotationInstanceProvider.of(CurrentUser.class);
+
+    private final ConcurrentMap<Class<?>, List<Property<Object>>> principalProperties =
+            new ConcurrentHashMap<Class<?>, List<Property<Object>>>();
+
+    private final ConcurrentMap<Class<?>, Bean<?>> principalBeans = new ConcurrentHashMap<Class<?>, Bean<?>>();
+
     @Inject
     private BeanManager manager;
 
@@ -53,14 +68,28 @@ class PrincipalProvider extends AuditProvider
 
     private void updatePrincipal(Object entity)
     {
-        PropertyQuery<Object> query = PropertyQueries.<Object> createQuery(entity.getClass())
-                .addCriteria(new AnnotatedPropertyCriteria(ModifiedBy.class));
-        for (Property<Object> property : query.getWritableResultList())
+        for (Property<Object> property : getPrincipalProperties(entity.getClass()))
         {
             setProperty(entity, property);
         }
     }
 
+    private List<Property<Object>> getPrincipalProperties(Class<?> entityClass)
+    {
+        List<Property<Object>> result = principalProperties.get(entityClass);
+        if (result == null)
+        {
+            result = PropertyQueries.<Object> createQuery(entityClass)
+                    .addCriteria(new AnnotatedPropertyCriteria(ModifiedBy.class)).getWritableResultList();
+            List<Property<Object>> existingResult = principalProperties.putIfAbsent(entityClass, result);
+            if (existingResult != null)
+            {
+                result = existingResult;
+            }
+        }
+        return result;
+    }
+
     private void setProperty(Object entity, Property<Object> property)
     {
         try
@@ -78,17 +107,20 @@ class PrincipalProvider extends AuditProvider
 
     private Object resolvePrincipal(Object entity, Property<Object> property)
     {
-        CurrentUser principal = AnnotationInstanceProvider.of(CurrentUser.class);
         Class<?> propertyClass = property.getJavaClass();
-        Set<Bean<?>> beans = manager.getBeans(propertyClass, principal);
-        if (!beans.isEmpty() && beans.size() == 1)
+        Bean<?> bean = principalBeans.get(propertyClass);
+        if (bean == null)
         {
-            Bean<?> bean = beans.iterator().next();
-            Object result = manager.getReference(bean, propertyClass, manager.createCreationalContext(bean));
-            return result;
+            Set<Bean<?>> beans = manager.getBeans(propertyClass, CURRENT_USER);
+            if (beans.isEmpty() || beans.size() > 1)
+            {
+                throw new IllegalArgumentException("Principal " + (beans.isEmpty() ? "not found" : "not unique") +
+                        " for " + propertyName(entity, property));
+            }
+            bean = beans.iterator().next();
+            principalBeans.put(propertyClass, bean);
         }
-        throw new IllegalArgumentException("Principal " + (beans.isEmpty() ? "not found" : "not unique") +
-                " for " + propertyName(entity, property));
+        return manager.getReference(bean, propertyClass, manager.createCreationalContext(bean));
     }
 
 }
@@ -18,25 +18,35 @@
  */
 package org.apache.deltaspike.data.impl.audit;
 
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 
+import javax.enterprise.context.ApplicationScoped;
+
 import org.apache.deltaspike.data.api.audit.CreatedOn;
 import org.apache.deltaspike.data.api.audit.ModifiedOn;
 import org.apache.deltaspike.data.impl.property.Property;
 import org.apache.deltaspike.data.impl.property.query.AnnotatedPropertyCriteria;
 import org.apache.deltaspike.data.impl.property.query.PropertyQueries;
-import org.apache.deltaspike.data.impl.property.query.PropertyQuery;
 
 /**
  * Set timestamps on marked properties.
+ * The timestamp properties get looked up only once per entity class.
  */
+@ApplicationScoped
 class TimestampsProvider extends AuditProvider
 {
 
+    private final ConcurrentMap<Class<?>, TimestampProperties> timestampProperties =
+            new ConcurrentHashMap<Class<?>, TimestampProperties>();
+
     @Override
     public void prePersist(Object entity)
     {
@@ -51,78 +61,131 @@ class TimestampsProvider extends AuditProvider
 
     private void updateTimestamps(Object entity, boolean create)
     {
-        long systime = System.currentTimeMillis();
-        List<Property<Object>> properties = new LinkedList<Property<Object>>();
-        PropertyQuery<Object> query = PropertyQueries.<Object> createQuery(entity.getClass())
-                .addCriteria(new AnnotatedPropertyCriteria(ModifiedOn.class));
-        properties.addAll(query.getWritableResultList());
-        if (create)
+        TimestampProperties properties = getTimestampProperties(entity.getClass());
+        List<TimestampProperty> toUpdate = create ? properties.onCreate : properties.onUpdate;
+        if (toUpdate.isEmpty())
         {
-            query = PropertyQueries.<Object> createQuery(entity.getClass())
-                    .addCriteria(new AnnotatedPropertyCriteria(CreatedOn.class));
-            properties.addAll(query.getWritableResultList());
+            return;
         }
-        for (Property<Object> property : properties)
+
+        long systime = System.currentTimeMillis();
+        for (TimestampProperty property : toUpdate)
         {
-            setProperty(entity, property, systime, create);
+            setProperty(entity, property, systime);
         }
     }
 
-    private void setProperty(Object entity, Property<Object> property, long systime, boolean create)
+    private TimestampProperties getTimestampProperties(Class<?> entityClass)
     {
-        try
+        TimestampProperties result = timestampProperties.get(entityClass);
+        if (result == null)
         {
-            if (!isCorrectContext(property, create))
+            result = new TimestampProperties(entityClass);
+            TimestampProperties existingResult = timestampProperties.putIfAbsent(entityClass, result);
+            if (existingResult != null)
             {
-                return;
+                result = existingResult;
             }
-            Object now = now(property.getJavaClass(), systime);
-            property.setValue(entity, now);
-            log.log(Level.FINER, "Updated property {0} with {1}", new Object[] { propertyName(entity, property), now });
+        }
+        return result;
+    }
+
+    private void setProperty(Object entity, TimestampProperty property, long systime)
+    {
+        try
+        {
+            Object now = property.now(systime);
+            property.property.setValue(entity, now);
+            log.log(Level.FINER, "Updated property {0} with {1}",
+                    new Object[] { propertyName(entity, property.property), now });
         }
         catch (Exception e)
         {
-            String message = "Failed to set property " + propertyName(entity, property) + ", is this a temporal type?";
+            String message = "Failed to set property " + propertyName(entity, property.property) +
+                    ", is this a temporal type?";
             throw new AuditPropertyException(message, e);
         }
     }
 
-    private boolean isCorrectContext(Property<Object> property, boolean create)
+    /**
+     * The writable timestamp properties of an entity class, separated by the event they get updated for.
+     */
+    private static final class TimestampProperties
     {
-        if (create && property.getAnnotatedElement().isAnnotationPresent(ModifiedOn.class))
+        private final List<TimestampProperty> onCreate;
+        private final List<TimestampProperty> onUpdate;
+
+        private TimestampProperties(Class<?> entityClass)
         {
-            ModifiedOn annotation = property.getAnnotatedElement().getAnnotation(ModifiedOn.class);
-            if (!annotation.onCreate())
+            List<TimestampProperty> create = new ArrayList<TimestampProperty>();
+            List<TimestampProperty> update = new ArrayList<TimestampProperty>();
+
+            for (Property<Object> property : PropertyQueries.<Object> createQuery(entityClass)
+                    .addCriteria(new AnnotatedPropertyCriteria(ModifiedOn.class)).getWritableResultList())
+            {
+                TimestampProperty timestampProperty = new TimestampProperty(property);
+                update.add(timestampProperty);
+                if (property.getAnnotatedElement().getAnnotation(ModifiedOn.class).onCreate())
+                {
+                    create.add(timestampProperty);
+                }
+            }
+            for (Property<Object> property : PropertyQueries.<Object> createQuery(entityClass)
+                    .addCriteria(new AnnotatedPropertyCriteria(CreatedOn.class)).getWritableResultList())
             {
-                return false;
+                create.add(new TimestampProperty(property));
             }
+
+            this.onCreate = create.isEmpty() ? Collections.<TimestampProperty>emptyList() : create;
+            this.onUpdate = update.isEmpty() ? Collections.<TimestampProperty>emptyList() : update;
         }
-        return true;
     }
 
-    private Object now(Class<?> field, long systime) throws Exception
+    /**
+     * A timestamp property and the way to create its value.
+     */
+    private static final class TimestampProperty
     {
-        if (isCalendarClass(field))
+        private final Property<Object> property;
+        private final boolean calendar;
+        // null for calendars and non-temporal types
+        private final Constructor<?> dateConstructor;
+
+        private TimestampProperty(Property<Object> property)
         {
-            Calendar cal = Calendar.getInstance();
-            cal.setTimeInMillis(systime);
-            return cal;
+            Class<?> field = property.getJavaClass();
+            this.property = property;
+            this.calendar = Calendar.class.isAssignableFrom(field);
+            this.dateConstructor = Date.class.isAssignableFrom(field) ? findDateConstructor(field) : null;
         }
-        else if (isDateClass(field))
+
+        private Object now(long systime) throws Exception
         {
-            return field.getConstructor(Long.TYPE).newInstance(systime);
+            if (calendar)
+            {
+                Calendar cal = Calendar.getInstance();
+                cal.setTimeInMillis(systime);
+                return cal;
+            }
+            else if (dateConstructor != null)
+            {
+                return dateConstructor.newInstance(systime);
+            }
+            throw new IllegalArgumentException("Annotated field is not a date class: " + property.getJavaClass());
         }
-        throw new IllegalArgumentException("Annotated field is not a date class: " + field);
-    }
 
-    private boolean isCalendarClass(Class<?> field)
-    {
-        return Calendar.class.isAssignableFrom(field);
-    }
-
-    private boolean isDateClass(Class<?> field)
-    {
-        return Date.class.isAssignableFrom(field);
+        private static Constructor<?> findDateConstructor(Class<?> field)
+        {
+            try
+            {
+                return field.getConstructor(Long.TYPE);
+            }
+            catch (NoSuchMethodException e)
+            {
+                // reported as soon as a timestamp gets written
+                return null;
+            }
+        }
     }
 
 }
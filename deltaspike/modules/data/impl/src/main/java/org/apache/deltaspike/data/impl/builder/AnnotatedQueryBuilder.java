@@ -22,14 +22,15 @@ import static org.apache.deltaspike.data.impl.util.QueryUtils.isNotEmpty;
 
 import java.lang.reflect.Method;
 
+import javax.inject.Inject;
 import javax.persistence.EntityManager;
 
 import org.apache.deltaspike.data.api.Query;
+import org.apache.deltaspike.data.impl.builder.QueryStringCache.CachedQueryString;
 import org.apache.deltaspike.data.impl.handler.CdiQueryInvocationContext;
 import org.apache.deltaspike.data.impl.meta.MethodType;
 import org.apache.deltaspike.data.impl.meta.QueryInvocation;
 import org.apache.deltaspike.data.impl.param.Parameters;
-import org.apache.deltaspike.data.impl.util.jpa.QueryStringExtractorFactory;
 
 /**
  * Create the query based on method annotations.
@@ -38,7 +39,8 @@ import org.apache.deltaspike.data.impl.util.jpa.QueryStringExtractorFactory;
 public class AnnotatedQueryBuilder extends QueryBuilder
 {
 
-    private final QueryStringExtractorFactory factory = new QueryStringExtractorFactory();
+    @Inject
+    private QueryStringCache queryStringCache;
 
     @Override
     public Object execute(CdiQueryInvocationContext context)
@@ -62,22 +64,20 @@ public class AnnotatedQueryBuilder extends QueryBuilder
             }
             else
             {
-                javax.persistence.Query namedQuery = entityManager.createNamedQuery(query.named());
-                String named = factory.extract(namedQuery);
-                String jpqlQuery = context.applyQueryStringPostProcessors(named);
-                result = params.applyTo(entityManager.createQuery(jpqlQuery));
+                CachedQueryString jpqlQuery = queryStringCache.getNamedQueryString(context, query.named());
+                result = params.applyTo(queryStringCache.createQuery(entityManager, jpqlQuery));
             }
         }
         else if (query.isNative())
         {
-            String jpqlQuery = context.applyQueryStringPostProcessors(query.value());
-            result = params.applyTo(entityManager.createNativeQuery(jpqlQuery));
+            CachedQueryString sqlQuery = queryStringCache.getQueryString(context, query.value());
+            result = params.applyTo(entityManager.createNativeQuery(sqlQuery.getQueryString()));
         }
         else
         {
-            String jpqlQuery = context.applyQueryStringPostProcessors(query.value());
-            context.setQueryString(jpqlQuery);
-            result = params.applyTo(entityManager.createQuery(jpqlQuery));
+            CachedQueryString jpqlQuery = queryStringCache.getQueryString(context, query.value());
+            context.setQueryString(jpqlQuery.getQueryString());
+            result = params.applyTo(queryStringCache.createQuery(entityManager, jpqlQuery));
         }
         return applyRestrictions(context, result);
     }
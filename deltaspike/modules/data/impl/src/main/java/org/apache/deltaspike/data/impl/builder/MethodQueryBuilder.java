@@ -18,8 +18,10 @@
  */
 package org.apache.deltaspike.data.impl.builder;
 
+import javax.inject.Inject;
 import javax.persistence.Query;
 
+import org.apache.deltaspike.data.impl.builder.QueryStringCache.CachedQueryString;
 import org.apache.deltaspike.data.impl.builder.part.QueryRoot;
 import org.apache.deltaspike.data.impl.handler.CdiQueryInvocationContext;
 import org.apache.deltaspike.data.impl.meta.MethodType;
@@ -30,6 +32,9 @@ import org.apache.deltaspike.data.impl.param.Parameters;
 public class MethodQueryBuilder extends QueryBuilder
 {
 
+    @Inject
+    private QueryStringCache queryStringCache;
+
     @Override
     public Object execute(CdiQueryInvocationContext context)
     {
@@ -41,9 +46,9 @@ public class MethodQueryBuilder extends QueryBuilder
     {
         Parameters params = context.getParams();
         QueryRoot root = context.getRepositoryMethod().getQueryRoot();
-        String jpqlQuery = context.applyQueryStringPostProcessors(root.getJpqlQuery());
-        context.setQueryString(jpqlQuery);
-        Query result = params.applyTo(context.getEntityManager().createQuery(jpqlQuery));
+        CachedQueryString jpqlQuery = queryStringCache.getQueryString(context, root.getJpqlQuery());
+        context.setQueryString(jpqlQuery.getQueryString());
+        Query result = params.applyTo(queryStringCache.createQuery(context.getEntityManager(), jpqlQuery));
         return applyRestrictions(context, result);
     }
 
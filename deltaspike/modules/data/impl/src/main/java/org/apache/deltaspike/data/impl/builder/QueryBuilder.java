@@ -19,7 +19,6 @@
 package org.apache.deltaspike.data.impl.builder;
 
 import java.lang.reflect.Method;
-import java.text.MessageFormat;
 import java.util.List;
 
 import javax.persistence.LockModeType;
@@ -27,6 +26,7 @@ import javax.persistence.Query;
 import javax.persistence.QueryHint;
 
 import org.apache.deltaspike.data.api.QueryResult;
+import org.apache.deltaspike.data.api.ResultCursor;
 import org.apache.deltaspike.data.api.mapping.QueryInOutMapper;
 import org.apache.deltaspike.data.impl.handler.CdiQueryInvocationContext;
 import org.apache.deltaspike.data.impl.param.Parameters;
@@ -41,14 +41,25 @@ public abstract class QueryBuilder
     public static final String QUERY_COUNT = "select count(e) from {0} e";
     public static final String ENTITY_NAME = "e";
 
+    // QUERY_SELECT and QUERY_COUNT without MessageFormat, which is rather expensive for every invocation
+    private static final String SELECT_PREFIX = "select e from ";
+    private static final String COUNT_PREFIX = "select count(e) from ";
+    private static final String DELETE_PREFIX = "delete from ";
+    private static final String ENTITY_ALIAS = " e";
+
     public static String selectQuery(String entityName)
     {
-        return MessageFormat.format(QUERY_SELECT, entityName);
+        return SELECT_PREFIX + entityName + ENTITY_ALIAS;
     }
 
     public static String countQuery(String entityName)
     {
-        return MessageFormat.format(QUERY_COUNT, entityName);
+        return COUNT_PREFIX + entityName + ENTITY_ALIAS;
+    }
+
+    public static String deleteQuery(String entityName)
+    {
+        return DELETE_PREFIX + entityName + ENTITY_ALIAS;
     }
 
     @SuppressWarnings("unchecked")
@@ -138,6 +149,7 @@ public abstract class QueryBuilder
     private boolean isUnmappableResult(Object result)
     {
         return result instanceof QueryResult ||
+                result instanceof ResultCursor ||
                 result instanceof Query;
     }
 
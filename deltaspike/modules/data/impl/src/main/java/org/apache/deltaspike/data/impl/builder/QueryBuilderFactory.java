@@ -26,14 +26,16 @@ import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.apache.deltaspike.core.api.provider.BeanProvider;
-import org.apache.deltaspike.core.api.provider.DependentProvider;
-import org.apache.deltaspike.data.api.QueryResult;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.inject.Inject;
+
 import org.apache.deltaspike.data.impl.handler.CdiQueryInvocationContext;
+import org.apache.deltaspike.data.impl.handler.QueryInvocationPlan;
 import org.apache.deltaspike.data.impl.meta.MethodType;
 import org.apache.deltaspike.data.impl.meta.QueryInvocationLiteral;
-import org.apache.deltaspike.data.impl.meta.RepositoryMethod;
-import org.apache.deltaspike.data.impl.util.bean.DependentProviderDestroyable;
+import org.apache.deltaspike.data.impl.util.bean.BeanDestroyable;
 
 public class QueryBuilderFactory implements Serializable
 {
@@ -50,16 +52,31 @@ public class QueryBuilderFactory implements Serializable
                 }
             };
 
-    public QueryBuilder build(RepositoryMethod method, CdiQueryInvocationContext context)
+    @Inject
+    private BeanManager beanManager;
+
+    /**
+     * Resolves the bean of the {@link QueryBuilder} which handles the given type of Repository methods.
+     * The result gets stored in the {@link QueryInvocationPlan} of a method.
+     */
+    @SuppressWarnings("unchecked")
+    public Bean<QueryBuilder> resolveBean(MethodType methodType)
+    {
+        return (Bean<QueryBuilder>) beanManager.resolve(
+                beanManager.getBeans(QueryBuilder.class, LITERALS.get(methodType)));
+    }
+
+    public QueryBuilder build(QueryInvocationPlan plan, CdiQueryInvocationContext context)
     {
-        DependentProvider<QueryBuilder> builder = BeanProvider.getDependent(
-                QueryBuilder.class, LITERALS.get(method.getMethodType()));
-        context.addDestroyable(new DependentProviderDestroyable(builder));
-        if (method.returns(QueryResult.class))
+        Bean<QueryBuilder> bean = plan.getQueryBuilderBean();
+        CreationalContext<QueryBuilder> creationalContext = beanManager.createCreationalContext(bean);
+        QueryBuilder builder = (QueryBuilder) beanManager.getReference(bean, QueryBuilder.class, creationalContext);
+        context.addDestroyable(new BeanDestroyable<QueryBuilder>(bean, builder, creationalContext));
+        if (plan.isWrapQueryResult())
         {
-            return new WrappedQueryBuilder(builder.get());
+            return new WrappedQueryBuilder(builder);
         }
-        return builder.get();
+        return builder;
     }
 
 }
@@ -0,0 +1,415 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.builder;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+
+import org.apache.deltaspike.core.api.config.ConfigResolver;
+import org.apache.deltaspike.core.api.jmx.JmxManaged;
+import org.apache.deltaspike.core.api.jmx.MBean;
+import org.apache.deltaspike.data.impl.builder.postprocessor.OrderByQueryStringPostProcessor;
+import org.apache.deltaspike.data.impl.handler.CdiQueryInvocationContext;
+import org.apache.deltaspike.data.impl.handler.QueryStringPostProcessor;
+import org.apache.deltaspike.data.impl.util.jpa.QueryStringExtractorFactory;
+
+/**
+ * Bounded LRU cache of the final JPQL strings created by the query builders.
+ *
+ * <p>
+ * An entry is identified by the Repository method, the query it is based on and the ordered
+ * {@link QueryStringPostProcessor}s which got applied. Only post processors with a known signature
+ * (currently {@link OrderByQueryStringPostProcessor}) are supported, for all others the query string
+ * gets created for every invocation.</p>
+ *
+ * <p>
+ * Optionally the cached queries get registered as named queries via {@code EntityManagerFactory#addNamedQuery}
+ * (JPA 2.1), which allows the persistence provider to reuse its parsed query. The method is looked up via reflection
+ * since this module is compiled against JPA 2.0. The name of such a named query is derived from the query string,
+ * therefore a query string which gets cached again after its eviction replaces its previous registration
+ * instead of adding a new named query.</p>
+ */
+@ApplicationScoped
+@MBean(description = "DeltaSpike Data query string cache")
+public class QueryStringCache
+{
+    public static final String MAX_SIZE_KEY = "deltaspike.data.query_cache.max_size";
+    public static final String NAMED_QUERIES_KEY = "deltaspike.data.query_cache.register_named_queries";
+
+    private static final Logger LOG = Logger.getLogger(QueryStringCache.class.getName());
+
+    private static final String NAMED_QUERY_PREFIX = "deltaspike.data.query.";
+
+    private final QueryStringExtractorFactory extractorFactory = new QueryStringExtractorFactory();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private Map<CacheKey, CachedQueryString> cache;
+
+    // null if the registration of named queries isn't enabled or not supported by the JPA version
+    private volatile Method addNamedQueryMethod;
+
+    @PostConstruct
+    protected void init()
+    {
+        final int maxSize = ConfigResolver.resolve(MAX_SIZE_KEY).as(Integer.class).withDefault(512).getValue();
+
+        cache = Collections.synchronizedMap(new LinkedHashMap<CacheKey, CachedQueryString>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = -3446311419683815853L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedQueryString> eldest)
+            {
+                return size() > maxSize;
+            }
+        });
+
+        if (ConfigResolver.resolve(NAMED_QUERIES_KEY).as(Boolean.class).withDefault(Boolean.FALSE).getValue())
+        {
+            try
+            {
+                addNamedQueryMethod = EntityManagerFactory.class.getMethod("addNamedQuery", String.class, Query.class);
+            }
+            catch (NoSuchMethodException e)
+            {
+                LOG.warning(NAMED_QUERIES_KEY + " is enabled, but EntityManagerFactory#addNamedQuery "
+                        + "is only available with JPA 2.1+");
+            }
+        }
+    }
+
+    /**
+     * Final query string based on the given query and the post processors of the current invocation.
+     */
+    public CachedQueryString getQueryString(CdiQueryInvocationContext context, String queryString)
+    {
+        CacheKey key = createKey(context, queryString);
+        if (key == null)
+        {
+            return new CachedQueryString(context.applyQueryStringPostProcessors(queryString), null);
+        }
+
+        CachedQueryString result = lookup(key);
+        if (result == null)
+        {
+            result = store(key, context.applyQueryStringPostProcessors(queryString));
+        }
+        return result;
+    }
+
+    /**
+     * Cache entry for a query string of the given method which doesn't need any post processing.
+     */
+    public CachedQueryString getQueryString(Method method, String queryString)
+    {
+        CacheKey key = new CacheKey(method, queryString, "");
+        CachedQueryString result = lookup(key);
+        if (result == null)
+        {
+            result = store(key, queryString);
+        }
+        return result;
+    }
+
+    /**
+     * Final query string based on the given named query and the post processors of the current invocation.
+     * The query string of the named query only gets extracted if the result isn't cached.
+     */
+    public CachedQueryString getNamedQueryString(CdiQueryInvocationContext context, String queryName)
+    {
+        CacheKey key = createKey(context, queryName);
+        if (key == null)
+        {
+            return new CachedQueryString(extractNamedQuery(context, queryName), null);
+        }
+
+        CachedQueryString result = lookup(key);
+        if (result == null)
+        {
+            result = store(key, extractNamedQuery(context, queryName));
+        }
+        return result;
+    }
+
+    public Query createQuery(EntityManager entityManager, CachedQueryString queryString)
+    {
+        if (queryString.isRegisteredFor(entityManager.getEntityManagerFactory()))
+        {
+            return entityManager.createNamedQuery(queryString.getName());
+        }
+        Query result = entityManager.createQuery(queryString.getQueryString());
+        register(entityManager, queryString, result);
+        return result;
+    }
+
+    public <T> TypedQuery<T> createQuery(EntityManager entityManager, CachedQueryString queryString,
+            Class<T> resultClass)
+    {
+        if (queryString.isRegisteredFor(entityManager.getEntityManagerFactory()))
+        {
+            return entityManager.createNamedQuery(queryString.getName(), resultClass);
+        }
+        TypedQuery<T> result = entityManager.createQuery(queryString.getQueryString(), resultClass);
+        register(entityManager, queryString, result);
+        return result;
+    }
+
+    @JmxManaged(description = "number of query strings served from the cache")
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    @JmxManaged(description = "number of query strings which had to be created")
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    @JmxManaged(description = "hits / (hits + misses)")
+    public double getHitRatio()
+    {
+        long currentHits = hits.get();
+        long total = currentHits + misses.get();
+        return total == 0 ? 0 : (double) currentHits / total;
+    }
+
+    @JmxManaged(description = "number of cached query strings")
+    public int getSize()
+    {
+        return cache.size();
+    }
+
+    @JmxManaged(description = "removes all cached query strings")
+    public void clear()
+    {
+        cache.clear();
+    }
+
+    private CachedQueryString lookup(CacheKey key)
+    {
+        CachedQueryString result = cache.get(key);
+        if (result == null)
+        {
+            misses.incrementAndGet();
+        }
+        else
+        {
+            hits.incrementAndGet();
+        }
+        return result;
+    }
+
+    private CachedQueryString store(CacheKey key, String queryString)
+    {
+        CachedQueryString result = createEntry(queryString);
+        // putIfAbsent, the synchronized map uses itself as lock
+        synchronized (cache)
+        {
+            CachedQueryString existingResult = cache.get(key);
+            if (existingResult != null)
+            {
+                return existingResult;
+            }
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private String extractNamedQuery(CdiQueryInvocationContext context, String queryName)
+    {
+        Query namedQuery = context.getEntityManager().createNamedQuery(queryName);
+        return context.applyQueryStringPostProcessors(extractorFactory.extract(namedQuery));
+    }
+
+    private CachedQueryString createEntry(String queryString)
+    {
+        String name = null;
+        if (addNamedQueryMethod != null)
+        {
+            name = createNamedQueryName(queryString);
+        }
+        return new CachedQueryString(queryString, name);
+    }
+
+    private static String createNamedQueryName(String queryString)
+    {
+        try
+        {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(queryString.getBytes("UTF-8"));
+
+            StringBuilder result = new StringBuilder(NAMED_QUERY_PREFIX.length() + digest.length * 2);
+            result.append(NAMED_QUERY_PREFIX);
+            for (byte digestByte : digest)
+            {
+                result.append(Character.forDigit((digestByte >> 4) & 0xF, 16))
+                        .append(Character.forDigit(digestByte & 0xF, 16));
+            }
+            return result.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void register(EntityManager entityManager, CachedQueryString queryString, Query query)
+    {
+        Method addNamedQuery = addNamedQueryMethod;
+        if (addNamedQuery == null || queryString.getName() == null)
+        {
+            return;
+        }
+
+        EntityManagerFactory entityManagerFactory = entityManager.getEntityManagerFactory();
+        try
+        {
+            // has to happen before parameters and restrictions get applied
+            addNamedQuery.invoke(entityManagerFactory, queryString.getName(), query);
+            queryString.registeredFor(entityManagerFactory);
+        }
+        catch (Exception e)
+        {
+            // e.g. a JPA 2.1 API with an older persistence provider
+            addNamedQueryMethod = null;
+            LOG.log(Level.WARNING, "Registering named queries failed and gets disabled", e);
+        }
+    }
+
+    private static CacheKey createKey(CdiQueryInvocationContext context, String query)
+    {
+        List<QueryStringPostProcessor> postProcessors = context.getQueryStringPostProcessors();
+        if (postProcessors.isEmpty())
+        {
+            return new CacheKey(context.getMethod(), query, "");
+        }
+
+        StringBuilder signature = new StringBuilder();
+        for (QueryStringPostProcessor postProcessor : postProcessors)
+        {
+            if (!(postProcessor instanceof OrderByQueryStringPostProcessor))
+            {
+                return null;
+            }
+            OrderByQueryStringPostProcessor orderBy = (OrderByQueryStringPostProcessor) postProcessor;
+            signature.append(orderBy.getAttribute()).append(' ').append(orderBy.getDirection()).append(',');
+        }
+        return new CacheKey(context.getMethod(), query, signature.toString());
+    }
+
+    /**
+     * A cached query string and the name it gets registered with (if enabled).
+     */
+    public static final class CachedQueryString
+    {
+        private final String queryString;
+        private final String name;
+        // weak keys, the cache mustn't keep a closed EntityManagerFactory alive
+        private final Map<EntityManagerFactory, Boolean> registrations;
+
+        private CachedQueryString(String queryString, String name)
+        {
+            this.queryString = queryString;
+            this.name = name;
+            this.registrations = name == null ? null :
+                    Collections.synchronizedMap(new WeakHashMap<EntityManagerFactory, Boolean>());
+        }
+
+        public String getQueryString()
+        {
+            return queryString;
+        }
+
+        String getName()
+        {
+            return name;
+        }
+
+        boolean isRegisteredFor(EntityManagerFactory entityManagerFactory)
+        {
+            return registrations != null && registrations.containsKey(entityManagerFactory);
+        }
+
+        void registeredFor(EntityManagerFactory entityManagerFactory)
+        {
+            registrations.put(entityManagerFactory, Boolean.TRUE);
+        }
+    }
+
+    private static final class CacheKey
+    {
+        private final Method method;
+        private final String query;
+        private final String signature;
+        private final int hashCode;
+
+        private CacheKey(Method method, String query, String signature)
+        {
+            this.method = method;
+            this.query = query;
+            this.signature = signature;
+            this.hashCode = 31 * (31 * method.hashCode() + query.hashCode()) + signature.hashCode();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof CacheKey))
+            {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return hashCode == other.hashCode && method.equals(other.method)
+                    && query.equals(other.query) && signature.equals(other.signature);
+        }
+    }
+}
@@ -112,18 +112,21 @@ public class CountQueryPostProcessor implements JpaQueryPostProcessor
             int selectIndex = lower.indexOf("select");
             int fromIndex = lower.indexOf("from");
             int whereIndex = lower.indexOf("where");
+            int orderByIndex = lower.lastIndexOf(" order by ");
+            // the ordering isn't relevant for the count and not every provider accepts it
+            String unordered = orderByIndex > fromIndex ? query.substring(0, orderByIndex) : query;
             if (selectIndex >= 0)
             {
-                select = query.substring("select".length(), fromIndex);
+                select = unordered.substring("select".length(), fromIndex);
             }
             if (whereIndex >= 0)
             {
-                from = query.substring(fromIndex, whereIndex);
-                where = query.substring(whereIndex);
+                from = unordered.substring(fromIndex, whereIndex);
+                where = unordered.substring(whereIndex);
             }
             else
             {
-                from = query.substring(fromIndex);
+                from = unordered.substring(fromIndex);
             }
         }
 
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.builder.postprocessor;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.persistence.Query;
+
+import org.apache.deltaspike.data.impl.builder.OrderDirection;
+import org.apache.deltaspike.data.impl.builder.QueryBuilder;
+import org.apache.deltaspike.data.impl.handler.CdiQueryInvocationContext;
+import org.apache.deltaspike.data.impl.handler.JpaQueryPostProcessor;
+import org.apache.deltaspike.data.impl.handler.QueryStringPostProcessor;
+
+/**
+ * Keyset pagination: restricts the query to the entities following a key value.
+ * The query string gets the restriction, the key value gets bound as (named or indexed, depending
+ * on the parameters of the query) parameter afterwards. Without a key value (first page) the query string
+ * only gets validated.
+ * <p/>
+ * The restriction is only correct if the key attribute is the first ordering of the query, therefore queries with
+ * an own {@code order by} (e.g. from the query method name or {@link org.apache.deltaspike.data.api.Query})
+ * or a {@code group by} are rejected.
+ */
+public class SeekPostProcessor implements QueryStringPostProcessor, JpaQueryPostProcessor
+{
+
+    private static final String PARAMETER_NAME = "deltaspike_seek";
+    private static final String ORDER_BY = " order by ";
+    private static final String WHERE = " where ";
+    private static final String GROUP_BY = " group by ";
+    private static final Pattern INDEXED_PARAMETER = Pattern.compile("\\?(\\d+)");
+
+    private final OrderByQueryStringPostProcessor orderBy;
+    private final Object lastValue;
+
+    // 0 if the query uses named parameters
+    private int parameterIndex;
+
+    public SeekPostProcessor(OrderByQueryStringPostProcessor orderBy, Object lastValue)
+    {
+        this.orderBy = orderBy;
+        this.lastValue = lastValue;
+    }
+
+    @Override
+    public String postProcess(String queryString)
+    {
+        String lower = queryString.toLowerCase();
+        // the order by post processor of the key attribute got applied before
+        int orderByIndex = lower.indexOf(ORDER_BY);
+        String keyOrder = QueryBuilder.ENTITY_NAME + "." + orderBy.getAttribute() + " " + orderBy.getDirection();
+        if (orderByIndex < 0 || lower.indexOf(ORDER_BY, orderByIndex + 1) >= 0
+                || !queryString.startsWith(keyOrder, orderByIndex + ORDER_BY.length()))
+        {
+            throw new IllegalStateException("Keyset pagination requires " + orderBy.getAttribute()
+                    + " as first ordering, but the query defines an own order: " + queryString);
+        }
+        if (lower.contains(GROUP_BY))
+        {
+            throw new IllegalStateException("Keyset pagination isn't supported for grouped queries: " + queryString);
+        }
+        if (lastValue == null)
+        {
+            return queryString;
+        }
+
+        parameterIndex = nextParameterIndex(queryString);
+        int end = orderByIndex;
+        int whereIndex = lower.indexOf(WHERE);
+
+        StringBuilder result = new StringBuilder(queryString.length() + 64);
+        if (whereIndex >= 0 && whereIndex < end)
+        {
+            // keep the precedence of the original restrictions
+            result.append(queryString, 0, whereIndex).append(WHERE).append('(')
+                    .append(queryString, whereIndex + WHERE.length(), end).append(") and ");
+        }
+        else
+        {
+            result.append(queryString, 0, end).append(WHERE);
+        }
+        result.append(QueryBuilder.ENTITY_NAME).append('.').append(orderBy.getAttribute())
+                .append(orderBy.getDirection() == OrderDirection.DESC ? " < " : " > ")
+                .append(parameterIndex > 0 ? "?" + parameterIndex : ":" + PARAMETER_NAME);
+        return result.append(queryString, end, queryString.length()).toString();
+    }
+
+    @Override
+    public Query postProcess(CdiQueryInvocationContext context, Query query)
+    {
+        if (lastValue == null)
+        {
+            return query;
+        }
+        if (parameterIndex > 0)
+        {
+            query.setParameter(parameterIndex, lastValue);
+        }
+        else
+        {
+            query.setParameter(PARAMETER_NAME, lastValue);
+        }
+        return query;
+    }
+
+    public OrderByQueryStringPostProcessor getOrderBy()
+    {
+        return orderBy;
+    }
+
+    private static int nextParameterIndex(String queryString)
+    {
+        Matcher matcher = INDEXED_PARAMETER.matcher(queryString);
+        int max = 0;
+        while (matcher.find())
+        {
+            max = Math.max(max, Integer.parseInt(matcher.group(1)));
+        }
+        return max > 0 ? max + 1 : 0;
+    }
+
+}
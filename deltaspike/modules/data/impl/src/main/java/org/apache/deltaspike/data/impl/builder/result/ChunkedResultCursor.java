@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.builder.result;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.enterprise.context.ContextNotActiveException;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Query;
+import javax.persistence.TransactionRequiredException;
+
+import org.apache.deltaspike.data.api.ResultCursor;
+
+/**
+ * Iterates over the result of a query by re-executing it with a moving first result (OFFSET based).
+ * The limits of the query (first and max result) get respected.
+ *
+ * <p>
+ * The cost of every chunk grows with its offset, subclasses can continue the query differently
+ * (see {@link KeysetResultCursor}).</p>
+ *
+ * <p>
+ * Before the entities of a processed chunk get detached, the EntityManager gets flushed, so changes of the consumer
+ * get written. Without a transaction there is nothing to flush and changes of detached entities get lost.</p>
+ *
+ * <p>
+ * Using the cursor after its EntityManager got closed or after the resource-local transaction, which was
+ * active while creating the cursor, has ended results in an {@link IllegalStateException}.</p>
+ */
+class ChunkedResultCursor<E> implements ResultCursor<E>
+{
+
+    private final Query query;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    // null if there was no active resource-local transaction
+    private final EntityTransaction transaction;
+
+    // the first result of the query and the max. number of entities (Integer.MAX_VALUE if it isn't restricted)
+    private final int firstResult;
+    private final long maxResults;
+
+    private long fetchedCount;
+
+    private List<E> chunk = Collections.emptyList();
+    private int index;
+    private boolean exhausted;
+    private boolean detachEntities = true;
+
+    ChunkedResultCursor(Query query, EntityManager entityManager, int chunkSize)
+    {
+        if (chunkSize <= 0)
+        {
+            throw new IllegalArgumentException("chunk size has to be positive, but was " + chunkSize);
+        }
+        this.query = query;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+        this.transaction = getActiveTransaction(entityManager);
+        this.firstResult = query.getFirstResult();
+        this.maxResults = query.getMaxResults();
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (index < chunk.size())
+        {
+            return true;
+        }
+        if (exhausted)
+        {
+            return false;
+        }
+        fetchNextChunk();
+        return index < chunk.size();
+    }
+
+    @Override
+    public E next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        return chunk.get(index++);
+    }
+
+    @Override
+    public void remove()
+    {
+        throw new UnsupportedOperationException("The result of a query can't be modified");
+    }
+
+    @Override
+    public void close()
+    {
+        detachChunk();
+        chunk = Collections.emptyList();
+        index = 0;
+        exhausted = true;
+    }
+
+    /**
+     * Prepares the query for the next chunk.
+     *
+     * @param lastEntity   the last entity of the previous chunk, null for the first chunk
+     * @param fetchedCount number of entities fetched so far
+     * @param size         max. size of the chunk
+     * @return the query for the next chunk
+     */
+    protected Query createChunkQuery(E lastEntity, long fetchedCount, int size)
+    {
+        query.setFirstResult((int) (firstResult + fetchedCount));
+        query.setMaxResults(size);
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fetchNextChunk()
+    {
+        checkUsable();
+
+        E lastEntity = chunk.isEmpty() ? null : chunk.get(chunk.size() - 1);
+        detachChunk();
+
+        int size = (int) Math.min(chunkSize, maxResults - fetchedCount);
+        chunk = createChunkQuery(lastEntity, fetchedCount, size).getResultList();
+        index = 0;
+
+        fetchedCount += chunk.size();
+        exhausted = chunk.size() < size || fetchedCount >= maxResults;
+    }
+
+    private void checkUsable()
+    {
+        if (transaction != null && !transaction.isActive())
+        {
+            throw new IllegalStateException("The transaction which was active while creating the ResultCursor "
+                    + "has ended. A ResultCursor has to be used within the transaction it was created in.");
+        }
+
+        boolean entityManagerOpen;
+        try
+        {
+            entityManagerOpen = entityManager.isOpen();
+        }
+        catch (ContextNotActiveException e)
+        {
+            // e.g. a request scoped EntityManager after the request
+            throw new IllegalStateException("The EntityManager of the ResultCursor isn't available anymore", e);
+        }
+        if (!entityManagerOpen)
+        {
+            throw new IllegalStateException("The EntityManager of the ResultCursor has been closed");
+        }
+    }
+
+    private void detachChunk()
+    {
+        if (!detachEntities || chunk.isEmpty())
+        {
+            return;
+        }
+        flush();
+        for (E entity : chunk)
+        {
+            try
+            {
+                entityManager.detach(entity);
+            }
+            catch (IllegalArgumentException e)
+            {
+                // no entity, e.g. a projection - there is nothing to detach
+                detachEntities = false;
+                return;
+            }
+        }
+    }
+
+    private void flush()
+    {
+        try
+        {
+            entityManager.flush();
+        }
+        catch (TransactionRequiredException e)
+        {
+            // read-only usage without a transaction
+        }
+    }
+
+    private static EntityTransaction getActiveTransaction(EntityManager entityManager)
+    {
+        try
+        {
+            EntityTransaction transaction = entityManager.getTransaction();
+            return transaction.isActive() ? transaction : null;
+        }
+        catch (IllegalStateException e)
+        {
+            // a JTA EntityManager - only the state of the EntityManager gets checked
+            return null;
+        }
+    }
+
+}
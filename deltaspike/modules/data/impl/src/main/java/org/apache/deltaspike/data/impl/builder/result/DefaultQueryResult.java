@@ -28,6 +28,7 @@ import javax.persistence.Query;
 import javax.persistence.metamodel.SingularAttribute;
 
 import org.apache.deltaspike.data.api.QueryResult;
+import org.apache.deltaspike.data.api.ResultCursor;
 import org.apache.deltaspike.data.impl.builder.OrderDirection;
 import org.apache.deltaspike.data.impl.builder.QueryBuilder;
 import org.apache.deltaspike.data.impl.builder.postprocessor.CountQueryPostProcessor;
@@ -37,8 +38,12 @@ import org.apache.deltaspike.data.impl.builder.postprocessor.HintPostProcessor;
 import org.apache.deltaspike.data.impl.builder.postprocessor.LockModePostProcessor;
 import org.apache.deltaspike.data.impl.builder.postprocessor.MaxResultPostProcessor;
 import org.apache.deltaspike.data.impl.builder.postprocessor.OrderByQueryStringPostProcessor;
+import org.apache.deltaspike.data.impl.builder.postprocessor.SeekPostProcessor;
 import org.apache.deltaspike.data.impl.handler.CdiQueryInvocationContext;
 import org.apache.deltaspike.data.impl.handler.QueryStringPostProcessor;
+import org.apache.deltaspike.data.impl.property.Property;
+import org.apache.deltaspike.data.impl.property.query.NamedPropertyCriteria;
+import org.apache.deltaspike.data.impl.property.query.PropertyQueries;
 
 public class DefaultQueryResult<T> implements QueryResult<T>
 {
@@ -49,6 +54,10 @@ public class DefaultQueryResult<T> implements QueryResult<T>
     private int page = 0;
     private int pageSize = 10;
 
+    private SeekPostProcessor seek;
+    // attribute of the last seekAfter, also if it was called for the first page
+    private String seekAttribute;
+
     public DefaultQueryResult(QueryBuilder builder, CdiQueryInvocationContext context)
     {
         this.builder = builder;
@@ -126,6 +135,8 @@ public class DefaultQueryResult<T> implements QueryResult<T>
     @Override
     public QueryResult<T> clearOrder()
     {
+        removeSeek();
+        seekAttribute = null;
         for (Iterator<QueryStringPostProcessor> it = context.getQueryStringPostProcessors().iterator(); it.hasNext();)
         {
             if (it.next() instanceof OrderByQueryStringPostProcessor)
@@ -136,6 +147,36 @@ public class DefaultQueryResult<T> implements QueryResult<T>
         return this;
     }
 
+    @Override
+    public <X> QueryResult<T> seekAfter(SingularAttribute<T, X> attribute, X lastValue)
+    {
+        return seekAfter(attribute.getName(), lastValue);
+    }
+
+    @Override
+    public QueryResult<T> seekAfter(String attribute, Object lastValue)
+    {
+        removeSeek();
+        OrderByQueryStringPostProcessor orderBy = findFirstOrderBy();
+        if (orderBy == null)
+        {
+            orderBy = new OrderByQueryStringPostProcessor(attribute, OrderDirection.ASC);
+            context.addQueryStringPostProcessor(orderBy);
+        }
+        else if (!orderBy.matches(attribute))
+        {
+            // the key wouldn't be the primary sort key, which skips or repeats entities
+            throw new IllegalStateException("Keyset pagination requires " + attribute
+                    + " as first ordering, but the result is ordered by " + orderBy.getAttribute() + " first");
+        }
+        seekAttribute = attribute;
+        // also added for the first page, to validate the order of the query
+        seek = new SeekPostProcessor(orderBy, lastValue);
+        context.addQueryStringPostProcessor(seek);
+        context.addJpaQueryPostProcessor(seek);
+        return this;
+    }
+
     @Override
     public QueryResult<T> maxResults(int max)
     {
@@ -179,6 +220,29 @@ public class DefaultQueryResult<T> implements QueryResult<T>
         return ((Query) builder.executeQuery(context)).getResultList();
     }
 
+    @Override
+    public ResultCursor<T> getResultCursor(int chunkSize)
+    {
+        Query query = createQuery();
+        if (seekAttribute != null)
+        {
+            Property<Object> keyProperty = PropertyQueries.createQuery(context.getEntityClass())
+                    .addCriteria(new NamedPropertyCriteria(seekAttribute)).getFirstResult();
+            if (keyProperty != null)
+            {
+                return new KeysetResultCursor<T>(query, context.getEntityManager(), chunkSize,
+                        this, seekAttribute, keyProperty, context.getEntityClass());
+            }
+        }
+        // no readable key (e.g. a path like 'address.city') - continue with an offset
+        return new ChunkedResultCursor<T>(query, context.getEntityManager(), chunkSize);
+    }
+
+    Query createQuery()
+    {
+        return (Query) builder.executeQuery(context);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public T getSingleResult()
@@ -209,6 +273,9 @@ public class DefaultQueryResult<T> implements QueryResult<T>
     @Override
     public long count()
     {
+        // like first and max results, keyset pagination doesn't restrict the count
+        SeekPostProcessor currentSeek = seek;
+        removeSeek();
         CountQueryPostProcessor counter = new CountQueryPostProcessor();
         context.addJpaQueryPostProcessor(counter);
         try
@@ -227,6 +294,12 @@ public class DefaultQueryResult<T> implements QueryResult<T>
         finally
         {
             context.removeJpaQueryPostProcessor(counter);
+            if (currentSeek != null)
+            {
+                seek = currentSeek;
+                context.addQueryStringPostProcessor(seek);
+                context.addJpaQueryPostProcessor(seek);
+            }
         }
     }
 
@@ -275,6 +348,28 @@ public class DefaultQueryResult<T> implements QueryResult<T>
         return pageSize;
     }
 
+    private OrderByQueryStringPostProcessor findFirstOrderBy()
+    {
+        for (QueryStringPostProcessor processor : context.getQueryStringPostProcessors())
+        {
+            if (processor instanceof OrderByQueryStringPostProcessor)
+            {
+                return (OrderByQueryStringPostProcessor) processor;
+            }
+        }
+        return null;
+    }
+
+    private void removeSeek()
+    {
+        if (seek != null)
+        {
+            context.getQueryStringPostProcessors().remove(seek);
+            context.removeJpaQueryPostProcessor(seek);
+            seek = null;
+        }
+    }
+
     private <X> QueryResult<T> changeOrder(ChangeOrder changeOrder)
     {
         for (QueryStringPostProcessor processor : context.getQueryStringPostProcessors())
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.builder.result;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.deltaspike.data.impl.property.Property;
+
+/**
+ * Continues the query after the key of the last entity of the previous chunk (keyset pagination) instead of
+ * using an offset, so the cost of a chunk doesn't grow with its position. Used if the unique key got defined
+ * via {@link org.apache.deltaspike.data.api.QueryResult#seekAfter(String, Object)}.
+ *
+ * <p>
+ * If a result isn't an instance of the entity (e.g. a projection), its key can't be read and the cursor falls back
+ * to an offset for the following chunks.</p>
+ */
+class KeysetResultCursor<E> extends ChunkedResultCursor<E>
+{
+
+    private final DefaultQueryResult<E> queryResult;
+    private final String keyAttribute;
+    private final Property<Object> keyProperty;
+    private final Class<?> entityClass;
+
+    KeysetResultCursor(Query query, EntityManager entityManager, int chunkSize, DefaultQueryResult<E> queryResult,
+            String keyAttribute, Property<Object> keyProperty, Class<?> entityClass)
+    {
+        super(query, entityManager, chunkSize);
+        this.queryResult = queryResult;
+        this.keyAttribute = keyAttribute;
+        this.keyProperty = keyProperty;
+        this.entityClass = entityClass;
+    }
+
+    @Override
+    protected Query createChunkQuery(E lastEntity, long fetchedCount, int size)
+    {
+        if (lastEntity == null || !entityClass.isInstance(lastEntity))
+        {
+            return super.createChunkQuery(lastEntity, fetchedCount, size);
+        }
+
+        // the key restriction replaces the first result
+        queryResult.seekAfter(keyAttribute, keyProperty.getValue(lastEntity));
+        Query query = queryResult.createQuery();
+        query.setFirstResult(0);
+        query.setMaxResults(size);
+        return query;
+    }
+
+}
@@ -24,14 +24,18 @@ import java.util.List;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
 
+import org.apache.deltaspike.core.api.config.ConfigResolver;
 import org.apache.deltaspike.data.api.Modifying;
 import org.apache.deltaspike.data.api.QueryResult;
+import org.apache.deltaspike.data.api.ResultCursor;
 import org.apache.deltaspike.data.api.SingleResultType;
 import org.apache.deltaspike.data.impl.handler.CdiQueryInvocationContext;
 
 public final class QueryProcessorFactory
 {
 
+    public static final String CHUNK_SIZE_KEY = "deltaspike.data.cursor.chunk_size";
+
     private final Method method;
 
     private QueryProcessorFactory(Method method)
@@ -50,6 +54,11 @@ public final class QueryProcessorFactory
         {
             return new NoOpQueryProcessor();
         }
+        if (returns(ResultCursor.class))
+        {
+            return new ResultCursorQueryProcessor(
+                    ConfigResolver.resolve(CHUNK_SIZE_KEY).as(Integer.class).withDefault(100).getValue());
+        }
         if (returns(List.class))
         {
             return new ListQueryProcessor();
@@ -92,6 +101,24 @@ public final class QueryProcessorFactory
         }
     }
 
+    private static final class ResultCursorQueryProcessor implements QueryProcessor
+    {
+
+        private final int chunkSize;
+
+        private ResultCursorQueryProcessor(int chunkSize)
+        {
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public Object executeQuery(Query query, CdiQueryInvocationContext context)
+        {
+            // the key of an arbitrary query isn't known, therefore the chunks are fetched via offset
+            return new ChunkedResultCursor<Object>(query, context.getEntityManager(), chunkSize);
+        }
+    }
+
     private static final class SingleResultQueryProcessor implements QueryProcessor
     {
         @Override
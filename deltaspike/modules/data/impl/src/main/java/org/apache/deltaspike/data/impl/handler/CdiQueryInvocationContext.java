@@ -42,22 +42,24 @@ public class CdiQueryInvocationContext implements QueryInvocationContext
     private final Method method;
     private final Object[] args;
     private final RepositoryMethod repoMethod;
+    private final boolean requiresTransaction;
     private final List<QueryStringPostProcessor> queryPostProcessors;
     private final List<JpaQueryPostProcessor> jpaPostProcessors;
     private final List<Destroyable> cleanup;
 
     private String queryString;
 
-    public CdiQueryInvocationContext(Object proxy, Method method, Object[] args, RepositoryMethod repoMethod,
+    public CdiQueryInvocationContext(Object proxy, Method method, Object[] args, QueryInvocationPlan plan,
             EntityManager entityManager)
     {
         this.entityManager = entityManager;
         this.args = args == null ? new Object[] {} : args;
-        this.params = Parameters.create(method, this.args);
+        this.params = plan.getParameterBinder().bind(this.args);
         this.proxy = proxy;
         this.method = method;
-        this.repoMethod = repoMethod;
-        this.entityClass = repoMethod.getRepository().getEntityClass();
+        this.repoMethod = plan.getRepositoryMethod();
+        this.requiresTransaction = plan.requiresTransaction();
+        this.entityClass = this.repoMethod.getRepository().getEntityClass();
         this.queryPostProcessors = new LinkedList<QueryStringPostProcessor>();
         this.jpaPostProcessors = new LinkedList<JpaQueryPostProcessor>();
         this.cleanup = new LinkedList<Destroyable>();
@@ -196,6 +198,11 @@ public class CdiQueryInvocationContext implements QueryInvocationContext
         return repoMethod;
     }
 
+    public boolean requiresTransaction()
+    {
+        return requiresTransaction;
+    }
+
     public String getQueryString()
     {
         return queryString;
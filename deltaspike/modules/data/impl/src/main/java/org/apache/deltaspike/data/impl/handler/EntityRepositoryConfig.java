@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.handler;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.apache.deltaspike.core.api.config.ConfigResolver;
+
+/**
+ * Configuration of the {@link EntityRepositoryHandler}, which is resolved once instead of for every
+ * (dependent) handler instance.
+ */
+@ApplicationScoped
+public class EntityRepositoryConfig
+{
+
+    public static final String BATCH_SIZE_KEY = "deltaspike.data.batch_size";
+
+    private int batchSize;
+
+    @PostConstruct
+    protected void init()
+    {
+        batchSize = ConfigResolver.resolve(BATCH_SIZE_KEY).as(Integer.class).withDefault(0).getValue();
+    }
+
+    /**
+     * @return number of entities after which saveAll and removeAll flush the EntityManager and detach these
+     *         entities, 0 (default) if it's disabled
+     */
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+}
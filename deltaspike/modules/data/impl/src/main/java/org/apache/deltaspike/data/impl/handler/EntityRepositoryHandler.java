@@ -31,12 +31,14 @@ import java.util.logging.Logger;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.metamodel.SingularAttribute;
 
 import org.apache.deltaspike.data.api.EntityRepository;
 import org.apache.deltaspike.data.impl.builder.QueryBuilder;
+import org.apache.deltaspike.data.impl.builder.QueryStringCache;
 import org.apache.deltaspike.data.impl.meta.RequiresTransaction;
 import org.apache.deltaspike.data.impl.property.Property;
 import org.apache.deltaspike.data.impl.property.query.NamedPropertyCriteria;
@@ -59,6 +61,12 @@ public class EntityRepositoryHandler<E, PK extends Serializable>
     @Inject
     private QueryInvocationContext context;
 
+    @Inject
+    private QueryStringCache queryStringCache;
+
+    @Inject
+    private EntityRepositoryConfig config;
+
     @Override
     @RequiresTransaction
     public E save(E entity)
@@ -129,13 +137,13 @@ public class EntityRepositoryHandler<E, PK extends Serializable>
     @Override
     public List<E> findAll()
     {
-        return entityManager().createQuery(allQuery(), entityClass()).getResultList();
+        return allQuery().getResultList();
     }
 
     @Override
     public List<E> findAll(int start, int max)
     {
-        TypedQuery<E> query = entityManager().createQuery(allQuery(), entityClass());
+        TypedQuery<E> query = allQuery();
         if (start > 0)
         {
             query.setFirstResult(start);
@@ -150,7 +158,8 @@ public class EntityRepositoryHandler<E, PK extends Serializable>
     @Override
     public Long count()
     {
-        return entityManager().createQuery(countQuery(), Long.class).getSingleResult();
+        return queryStringCache.createQuery(entityManager(),
+                queryStringCache.getQueryString(context.getMethod(), countQuery()), Long.class).getSingleResult();
     }
 
     @Override
@@ -180,6 +189,59 @@ public class EntityRepositoryHandler<E, PK extends Serializable>
         flush();
     }
 
+    @Override
+    @RequiresTransaction
+    public void saveAll(Iterable<E> entities)
+    {
+        EntityManager entityManager = entityManager();
+        int batchSize = config.getBatchSize();
+        List<Object> batch = new ArrayList<Object>();
+        for (E entity : entities)
+        {
+            if (context.isNew(entity))
+            {
+                entityManager.persist(entity);
+                flushAndDetach(entityManager, batch, entity, batchSize);
+            }
+            else
+            {
+                flushAndDetach(entityManager, batch, entityManager.merge(entity), batchSize);
+            }
+        }
+    }
+
+    @Override
+    @RequiresTransaction
+    public void removeAll(Iterable<E> entities)
+    {
+        EntityManager entityManager = entityManager();
+        int batchSize = config.getBatchSize();
+        List<Object> batch = new ArrayList<Object>();
+        for (E entity : entities)
+        {
+            // the entity might have been detached before, e.g. by saveAll
+            E managed = entityManager.contains(entity) ? entity : entityManager.merge(entity);
+            entityManager.remove(managed);
+            flushAndDetach(entityManager, batch, managed, batchSize);
+        }
+    }
+
+    @Override
+    @RequiresTransaction
+    public int removeBy(E example, SingularAttribute<E, ?>... attributes)
+    {
+        if (isEmpty(attributes))
+        {
+            throw new IllegalArgumentException("removeBy requires at least one attribute");
+        }
+        List<Property<Object>> properties = extractProperties(attributes);
+        String jpqlQuery = exampleQuery(QueryBuilder.deleteQuery(entityName(entityClass())), properties, false);
+        log.log(Level.FINER, "removeBy: Created query {0}", jpqlQuery);
+        Query query = entityManager().createQuery(jpqlQuery);
+        addParameters(query, example, properties, false);
+        return query.executeUpdate();
+    }
+
     @Override
     @RequiresTransaction
     public void flush()
@@ -212,7 +274,13 @@ public class EntityRepositoryHandler<E, PK extends Serializable>
     // PRIVATE
     // ----------------------------------------------------------------------------
 
-    private String allQuery()
+    private TypedQuery<E> allQuery()
+    {
+        return queryStringCache.createQuery(entityManager(),
+                queryStringCache.getQueryString(context.getMethod(), allQueryString()), entityClass());
+    }
+
+    private String allQueryString()
     {
         return QueryBuilder.selectQuery(entityName(entityClass()));
     }
@@ -229,7 +297,26 @@ public class EntityRepositoryHandler<E, PK extends Serializable>
         return jpqlQuery.toString();
     }
 
-    private void addParameters(TypedQuery<?> query, E example, List<Property<Object>> properties,
+    private void flushAndDetach(EntityManager entityManager, List<Object> batch, Object entity, int batchSize)
+    {
+        if (batchSize <= 0)
+        {
+            return;
+        }
+        batch.add(entity);
+        if (batch.size() == batchSize)
+        {
+            // no clear, other entities of the persistence context stay managed
+            entityManager.flush();
+            for (Object processed : batch)
+            {
+                entityManager.detach(processed);
+            }
+            batch.clear();
+        }
+    }
+
+    private void addParameters(Query query, E example, List<Property<Object>> properties,
             boolean useLikeOperator)
     {
         for (Property<Object> property : properties)
@@ -302,7 +389,7 @@ public class EntityRepositoryHandler<E, PK extends Serializable>
         }
 
         List<Property<Object>> properties = extractProperties(attributes);
-        String jpqlQuery = exampleQuery(allQuery(), properties, useLikeOperator);
+        String jpqlQuery = exampleQuery(allQueryString(), properties, useLikeOperator);
         log.log(Level.FINER, "findBy|findByLike: Created query {0}", jpqlQuery);
         TypedQuery<E> query = entityManager().createQuery(jpqlQuery, entityClass());
 
@@ -21,22 +21,16 @@ package org.apache.deltaspike.data.impl.handler;
 import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.inject.Inject;
 import javax.persistence.PersistenceException;
 
-import org.apache.deltaspike.core.api.lifecycle.Initialized;
-import org.apache.deltaspike.core.util.ProxyUtils;
 import org.apache.deltaspike.data.api.QueryInvocationException;
 import org.apache.deltaspike.data.api.Repository;
 import org.apache.deltaspike.data.impl.builder.QueryBuilder;
 import org.apache.deltaspike.data.impl.builder.QueryBuilderFactory;
-import org.apache.deltaspike.data.impl.meta.RepositoryComponent;
-import org.apache.deltaspike.data.impl.meta.RepositoryComponents;
-import org.apache.deltaspike.data.impl.meta.RepositoryMethod;
 
 /**
  * Entry point for query processing.
@@ -53,8 +47,10 @@ public class QueryHandler implements Serializable, InvocationHandler
     private QueryBuilderFactory queryBuilder;
 
     @Inject
-    @Initialized
-    private RepositoryComponents components;
+    private QueryInvocationPlanCache invocationPlans;
+
+    @Inject
+    private QueryResultCache resultCache;
 
     @Inject
     private CdiQueryContextHolder context;
@@ -71,12 +67,27 @@ public class QueryHandler implements Serializable, InvocationHandler
         CdiQueryInvocationContext queryContext = null;
         try
         {
-            List<Class<?>> candidates = ProxyUtils.getProxyAndBaseTypes(proxy.getClass());
-            RepositoryComponent repo = components.lookupComponent(candidates);
-            RepositoryMethod repoMethod = components.lookupMethod(repo.getRepositoryClass(), method);
-            queryContext = createContext(proxy, method, args, repo, repoMethod);
-            QueryBuilder builder = queryBuilder.build(repoMethod, queryContext);
+            QueryInvocationPlan plan = invocationPlans.lookup(proxy.getClass(), method);
+            QueryResultCache.Lookup cached = null;
+            if (plan.getQueryCache() != null)
+            {
+                cached = resultCache.lookup(plan, method, args);
+                if (cached != null && cached.isHit())
+                {
+                    return cached.getResult();
+                }
+            }
+            queryContext = createContext(proxy, method, args, plan);
+            QueryBuilder builder = queryBuilder.build(plan, queryContext);
             Object result = runner.executeQuery(builder, queryContext);
+            if (cached != null)
+            {
+                cached.store(result, queryContext.getEntityManager());
+            }
+            if (plan.isModifying())
+            {
+                resultCache.invalidate(plan.getRepository().getEntityClass(), queryContext.getEntityManager());
+            }
             return result;
         }
         catch (PersistenceException e)
@@ -99,10 +110,10 @@ public class QueryHandler implements Serializable, InvocationHandler
     }
 
     private CdiQueryInvocationContext createContext(Object proxy, Method method,
-            Object[] args, RepositoryComponent repo, RepositoryMethod repoMethod)
+            Object[] args, QueryInvocationPlan plan)
     {
-        CdiQueryInvocationContext queryContext = new CdiQueryInvocationContext(proxy, method, args, repoMethod,
-                entityManagerLookup.lookupFor(repo));
+        CdiQueryInvocationContext queryContext = new CdiQueryInvocationContext(proxy, method, args, plan,
+                entityManagerLookup.lookupFor(plan.getRepository()));
         context.set(queryContext);
         queryContext.initMapper();
         return queryContext;
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.handler;
+
+import java.lang.reflect.Method;
+import java.util.logging.Logger;
+
+import javax.enterprise.inject.spi.Bean;
+
+import org.apache.deltaspike.data.api.Modifying;
+import org.apache.deltaspike.data.api.QueryCache;
+import org.apache.deltaspike.data.api.QueryResult;
+import org.apache.deltaspike.data.api.ResultCursor;
+import org.apache.deltaspike.data.impl.builder.QueryBuilder;
+import org.apache.deltaspike.data.impl.meta.RepositoryComponent;
+import org.apache.deltaspike.data.impl.meta.RepositoryMethod;
+import org.apache.deltaspike.data.impl.meta.RequiresTransaction;
+import org.apache.deltaspike.data.impl.param.ParameterBinder;
+import org.apache.deltaspike.data.impl.util.ClassUtils;
+
+/**
+ * Everything which is needed to invoke a specific method of a Repository proxy class.
+ * Gets created once per proxy class and method by the {@link QueryInvocationPlanCache}.
+ */
+public final class QueryInvocationPlan
+{
+
+    private static final Logger LOG = Logger.getLogger(QueryInvocationPlan.class.getName());
+
+    private final RepositoryComponent repository;
+    private final RepositoryMethod repositoryMethod;
+    private final Bean<QueryBuilder> queryBuilderBean;
+    private final boolean wrapQueryResult;
+    private final boolean requiresTransaction;
+    private final ParameterBinder parameterBinder;
+    private final QueryCache queryCache;
+    private final boolean modifying;
+
+    public QueryInvocationPlan(Method method, RepositoryComponent repository, RepositoryMethod repositoryMethod,
+            Bean<QueryBuilder> queryBuilderBean)
+    {
+        this.repository = repository;
+        this.repositoryMethod = repositoryMethod;
+        this.queryBuilderBean = queryBuilderBean;
+        this.wrapQueryResult = repositoryMethod.returns(QueryResult.class);
+        this.requiresTransaction = isTransactionRequired(method, repositoryMethod);
+        this.parameterBinder = new ParameterBinder(method);
+        this.queryCache = extractQueryCache(method, repositoryMethod);
+        this.modifying = isModifying(method);
+    }
+
+    public RepositoryComponent getRepository()
+    {
+        return repository;
+    }
+
+    public RepositoryMethod getRepositoryMethod()
+    {
+        return repositoryMethod;
+    }
+
+    public Bean<QueryBuilder> getQueryBuilderBean()
+    {
+        return queryBuilderBean;
+    }
+
+    public boolean isWrapQueryResult()
+    {
+        return wrapQueryResult;
+    }
+
+    public boolean requiresTransaction()
+    {
+        return requiresTransaction;
+    }
+
+    public ParameterBinder getParameterBinder()
+    {
+        return parameterBinder;
+    }
+
+    /**
+     * The result cache configuration, or {@code null} if the results of the method don't get cached.
+     */
+    public QueryCache getQueryCache()
+    {
+        return queryCache;
+    }
+
+    /**
+     * Whether the method modifies entities of the Repository, which invalidates their cached results.
+     */
+    public boolean isModifying()
+    {
+        return modifying;
+    }
+
+    private QueryCache extractQueryCache(Method method, RepositoryMethod repositoryMethod)
+    {
+        QueryCache result = method.getAnnotation(QueryCache.class);
+        if (result == null)
+        {
+            return null;
+        }
+        if (requiresTransaction || wrapQueryResult || repositoryMethod.returns(ResultCursor.class))
+        {
+            LOG.warning("@" + QueryCache.class.getSimpleName() + " is ignored for " + method
+                    + ", only read-only queries without a lock mode can be cached");
+            return null;
+        }
+        return result;
+    }
+
+    private static boolean isModifying(Method method)
+    {
+        Method executed = ClassUtils.extract(EntityRepositoryHandler.class, method);
+        if (executed != null && executed.isAnnotationPresent(RequiresTransaction.class))
+        {
+            return true;
+        }
+        return method.isAnnotationPresent(Modifying.class);
+    }
+
+    private static boolean isTransactionRequired(Method method, RepositoryMethod repositoryMethod)
+    {
+        Method executed = ClassUtils.extract(EntityRepositoryHandler.class, method);
+        if (executed != null && executed.isAnnotationPresent(RequiresTransaction.class))
+        {
+            return true;
+        }
+        return repositoryMethod.requiresTransaction();
+    }
+
+}
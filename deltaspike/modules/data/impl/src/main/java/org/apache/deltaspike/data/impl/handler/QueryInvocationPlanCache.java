@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.handler;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.deltaspike.core.api.lifecycle.Initialized;
+import org.apache.deltaspike.core.util.ProxyUtils;
+import org.apache.deltaspike.data.impl.builder.QueryBuilderFactory;
+import org.apache.deltaspike.data.impl.meta.RepositoryComponent;
+import org.apache.deltaspike.data.impl.meta.RepositoryComponents;
+import org.apache.deltaspike.data.impl.meta.RepositoryMethod;
+
+/**
+ * Holds the {@link QueryInvocationPlan}s per Repository proxy class and method.
+ * Resolving the Repository meta data and the query builder happens only for the first invocation of a method.
+ */
+@ApplicationScoped
+public class QueryInvocationPlanCache
+{
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, QueryInvocationPlan>> plans =
+            new ConcurrentHashMap<Class<?>, ConcurrentMap<Method, QueryInvocationPlan>>();
+
+    @Inject
+    @Initialized
+    private RepositoryComponents components;
+
+    @Inject
+    private QueryBuilderFactory queryBuilderFactory;
+
+    public QueryInvocationPlan lookup(Class<?> proxyClass, Method method)
+    {
+        ConcurrentMap<Method, QueryInvocationPlan> proxyPlans = plans.get(proxyClass);
+        if (proxyPlans == null)
+        {
+            proxyPlans = new ConcurrentHashMap<Method, QueryInvocationPlan>();
+            ConcurrentMap<Method, QueryInvocationPlan> existingPlans = plans.putIfAbsent(proxyClass, proxyPlans);
+            if (existingPlans != null)
+            {
+                proxyPlans = existingPlans;
+            }
+        }
+
+        QueryInvocationPlan plan = proxyPlans.get(method);
+        if (plan == null)
+        {
+            plan = createPlan(proxyClass, method);
+            QueryInvocationPlan existingPlan = proxyPlans.putIfAbsent(method, plan);
+            if (existingPlan != null)
+            {
+                plan = existingPlan;
+            }
+        }
+        return plan;
+    }
+
+    private QueryInvocationPlan createPlan(Class<?> proxyClass, Method method)
+    {
+        List<Class<?>> candidates = ProxyUtils.getProxyAndBaseTypes(proxyClass);
+        RepositoryComponent repo = components.lookupComponent(candidates);
+        RepositoryMethod repoMethod = components.lookupMethod(repo.getRepositoryClass(), method);
+        return new QueryInvocationPlan(method, repo, repoMethod,
+                queryBuilderFactory.resolveBean(repoMethod.getMethodType()));
+    }
+
+}
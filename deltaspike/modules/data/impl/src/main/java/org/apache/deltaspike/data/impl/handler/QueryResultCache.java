@@ -0,0 +1,644 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.handler;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.apache.deltaspike.core.api.jmx.JmxManaged;
+import org.apache.deltaspike.core.api.jmx.MBean;
+import org.apache.deltaspike.data.api.QueryCache;
+
+/**
+ * Results of Repository methods annotated with {@link QueryCache}, grouped in regions.
+ *
+ * <p>
+ * A result is identified by the Repository method and its parameter values. Each region is a bounded LRU
+ * cache and knows the entities of the Repositories using it, which allows to invalidate all regions of an
+ * entity after it got modified. A result which was loaded while the region got invalidated isn't stored,
+ * since it might already be outdated.</p>
+ *
+ * <p>
+ * Only results without entities or embeddables (e.g. counts, scalar values and projections) get cached. Entities are
+ * managed by the EntityManager of the caller, sharing them would expose its (maybe rolled back) changes to all other
+ * callers. Methods which return entities are detected with their first result and aren't looked up afterwards.</p>
+ *
+ * <p>
+ * If the modification happens within a transaction, the region is invalidated again once the transaction completed
+ * and no results get stored in the meantime. Otherwise results loaded before the commit (by the modifying
+ * transaction itself or by concurrent ones) would outlive it. The completion of a resource-local transaction is
+ * detected via {@link EntityTransaction#isActive()}, the one of a JTA transaction via a {@link Synchronization}.</p>
+ */
+@ApplicationScoped
+@MBean(description = "DeltaSpike Data query result cache")
+public class QueryResultCache
+{
+
+    private static final Logger LOG = Logger.getLogger(QueryResultCache.class.getName());
+
+    private static final String TRANSACTION_SYNC_REGISTRY_JNDI_NAME = "java:comp/TransactionSynchronizationRegistry";
+
+    private static final Object NULL_RESULT = new Object();
+
+    private final ConcurrentMap<String, Region> regions = new ConcurrentHashMap<String, Region>();
+
+    private final Set<Method> entityResultMethods =
+            Collections.newSetFromMap(new ConcurrentHashMap<Method, Boolean>());
+
+    private final ConcurrentMap<Class<?>, Boolean> managedTypeClasses = new ConcurrentHashMap<Class<?>, Boolean>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile TransactionSynchronizationRegistry transactionRegistry;
+
+    /**
+     * Starts the lookup of a cached result for the given invocation.
+     *
+     * @return a {@link Lookup} to query the result and to store it if it wasn't cached,
+     *         {@code null} if the method returns entities and therefore can't be cached
+     */
+    public Lookup lookup(QueryInvocationPlan plan, Method method, Object[] args)
+    {
+        if (entityResultMethods.contains(method))
+        {
+            return null;
+        }
+
+        Region region = region(plan);
+        CacheKey key = new CacheKey(method, args);
+        Object result = region.get(key);
+        // read after #get, which might invalidate the region, but before the query gets executed
+        long generation = region.generation;
+        if (result == null)
+        {
+            misses.incrementAndGet();
+        }
+        else
+        {
+            hits.incrementAndGet();
+        }
+        return new Lookup(method, region, key, generation, result);
+    }
+
+    /**
+     * Removes the cached results of all regions used by Repositories of the given entity. If the entity got
+     * modified within a transaction of the given EntityManager, the regions don't cache results until it completed.
+     */
+    public void invalidate(Class<?> entityClass, EntityManager entityManager)
+    {
+        ModifyingTransaction transaction = null;
+        for (Region region : regions.values())
+        {
+            if (region.entityClasses.contains(entityClass))
+            {
+                if (transaction == null)
+                {
+                    transaction = currentTransaction(entityManager);
+                }
+                region.invalidate(transaction);
+            }
+        }
+    }
+
+    @JmxManaged(description = "number of results served from the cache")
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    @JmxManaged(description = "number of results which had to be queried")
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    @JmxManaged(description = "hits / (hits + misses)")
+    public double getHitRatio()
+    {
+        long currentHits = hits.get();
+        long total = currentHits + misses.get();
+        return total == 0 ? 0 : (double) currentHits / total;
+    }
+
+    @JmxManaged(description = "number of cached results in all regions")
+    public int getSize()
+    {
+        int result = 0;
+        for (Region region : regions.values())
+        {
+            result += region.size();
+        }
+        return result;
+    }
+
+    @JmxManaged(description = "removes all cached results and resets the statistics")
+    public void clear()
+    {
+        for (Region region : regions.values())
+        {
+            region.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private ModifyingTransaction currentTransaction(EntityManager entityManager)
+    {
+        EntityTransaction transaction;
+        try
+        {
+            transaction = entityManager.getTransaction();
+        }
+        catch (IllegalStateException e)
+        {
+            // JTA EntityManager
+            return currentJtaTransaction();
+        }
+        return transaction.isActive() ? new ResourceLocalTransaction(transaction) : ModifyingTransaction.NONE;
+    }
+
+    private ModifyingTransaction currentJtaTransaction()
+    {
+        TransactionSynchronizationRegistry registry = resolveTransactionRegistry();
+        if (registry == null || registry.getTransactionStatus() == Status.STATUS_NO_TRANSACTION)
+        {
+            return ModifyingTransaction.NONE;
+        }
+
+        // one synchronization per transaction, no matter how many modifications it performs
+        JtaTransaction transaction = (JtaTransaction) registry.getResource(JtaTransaction.class);
+        if (transaction == null)
+        {
+            transaction = new JtaTransaction();
+            try
+            {
+                registry.registerInterposedSynchronization(transaction);
+            }
+            catch (IllegalStateException e)
+            {
+                // e.g. marked for rollback - the modification won't be visible to other transactions anyway
+                return ModifyingTransaction.NONE;
+            }
+            registry.putResource(JtaTransaction.class, transaction);
+        }
+        return transaction;
+    }
+
+    private TransactionSynchronizationRegistry resolveTransactionRegistry()
+    {
+        if (transactionRegistry == null)
+        {
+            try
+            {
+                transactionRegistry = (TransactionSynchronizationRegistry)
+                        new InitialContext().lookup(TRANSACTION_SYNC_REGISTRY_JNDI_NAME);
+            }
+            catch (NamingException e)
+            {
+                LOG.log(Level.FINE, "No TransactionSynchronizationRegistry found", e);
+            }
+        }
+        return transactionRegistry;
+    }
+
+    private boolean containsManagedType(Object value, Metamodel metamodel)
+    {
+        if (value == null)
+        {
+            return false;
+        }
+        if (value instanceof Collection)
+        {
+            for (Object element : (Collection<?>) value)
+            {
+                if (containsManagedType(element, metamodel))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (value instanceof Object[])
+        {
+            // projections with several values
+            for (Object element : (Object[]) value)
+            {
+                if (containsManagedType(element, metamodel))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return isManagedType(value.getClass(), metamodel);
+    }
+
+    private boolean isManagedType(Class<?> valueClass, Metamodel metamodel)
+    {
+        Boolean result = managedTypeClasses.get(valueClass);
+        if (result == null)
+        {
+            result = Boolean.FALSE;
+            // assignable check instead of Metamodel#managedType, since entities might be subclassed by proxies
+            for (ManagedType<?> managedType : metamodel.getManagedTypes())
+            {
+                if (managedType.getJavaType().isAssignableFrom(valueClass))
+                {
+                    result = Boolean.TRUE;
+                    break;
+                }
+            }
+            Boolean existingResult = managedTypeClasses.putIfAbsent(valueClass, result);
+            if (existingResult != null)
+            {
+                result = existingResult;
+            }
+        }
+        return result;
+    }
+
+    private Region region(QueryInvocationPlan plan)
+    {
+        QueryCache config = plan.getQueryCache();
+        Class<?> entityClass = plan.getRepository().getEntityClass();
+        String name = config.name().length() > 0 ? config.name() : entityClass.getName();
+
+        Region region = regions.get(name);
+        if (region == null)
+        {
+            region = new Region(config.timeToLive(), config.maxEntries());
+            Region existingRegion = regions.putIfAbsent(name, region);
+            if (existingRegion != null)
+            {
+                region = existingRegion;
+            }
+        }
+        if (!region.entityClasses.contains(entityClass))
+        {
+            region.entityClasses.add(entityClass);
+        }
+        return region;
+    }
+
+    /**
+     * Result of a lookup. In case of a cache miss the query result can be stored via
+     * {@link #store(Object, EntityManager)}.
+     */
+    public final class Lookup
+    {
+        private final Method method;
+        private final Region region;
+        private final CacheKey key;
+        private final long generation;
+        private final Object result;
+
+        private Lookup(Method method, Region region, CacheKey key, long generation, Object result)
+        {
+            this.method = method;
+            this.region = region;
+            this.key = key;
+            this.generation = generation;
+            this.result = result;
+        }
+
+        public boolean isHit()
+        {
+            return result != null;
+        }
+
+        public Object getResult()
+        {
+            if (result == NULL_RESULT)
+            {
+                return null;
+            }
+            if (result instanceof List)
+            {
+                // callers are free to modify the returned list
+                return new ArrayList<Object>((List<?>) result);
+            }
+            return result;
+        }
+
+        /**
+         * Stores the result, unless it contains entities or embeddables.
+         *
+         * @param queryResult the result of the query
+         * @param entityManager the EntityManager which executed the query
+         */
+        public void store(Object queryResult, EntityManager entityManager)
+        {
+            if (containsManagedType(queryResult, entityManager.getMetamodel()))
+            {
+                if (entityResultMethods.add(method))
+                {
+                    LOG.warning("@" + QueryCache.class.getSimpleName() + " is ignored for " + method +
+                            ", since only results without entities get cached");
+                }
+                return;
+            }
+
+            Object value = queryResult;
+            if (value == null)
+            {
+                value = NULL_RESULT;
+            }
+            else if (value instanceof List)
+            {
+                value = Collections.unmodifiableList(new ArrayList<Object>((List<?>) value));
+            }
+            region.put(key, value, generation);
+        }
+    }
+
+    private static final class Region
+    {
+        private final Set<Class<?>> entityClasses = new CopyOnWriteArraySet<Class<?>>();
+        private final long timeToLiveMillis;
+        private final Map<CacheKey, CachedResult> results;
+
+        // running transactions which modified entities of the region, guarded by results
+        private final Set<ModifyingTransaction> modifyingTransactions = new HashSet<ModifyingTransaction>();
+
+        // incremented by every invalidation, guarded by results
+        private volatile long generation;
+
+        private Region(long timeToLive, final int maxEntries)
+        {
+            this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLive);
+            this.results = new LinkedHashMap<CacheKey, CachedResult>(16, 0.75f, true)
+            {
+                private static final long serialVersionUID = 4862715263306521470L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResult> eldest)
+                {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        private Object get(CacheKey key)
+        {
+            synchronized (results)
+            {
+                if (isModifiedByRunningTransaction())
+                {
+                    return null;
+                }
+                CachedResult cached = results.get(key);
+                if (cached == null)
+                {
+                    return null;
+                }
+                if (cached.isExpired())
+                {
+                    results.remove(key);
+                    return null;
+                }
+                return cached.value;
+            }
+        }
+
+        private void put(CacheKey key, Object value, long loadedInGeneration)
+        {
+            long expiresAt = timeToLiveMillis > 0 ? System.currentTimeMillis() + timeToLiveMillis : 0;
+            synchronized (results)
+            {
+                // the result might be outdated if the region got invalidated in the meantime
+                if (!isModifiedByRunningTransaction() && generation == loadedInGeneration)
+                {
+                    results.put(key, new CachedResult(value, expiresAt));
+                }
+            }
+        }
+
+        private void invalidate(ModifyingTransaction transaction)
+        {
+            synchronized (results)
+            {
+                clear();
+                if (transaction != ModifyingTransaction.NONE)
+                {
+                    modifyingTransactions.add(transaction);
+                }
+            }
+        }
+
+        private void clear()
+        {
+            synchronized (results)
+            {
+                generation++;
+                results.clear();
+            }
+        }
+
+        // guarded by results
+        private boolean isModifiedByRunningTransaction()
+        {
+            if (modifyingTransactions.isEmpty())
+            {
+                return false;
+            }
+
+            boolean completed = false;
+            for (Iterator<ModifyingTransaction> iterator = modifyingTransactions.iterator(); iterator.hasNext();)
+            {
+                if (iterator.next().isCompleted())
+                {
+                    iterator.remove();
+                    completed = true;
+                }
+            }
+            if (completed)
+            {
+                // results loaded before the commit might be outdated
+                clear();
+            }
+            return !modifyingTransactions.isEmpty();
+        }
+
+        private int size()
+        {
+            synchronized (results)
+            {
+                return results.size();
+            }
+        }
+    }
+
+    /**
+     * A transaction which modified entities. Cached results are outdated once it completed.
+     */
+    private abstract static class ModifyingTransaction
+    {
+        // no transaction - the modification is immediately visible
+        private static final ModifyingTransaction NONE = new ModifyingTransaction()
+        {
+            @Override
+            boolean isCompleted()
+            {
+                return true;
+            }
+        };
+
+        abstract boolean isCompleted();
+    }
+
+    private static final class ResourceLocalTransaction extends ModifyingTransaction
+    {
+        private final EntityTransaction transaction;
+
+        private ResourceLocalTransaction(EntityTransaction transaction)
+        {
+            this.transaction = transaction;
+        }
+
+        @Override
+        boolean isCompleted()
+        {
+            try
+            {
+                return !transaction.isActive();
+            }
+            catch (RuntimeException e)
+            {
+                // e.g. the EntityManager got closed
+                return true;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            return o instanceof ResourceLocalTransaction && ((ResourceLocalTransaction) o).transaction == transaction;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode(transaction);
+        }
+    }
+
+    private static final class JtaTransaction extends ModifyingTransaction implements Synchronization
+    {
+        private volatile boolean completed;
+
+        @Override
+        boolean isCompleted()
+        {
+            return completed;
+        }
+
+        @Override
+        public void beforeCompletion()
+        {
+            // nothing to do
+        }
+
+        @Override
+        public void afterCompletion(int status)
+        {
+            completed = true;
+        }
+    }
+
+    private static final class CachedResult
+    {
+        private final Object value;
+        private final long expiresAt;
+
+        private CachedResult(Object value, long expiresAt)
+        {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired()
+        {
+            return expiresAt > 0 && System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+    private static final class CacheKey
+    {
+        private final Method method;
+        private final Object[] args;
+        private final int hashCode;
+
+        private CacheKey(Method method, Object[] args)
+        {
+            this.method = method;
+            this.args = args == null ? new Object[0] : args.clone();
+            this.hashCode = 31 * method.hashCode() + Arrays.deepHashCode(this.args);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof CacheKey))
+            {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return hashCode == other.hashCode && method.equals(other.method) && Arrays.deepEquals(args, other.args);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+
+}
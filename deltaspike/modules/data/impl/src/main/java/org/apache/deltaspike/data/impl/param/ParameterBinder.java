@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.param;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.deltaspike.data.api.FirstResult;
+import org.apache.deltaspike.data.api.MaxResults;
+import org.apache.deltaspike.data.api.QueryParam;
+
+/**
+ * Binds the arguments of a Repository method invocation to {@link Parameters}.
+ * The parameter annotations of the method get evaluated only once, therefore an instance should be reused
+ * for all invocations of the same method.
+ */
+public final class ParameterBinder
+{
+
+    private final int defaultMax;
+    private final int argumentCount;
+
+    // per method argument: the name of a named parameter, the position of an indexed parameter (or 0)
+    private final String[] names;
+    private final int[] positions;
+    private final boolean[] maxResults;
+    private final boolean[] firstResults;
+
+    public ParameterBinder(Method method)
+    {
+        Annotation[][] annotations = method.getParameterAnnotations();
+
+        this.defaultMax = extractSizeRestriction(method);
+        this.argumentCount = annotations.length;
+        this.names = new String[argumentCount];
+        this.positions = new int[argumentCount];
+        this.maxResults = new boolean[argumentCount];
+        this.firstResults = new boolean[argumentCount];
+
+        int paramIndex = 1;
+        for (int i = 0; i < argumentCount; i++)
+        {
+            maxResults[i] = extractFrom(annotations[i], MaxResults.class) != null;
+            firstResults[i] = extractFrom(annotations[i], FirstResult.class) != null;
+
+            if (!maxResults[i] && !firstResults[i])
+            {
+                QueryParam qpAnnotation = extractFrom(annotations[i], QueryParam.class);
+                if (qpAnnotation != null)
+                {
+                    names[i] = qpAnnotation.value();
+                }
+                else
+                {
+                    positions[i] = paramIndex++;
+                }
+            }
+        }
+    }
+
+    public Parameters bind(Object[] arguments)
+    {
+        int max = defaultMax;
+        int first = Parameters.DEFAULT_FIRST;
+        List<Parameter> result = new ArrayList<Parameter>(arguments.length);
+
+        for (int i = 0; i < arguments.length && i < argumentCount; i++)
+        {
+            if (names[i] != null)
+            {
+                result.add(new NamedParameter(names[i], arguments[i], i));
+            }
+            else if (positions[i] > 0)
+            {
+                result.add(new IndexedParameter(positions[i], arguments[i], i));
+            }
+            else
+            {
+                if (maxResults[i])
+                {
+                    max = Parameters.extractInt(arguments[i], MaxResults.class, max);
+                }
+                if (firstResults[i])
+                {
+                    first = Parameters.extractInt(arguments[i], FirstResult.class, first);
+                }
+            }
+        }
+        return new Parameters(result, max, first);
+    }
+
+    private static int extractSizeRestriction(Method method)
+    {
+        if (method.isAnnotationPresent(org.apache.deltaspike.data.api.Query.class))
+        {
+            return method.getAnnotation(org.apache.deltaspike.data.api.Query.class).max();
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A extends Annotation> A extractFrom(Annotation[] annotations, Class<A> target)
+    {
+        for (Annotation annotation : annotations)
+        {
+            if (annotation.annotationType().isAssignableFrom(target))
+            {
+                return (A) annotation;
+            }
+        }
+        return null;
+    }
+
+}
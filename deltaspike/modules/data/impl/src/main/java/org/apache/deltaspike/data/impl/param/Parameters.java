@@ -20,7 +20,6 @@ package org.apache.deltaspike.data.impl.param;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
@@ -28,9 +27,6 @@ import java.util.logging.Logger;
 
 import javax.persistence.Query;
 
-import org.apache.deltaspike.data.api.FirstResult;
-import org.apache.deltaspike.data.api.MaxResults;
-import org.apache.deltaspike.data.api.QueryParam;
 import org.apache.deltaspike.data.api.mapping.QueryInOutMapper;
 
 /**
@@ -39,16 +35,16 @@ import org.apache.deltaspike.data.api.mapping.QueryInOutMapper;
 public final class Parameters
 {
 
-    private static final Logger LOG = Logger.getLogger(Parameters.class.getName());
+    static final int DEFAULT_MAX = 0;
+    static final int DEFAULT_FIRST = -1;
 
-    private static final int DEFAULT_MAX = 0;
-    private static final int DEFAULT_FIRST = -1;
+    private static final Logger LOG = Logger.getLogger(Parameters.class.getName());
 
     private final List<Parameter> parameterList;
     private final int max;
     private final int firstResult;
 
-    private Parameters(List<Parameter> parameters, int max, int firstResult)
+    Parameters(List<Parameter> parameters, int max, int firstResult)
     {
         this.parameterList = parameters;
         this.max = max;
@@ -63,32 +59,7 @@ public final class Parameters
 
     public static Parameters create(Method method, Object[] parameters)
     {
-        int max = extractSizeRestriction(method);
-        int first = DEFAULT_FIRST;
-        List<Parameter> result = new ArrayList<Parameter>(parameters.length);
-        int paramIndex = 1;
-        Annotation[][] annotations = method.getParameterAnnotations();
-        for (int i = 0; i < parameters.length; i++)
-        {
-            if (isParameter(method.getParameterAnnotations()[i]))
-            {
-                QueryParam qpAnnotation = extractFrom(annotations[i], QueryParam.class);
-                if (qpAnnotation != null)
-                {
-                    result.add(new NamedParameter(qpAnnotation.value(), parameters[i], i));
-                }
-                else
-                {
-                    result.add(new IndexedParameter(paramIndex++, parameters[i], i));
-                }
-            }
-            else
-            {
-                max = extractInt(parameters[i], annotations[i], MaxResults.class, max);
-                first = extractInt(parameters[i], annotations[i], FirstResult.class, first);
-            }
-        }
-        return new Parameters(result, max, first);
+        return new ParameterBinder(method).bind(parameters);
     }
 
     public void applyMapper(QueryInOutMapper<?> mapper)
@@ -128,55 +99,22 @@ public final class Parameters
         return firstResult;
     }
 
-    private static int extractSizeRestriction(Method method)
+    static <A extends Annotation> int extractInt(Object parameter, Class<A> target, int defaultVal)
     {
-        if (method.isAnnotationPresent(org.apache.deltaspike.data.api.Query.class))
-        {
-            return method.getAnnotation(org.apache.deltaspike.data.api.Query.class).max();
-        }
-        return 0;
-    }
-
-    @SuppressWarnings("unchecked")
-    private static <A extends Annotation> A extractFrom(Annotation[] annotations, Class<A> target)
-    {
-        for (Annotation annotation : annotations)
+        if (parameter != null)
         {
-            if (annotation.annotationType().isAssignableFrom(target))
+            if (parameter instanceof Integer)
             {
-                return (A) annotation;
+                return (Integer) parameter;
             }
-        }
-        return null;
-    }
-
-    private static <A extends Annotation> int extractInt(Object parameter, Annotation[] annotations,
-            Class<A> target, int defaultVal)
-    {
-        if (parameter != null)
-        {
-            A result = extractFrom(annotations, target);
-            if (result != null)
+            else
             {
-                if (parameter instanceof Integer)
-                {
-                    return (Integer) parameter;
-                }
-                else
-                {
-                    LOG.log(Level.WARNING, "Method parameter extraction: " +
-                            "Param type must be int: {0}->is:{1}",
-                            new Object[] { target, parameter.getClass() });
-                }
+                LOG.log(Level.WARNING, "Method parameter extraction: " +
+                        "Param type must be int: {0}->is:{1}",
+                        new Object[] { target, parameter.getClass() });
             }
         }
         return defaultVal;
     }
 
-    private static boolean isParameter(Annotation[] annotations)
-    {
-        return extractFrom(annotations, MaxResults.class) == null &&
-                extractFrom(annotations, FirstResult.class) == null;
-    }
-
 }
@@ -30,6 +30,9 @@ class FieldPropertyImpl<V> implements FieldProperty<V>
 
     private final Field field;
 
+    // instances get shared via the property queries, so the accessible flag has to be set only once
+    private volatile boolean accessible;
+
     FieldPropertyImpl(Field field)
     {
         this.field = field;
@@ -95,7 +98,11 @@ class FieldPropertyImpl<V> implements FieldProperty<V>
     @Override
     public void setAccessible()
     {
-        Reflections.setAccessible(field);
+        if (!accessible)
+        {
+            Reflections.setAccessible(field);
+            accessible = true;
+        }
     }
 
     @Override
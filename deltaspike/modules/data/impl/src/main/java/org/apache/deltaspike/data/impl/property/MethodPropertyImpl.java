@@ -40,6 +40,8 @@ class MethodPropertyImpl<V> implements MethodProperty<V>
     private final String propertyName;
     private final Method setterMethod;
 
+    private volatile boolean accessible;
+
     public MethodPropertyImpl(Method method)
     {
         final String accessorMethodPrefix;
@@ -213,6 +215,10 @@ class MethodPropertyImpl<V> implements MethodProperty<V>
     @Override
     public void setAccessible()
     {
+        if (accessible)
+        {
+            return;
+        }
         if (setterMethod != null)
         {
             Reflections.setAccessible(setterMethod);
@@ -221,6 +227,7 @@ class MethodPropertyImpl<V> implements MethodProperty<V>
         {
             Reflections.setAccessible(getterMethod);
         }
+        accessible = true;
     }
 
     @Override
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.data.impl.property.query;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.deltaspike.data.impl.property.Properties;
+import org.apache.deltaspike.data.impl.property.Property;
+
+/**
+ * The property candidates of a class, i.e. the public accessor methods and the declared fields of the class and its
+ * superclasses. The reflective lookup happens only once per class and the {@link Property} instances get shared by
+ * all {@link PropertyQuery}s, so e.g. the accessible flag of a field only has to be set once.
+ *
+ * <p>
+ * The cached fields and methods reference their class, therefore weak keys wouldn't release them. Instead the entries
+ * of an application get dropped when its container shuts down, see {@link #clear(ClassLoader)}.</p>
+ */
+final class ClassProperties
+{
+
+    private static final ConcurrentMap<Class<?>, ClassProperties> CLASS_PROPERTIES =
+            new ConcurrentHashMap<Class<?>, ClassProperties>();
+
+    private final List<MethodCandidate> methods;
+    private final List<FieldCandidate> fields;
+
+    private ClassProperties(Class<?> targetClass)
+    {
+        List<MethodCandidate> methodCandidates = new ArrayList<MethodCandidate>();
+        for (Method method : targetClass.getMethods())
+        {
+            if (method.getName().startsWith("is") || method.getName().startsWith("get"))
+            {
+                methodCandidates.add(new MethodCandidate(method));
+            }
+        }
+
+        List<FieldCandidate> fieldCandidates = new ArrayList<FieldCandidate>();
+        Class<?> cls = targetClass;
+        while (cls != null && !cls.equals(Object.class))
+        {
+            for (Field field : cls.getDeclaredFields())
+            {
+                fieldCandidates.add(new FieldCandidate(field));
+            }
+            cls = cls.getSuperclass();
+        }
+
+        this.methods = Collections.unmodifiableList(methodCandidates);
+        this.fields = Collections.unmodifiableList(fieldCandidates);
+    }
+
+    static ClassProperties of(Class<?> targetClass)
+    {
+        ClassProperties result = CLASS_PROPERTIES.get(targetClass);
+        if (result == null)
+        {
+            result = new ClassProperties(targetClass);
+            ClassProperties existingResult = CLASS_PROPERTIES.putIfAbsent(targetClass, result);
+            if (existingResult != null)
+            {
+                result = existingResult;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the entries of the classes which were loaded by the given ClassLoader or one of its children.
+     */
+    static void clear(ClassLoader classLoader)
+    {
+        for (Iterator<Class<?>> classIterator = CLASS_PROPERTIES.keySet().iterator(); classIterator.hasNext();)
+        {
+            if (isLoadedBy(classIterator.next(), classLoader))
+            {
+                classIterator.remove();
+            }
+        }
+    }
+
+    private static boolean isLoadedBy(Class<?> targetClass, ClassLoader classLoader)
+    {
+        ClassLoader current = targetClass.getClassLoader();
+        while (current != null)
+        {
+            if (current == classLoader)
+            {
+                return true;
+            }
+            current = current.getParent();
+        }
+        return false;
+    }
+
+    List<MethodCandidate> getMethods()
+    {
+        return methods;
+    }
+
+    List<FieldCandidate> getFields()
+    {
+        return fields;
+    }
+
+    static final class MethodCandidate
+    {
+        private final Method method;
+        // created lazily, since only getters matching the criteria of a query have to be valid properties
+        private volatile Property<?> property;
+
+        private MethodCandidate(Method method)
+        {
+            this.method = method;
+        }
+
+        Method getMethod()
+        {
+            return method;
+        }
+
+        @SuppressWarnings("unchecked")
+        <V> Property<V> getProperty()
+        {
+            Property<?> result = property;
+            if (result == null)
+            {
+                result = Properties.createProperty(method);
+                property = result;
+            }
+            return (Property<V>) result;
+        }
+    }
+
+    static final class FieldCandidate
+    {
+        private final Field field;
+        private final Property<?> property;
+
+        private FieldCandidate(Field field)
+        {
+            this.field = field;
+            this.property = Properties.createProperty(field);
+        }
+
+        Field getField()
+        {
+            return field;
+        }
+
+        @SuppressWarnings("unchecked")
+        <V> Property<V> getProperty()
+        {
+            return (Property<V>) property;
+        }
+    }
+}
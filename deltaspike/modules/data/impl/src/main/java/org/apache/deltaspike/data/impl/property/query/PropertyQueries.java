@@ -42,4 +42,14 @@ public class PropertyQueries
         return new PropertyQuery<V>(targetClass);
     }
 
+    /**
+     * Drops the cached properties of the classes which were loaded by the given ClassLoader or one of its children.
+     *
+     * @param classLoader ClassLoader of the application
+     */
+    public static void clearCache(ClassLoader classLoader)
+    {
+        ClassProperties.clear(classLoader);
+    }
+
 }
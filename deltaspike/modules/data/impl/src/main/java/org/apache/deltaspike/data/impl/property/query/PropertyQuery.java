@@ -18,14 +18,12 @@
  */
 package org.apache.deltaspike.data.impl.property.query;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.deltaspike.data.impl.property.MethodProperty;
-import org.apache.deltaspike.data.impl.property.Properties;
 import org.apache.deltaspike.data.impl.property.Property;
+import org.apache.deltaspike.data.impl.property.query.ClassProperties.FieldCandidate;
+import org.apache.deltaspike.data.impl.property.query.ClassProperties.MethodCandidate;
 
 /**
  * <p>
@@ -38,6 +36,7 @@ import org.apache.deltaspike.data.impl.property.Property;
  * <p/>
  * <p>
  * This class is not thread-safe, however the result returned by the getResultList() method is.
+ * The properties of a target class get looked up only once, see {@link ClassProperties}.
  * </p>
  *
  * @see PropertyQueries
@@ -177,19 +176,15 @@ public class PropertyQuery<V>
     private List<Property<V>> getResultList(boolean writable)
     {
         List<Property<V>> results = new ArrayList<Property<V>>();
+        ClassProperties classProperties = ClassProperties.of(targetClass);
 
         // First check public accessor methods (we ignore private methods)
-        for (Method method : targetClass.getMethods())
+        for (MethodCandidate candidate : classProperties.getMethods())
         {
-            if (!(method.getName().startsWith("is") || method.getName().startsWith("get")))
-            {
-                continue;
-            }
-
             boolean match = true;
             for (PropertyCriteria c : criteria)
             {
-                if (!c.methodMatches(method))
+                if (!c.methodMatches(candidate.getMethod()))
                 {
                     match = false;
                     break;
@@ -197,7 +192,7 @@ public class PropertyQuery<V>
             }
             if (match)
             {
-                MethodProperty<V> property = Properties.<V> createProperty(method);
+                Property<V> property = candidate.getProperty();
                 if (!writable || !property.isReadOnly())
                 {
                     results.add(property);
@@ -205,33 +200,27 @@ public class PropertyQuery<V>
             }
         }
 
-        Class<?> cls = targetClass;
-        while (cls != null && !cls.equals(Object.class))
+        // Now check declared fields
+        for (FieldCandidate candidate : classProperties.getFields())
         {
-            // Now check declared fields
-            for (Field field : cls.getDeclaredFields())
+            boolean match = true;
+            for (PropertyCriteria c : criteria)
             {
-                boolean match = true;
-                for (PropertyCriteria c : criteria)
+                if (!c.fieldMatches(candidate.getField()))
                 {
-                    if (!c.fieldMatches(field))
-                    {
-                        match = false;
-                        break;
-                    }
+                    match = false;
+                    break;
                 }
-                Property<V> prop = Properties.<V> createProperty(field);
+            }
+            Property<V> prop = candidate.getProperty();
 
-                if (match && !resultsContainsProperty(results, prop.getName()))
+            if (match && !resultsContainsProperty(results, prop.getName()))
+            {
+                if (!writable || !prop.isReadOnly())
                 {
-                    if (!writable || !prop.isReadOnly())
-                    {
-                        results.add(prop);
-                    }
+                    results.add(prop);
                 }
             }
-
-            cls = cls.getSuperclass();
         }
 
         return results;
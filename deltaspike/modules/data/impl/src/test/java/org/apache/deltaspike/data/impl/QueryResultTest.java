@@ -26,6 +26,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.enterprise.inject.Produces;
@@ -37,6 +38,8 @@ import javax.persistence.NonUniqueResultException;
 import javax.persistence.PersistenceContext;
 
 import org.apache.deltaspike.data.api.QueryResult;
+import org.apache.deltaspike.data.api.ResultCursor;
+import org.apache.deltaspike.data.impl.builder.QueryStringCache;
 import org.apache.deltaspike.data.test.TransactionalTestCase;
 import org.apache.deltaspike.data.test.domain.Simple;
 import org.apache.deltaspike.data.test.domain.SimpleBuilder;
@@ -64,12 +67,227 @@ public class QueryResultTest extends TransactionalTestCase
     @Inject
     private SimpleRepository repo;
 
+    @Inject
+    private QueryStringCache queryStringCache;
+
     @Produces
     @PersistenceContext
     private EntityManager entityManager;
 
     private SimpleBuilder builder;
 
+    @Test
+    public void should_cache_query_string_per_order_signature()
+    {
+        // given
+        final String name = "testCacheQueryString";
+        builder.createSimple(name, Integer.valueOf(99));
+        builder.createSimple(name, Integer.valueOf(22));
+        repo.findByName(name).orderAsc(Simple_.counter).getResultList();
+        long hits = queryStringCache.getHitCount();
+        long misses = queryStringCache.getMissCount();
+
+        // when
+        List<Simple> ascending = repo.findByName(name).orderAsc(Simple_.counter).getResultList();
+        long hitsAfterSameOrder = queryStringCache.getHitCount();
+        List<Simple> descending = repo.findByName(name)
+                .orderDesc(Simple_.counter)
+                .orderDesc(Simple_.id)
+                .getResultList();
+
+        // then
+        assertEquals(hits + 1, hitsAfterSameOrder);
+        assertEquals(misses + 1, queryStringCache.getMissCount());
+        assertEquals(Integer.valueOf(22), ascending.get(0).getCounter());
+        assertEquals(Integer.valueOf(99), descending.get(0).getCounter());
+    }
+
+    @Test
+    public void should_page_by_keyset()
+    {
+        // given
+        final String name = "testPageByKeyset";
+        for (int i = 0; i < 5; i++)
+        {
+            builder.createSimple(name, Integer.valueOf(i));
+        }
+
+        // when
+        List<Simple> firstPage = repo.findByName(name)
+                .seekAfter(Simple_.id, null)
+                .maxResults(2)
+                .getResultList();
+        List<Simple> secondPage = repo.findByName(name)
+                .seekAfter(Simple_.id, firstPage.get(1).getId())
+                .maxResults(2)
+                .getResultList();
+        QueryResult<Simple> lastPage = repo.findByName(name)
+                .orderDesc(Simple_.id)
+                .seekAfter(Simple_.id, secondPage.get(0).getId())
+                .maxResults(2);
+
+        // then
+        assertEquals(2, firstPage.size());
+        assertEquals(Integer.valueOf(0), firstPage.get(0).getCounter());
+        assertEquals(2, secondPage.size());
+        assertEquals(Integer.valueOf(2), secondPage.get(0).getCounter());
+        assertEquals(Integer.valueOf(3), secondPage.get(1).getCounter());
+        List<Simple> descending = lastPage.getResultList();
+        assertEquals(2, descending.size());
+        assertEquals(Integer.valueOf(1), descending.get(0).getCounter());
+        assertEquals(Integer.valueOf(0), descending.get(1).getCounter());
+        assertEquals(5, lastPage.count());
+    }
+
+    @Test
+    public void should_page_by_keyset_with_secondary_order()
+    {
+        // given
+        final String name = "testPageByKeysetWithSecondaryOrder";
+        for (int i = 0; i < 3; i++)
+        {
+            builder.createSimple(name, Integer.valueOf(i));
+        }
+
+        // when
+        List<Simple> firstPage = repo.findByName(name)
+                .seekAfter(Simple_.id, null)
+                .orderDesc(Simple_.counter)
+                .maxResults(2)
+                .getResultList();
+
+        // then
+        assertEquals(2, firstPage.size());
+        assertEquals(Integer.valueOf(0), firstPage.get(0).getCounter());
+        assertEquals(Integer.valueOf(1), firstPage.get(1).getCounter());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_fail_keyset_after_other_order()
+    {
+        // given
+        final String name = "testFailKeysetAfterOtherOrder";
+        Simple simple = builder.createSimple(name, Integer.valueOf(1));
+
+        // when
+        repo.findByName(name)
+                .orderAsc(Simple_.counter)
+                .seekAfter(Simple_.id, simple.getId());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_fail_keyset_with_order_of_query()
+    {
+        // given
+        final String name = "testFailKeysetWithOrderOfQuery";
+        builder.createSimple(name, Integer.valueOf(1));
+
+        // when
+        repo.queryByNameOrderedByCounter(name)
+                .seekAfter(Simple_.id, null)
+                .getResultList();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_fail_keyset_with_group_by()
+    {
+        // given
+        final String name = "testFailKeysetWithGroupBy";
+        Simple simple = builder.createSimple(name, Integer.valueOf(1));
+
+        // when
+        repo.queryByNameGrouped(name)
+                .seekAfter(Simple_.id, simple.getId())
+                .getResultList();
+    }
+
+    @Test
+    public void should_iterate_result_in_chunks()
+    {
+        // given
+        final String name = "testIterateResultInChunks";
+        for (int i = 0; i < 5; i++)
+        {
+            builder.createSimple(name, Integer.valueOf(i));
+        }
+
+        // when
+        ResultCursor<Simple> cursor = repo.findByName(name)
+                .orderAsc(Simple_.counter)
+                .firstResult(1)
+                .getResultCursor(2);
+
+        // then
+        List<Simple> result = new ArrayList<Simple>();
+        while (cursor.hasNext())
+        {
+            result.add(cursor.next());
+        }
+        assertEquals(4, result.size());
+        assertEquals(Integer.valueOf(1), result.get(0).getCounter());
+        assertEquals(Integer.valueOf(4), result.get(3).getCounter());
+        assertFalse(entityManager.contains(result.get(0)));
+        assertFalse(entityManager.contains(result.get(3)));
+        cursor.close();
+    }
+
+    @Test
+    public void should_iterate_result_in_chunks_by_keyset()
+    {
+        // given
+        final String name = "testIterateResultInChunksByKeyset";
+        for (int i = 0; i < 5; i++)
+        {
+            builder.createSimple(name, Integer.valueOf(i));
+        }
+
+        // when
+        ResultCursor<Simple> cursor = repo.findByName(name)
+                .seekAfter(Simple_.id, null)
+                .maxResults(4)
+                .getResultCursor(2);
+
+        // then
+        List<Simple> result = new ArrayList<Simple>();
+        while (cursor.hasNext())
+        {
+            result.add(cursor.next());
+        }
+        assertEquals(4, result.size());
+        for (int i = 0; i < result.size(); i++)
+        {
+            assertEquals(Integer.valueOf(i), result.get(i).getCounter());
+        }
+        assertFalse(entityManager.contains(result.get(0)));
+        cursor.close();
+    }
+
+    @Test
+    public void should_keep_changes_of_iterated_entities()
+    {
+        // given
+        final String name = "testKeepChangesOfIteratedEntities";
+        final String changedName = name + "Changed";
+        for (int i = 0; i < 5; i++)
+        {
+            builder.createSimple(name, Integer.valueOf(i));
+        }
+
+        // when
+        ResultCursor<Simple> cursor = repo.findByName(name)
+                .orderAsc(Simple_.counter)
+                .getResultCursor(2);
+        while (cursor.hasNext())
+        {
+            cursor.next().setName(changedName);
+        }
+        cursor.close();
+
+        // then
+        assertEquals(5, repo.findByName(changedName).getResultList().size());
+        assertTrue(repo.findByName(name).getResultList().isEmpty());
+    }
+
     @Test
     public void should_sort_result()
     {
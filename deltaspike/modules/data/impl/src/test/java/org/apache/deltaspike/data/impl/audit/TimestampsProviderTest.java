@@ -62,6 +62,26 @@ public class TimestampsProviderTest
         assertNotNull(entity.getTimestamp());
     }
 
+    @Test
+    public void should_reuse_timestamp_properties_per_entity_class()
+    {
+        // given
+        TimestampsProvider provider = new TimestampsProvider();
+        AuditedEntity created = new AuditedEntity();
+        AuditedEntity updated = new AuditedEntity();
+
+        // when
+        provider.prePersist(created);
+        provider.preUpdate(updated);
+
+        // then
+        assertNotNull(created.getCreated());
+        assertNull(created.getGregorianModified());
+        assertNull(updated.getCreated());
+        assertNotNull(updated.getGregorianModified());
+        assertNotNull(updated.getTimestamp());
+    }
+
     @Test
     public void should_not_fail_on_non_audited_entity()
     {
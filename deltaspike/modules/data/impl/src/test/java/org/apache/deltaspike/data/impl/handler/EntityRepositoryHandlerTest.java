@@ -23,7 +23,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.enterprise.inject.Produces;
@@ -39,6 +42,7 @@ import org.apache.deltaspike.data.test.service.ExtendedRepositoryInterface;
 import org.apache.deltaspike.test.category.WebProfileCategory;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
@@ -51,7 +55,9 @@ public class EntityRepositoryHandlerTest extends TransactionalTestCase
     {
         return initDeployment()
                 .addClasses(ExtendedRepositoryInterface.class)
-                .addPackage(Simple.class.getPackage());
+                .addPackage(Simple.class.getPackage())
+                .addAsResource(new StringAsset(EntityRepositoryConfig.BATCH_SIZE_KEY + "=100"),
+                        "META-INF/apache-deltaspike.properties");
     }
 
     @Inject
@@ -339,6 +345,84 @@ public class EntityRepositoryHandlerTest extends TransactionalTestCase
         assertNull(lookup);
     }
 
+    @Test
+    public void should_save_all()
+    {
+        // given
+        Simple existing = testData.createSimple("testSaveAll1");
+        existing.setName("testSaveAll1Modified");
+        List<Simple> simples = new ArrayList<Simple>(Arrays.asList(existing));
+        for (int i = 0; i < 150; i++)
+        {
+            simples.add(new Simple("testSaveAll" + i));
+        }
+
+        // when
+        repo.saveAll(simples);
+
+        // then
+        assertEquals(Long.valueOf(151), repo.count());
+        assertEquals("testSaveAll1Modified", entityManager.find(Simple.class, existing.getId()).getName());
+    }
+
+    @Test
+    public void should_only_detach_saved_batches()
+    {
+        // given
+        Simple other = testData.createSimple("testSaveAllOther");
+        List<Simple> simples = new ArrayList<Simple>();
+        for (int i = 0; i < 150; i++)
+        {
+            simples.add(new Simple("testSaveAllBatch" + i));
+        }
+
+        // when
+        repo.saveAll(simples);
+
+        // then
+        assertTrue(entityManager.contains(other));
+        assertFalse(entityManager.contains(simples.get(0)));
+        assertFalse(entityManager.contains(simples.get(99)));
+        assertTrue(entityManager.contains(simples.get(100)));
+        assertNotNull(entityManager.find(Simple.class, simples.get(0).getId()));
+    }
+
+    @Test
+    public void should_remove_all()
+    {
+        // given
+        Simple first = testData.createSimple("testRemoveAll1");
+        Simple second = testData.createSimple("testRemoveAll2");
+        testData.createSimple("testRemoveAll3");
+
+        // when
+        repo.removeAll(Arrays.asList(first, second));
+        repo.flush();
+
+        // then
+        assertEquals(Long.valueOf(1), repo.count());
+        assertNull(entityManager.find(Simple.class, first.getId()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_remove_by_example()
+    {
+        // given
+        testData.createSimple("testRemoveBy", Integer.valueOf(1));
+        testData.createSimple("testRemoveBy", Integer.valueOf(2));
+        testData.createSimple("testRemoveByOther", Integer.valueOf(1));
+        Simple example = new Simple("testRemoveBy");
+
+        // when
+        int removed = repo.removeBy(example, Simple_.name);
+        entityManager.clear();
+
+        // then
+        assertEquals(2, removed);
+        assertEquals(Long.valueOf(1), repo.count());
+    }
+
     @Override
     protected EntityManager getEntityManager()
     {
@@ -22,9 +22,11 @@ import static org.apache.deltaspike.data.test.util.TestDeployments.initDeploymen
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.enterprise.inject.Produces;
@@ -33,6 +35,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.NonUniqueResultException;
 import javax.persistence.PersistenceContext;
 
+import org.apache.deltaspike.data.api.ResultCursor;
 import org.apache.deltaspike.data.test.TransactionalTestCase;
 import org.apache.deltaspike.data.test.domain.Simple;
 import org.apache.deltaspike.data.test.domain.Simple2;
@@ -370,6 +373,86 @@ public class QueryHandlerTest extends TransactionalTestCase
         assertNull(result2);
     }
 
+    @Test
+    public void should_create_result_cursor()
+    {
+        // given
+        final String name = "should_create_result_cursor";
+        Simple first = builder.createSimple(name);
+        Simple second = builder.createSimple(name);
+
+        // when
+        ResultCursor<Simple> cursor = repo.findCursorByName(name);
+        List<Simple> result = new ArrayList<Simple>();
+        while (cursor.hasNext())
+        {
+            result.add(cursor.next());
+        }
+
+        // then
+        assertEquals(2, result.size());
+        assertEquals(first.getId(), result.get(0).getId());
+        assertEquals(second.getId(), result.get(1).getId());
+    }
+
+    @Test
+    public void should_cache_query_result_until_entity_modified()
+    {
+        // given
+        final String name = "should_cache_query_result_until_entity_modified";
+        builder.createSimple(name);
+        assertEquals(Long.valueOf(1), repo.findCachedCountByQuery(name));
+
+        // when
+        builder.createSimple(name);
+        Long cached = repo.findCachedCountByQuery(name);
+        repo.save(new Simple(name));
+        Long invalidated = repo.findCachedCountByQuery(name);
+
+        // then
+        assertEquals(Long.valueOf(1), cached);
+        assertEquals(Long.valueOf(3), invalidated);
+    }
+
+    @Test
+    public void should_not_share_entities_of_cached_query_method()
+    {
+        // given
+        final String name = "should_not_share_entities_of_cached_query_method";
+        builder.createSimple(name);
+        Simple first = repo.findCachedByQuery(name).get(0);
+
+        // when
+        first.setName("changed");
+        // discards the change like a rollback
+        entityManager.clear();
+        List<Simple> reread = repo.findCachedByQuery(name);
+
+        // then
+        assertEquals(1, reread.size());
+        assertNotSame(first, reread.get(0));
+        assertEquals(name, reread.get(0).getName());
+    }
+
+    @Test
+    public void should_not_cache_query_result_within_modifying_transaction()
+    {
+        // given
+        final String name = "should_not_cache_query_result_within_modifying_transaction";
+        builder.createSimple(name);
+        // modifies within the (outer) transaction started by TransactionalTestCase
+        repo.save(new Simple(name));
+
+        // when
+        Long first = repo.findCachedCountByQuery(name);
+        builder.createSimple(name);
+        Long second = repo.findCachedCountByQuery(name);
+
+        // then
+        assertEquals(Long.valueOf(2), first);
+        assertEquals(Long.valueOf(3), second);
+    }
+
     @Before
     public void setup()
     {
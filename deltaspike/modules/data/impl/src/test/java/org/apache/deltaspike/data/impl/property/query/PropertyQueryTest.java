@@ -20,6 +20,7 @@ package org.apache.deltaspike.data.impl.property.query;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 import org.apache.deltaspike.data.impl.property.Property;
 import org.apache.deltaspike.data.impl.property.query.NamedPropertyCriteria;
@@ -76,6 +77,19 @@ public class PropertyQueryTest
         assertEquals("Trap", p.getValue(o));
     }
 
+    /**
+     * The properties of a class get looked up once and are shared by all queries on this class.
+     */
+    @Test
+    public void testPropertiesAreSharedBetweenQueries()
+    {
+        Property<String> first = PropertyQueries.<String> createQuery(Person.class)
+                .addCriteria(new NamedPropertyCriteria("name")).getSingleResult();
+        Property<String> second = PropertyQueries.<String> createQuery(Person.class)
+                .addCriteria(new NamedPropertyCriteria("name")).getSingleResult();
+        assertSame(first, second);
+    }
+
     public static class Person
     {
 
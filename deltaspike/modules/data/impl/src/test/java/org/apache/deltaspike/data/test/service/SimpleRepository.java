@@ -31,9 +31,11 @@ import org.apache.deltaspike.data.api.FirstResult;
 import org.apache.deltaspike.data.api.MaxResults;
 import org.apache.deltaspike.data.api.Modifying;
 import org.apache.deltaspike.data.api.Query;
+import org.apache.deltaspike.data.api.QueryCache;
 import org.apache.deltaspike.data.api.QueryParam;
 import org.apache.deltaspike.data.api.QueryResult;
 import org.apache.deltaspike.data.api.Repository;
+import org.apache.deltaspike.data.api.ResultCursor;
 import org.apache.deltaspike.data.test.domain.Simple;
 
 @Repository
@@ -71,6 +73,14 @@ public abstract class SimpleRepository extends AbstractEntityRepository<Simple,
     @Query("select count(s) from Simple s where s.name = ?1")
     public abstract Long findCountByQuery(String name);
 
+    @QueryCache
+    @Query("select count(s) from Simple s where s.name = ?1")
+    public abstract Long findCachedCountByQuery(String name);
+
+    @QueryCache
+    @Query("select s from Simple s where s.name = ?1")
+    public abstract List<Simple> findCachedByQuery(String name);
+
     public abstract Simple findByNameAndEnabled(String name, Boolean enabled);
 
     public abstract Simple findOptionalByName(String name);
@@ -94,6 +104,15 @@ public abstract class SimpleRepository extends AbstractEntityRepository<Simple,
 
     public abstract QueryResult<Simple> findByName(String name);
 
+    @Query("select s from Simple s where s.name = ?1 order by s.id")
+    public abstract ResultCursor<Simple> findCursorByName(String name);
+
+    @Query("select s from Simple s where s.name = ?1 order by s.counter")
+    public abstract QueryResult<Simple> queryByNameOrderedByCounter(String name);
+
+    @Query("select s from Simple s where s.name = ?1 group by s")
+    public abstract QueryResult<Simple> queryByNameGrouped(String name);
+
     @Override
     protected abstract EntityManager entityManager();
 
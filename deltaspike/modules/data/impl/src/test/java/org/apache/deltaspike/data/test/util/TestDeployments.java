@@ -33,6 +33,7 @@ import org.apache.deltaspike.data.api.QueryInvocationException;
 import org.apache.deltaspike.data.api.QueryParam;
 import org.apache.deltaspike.data.api.QueryResult;
 import org.apache.deltaspike.data.api.Repository;
+import org.apache.deltaspike.data.api.ResultCursor;
 import org.apache.deltaspike.data.api.SingleResultType;
 import org.apache.deltaspike.data.api.audit.CreatedOn;
 import org.apache.deltaspike.data.api.audit.CurrentUser;
@@ -138,7 +139,7 @@ public abstract class TestDeployments
         return ShrinkWrap.create(JavaArchive.class, "archive.jar")
                 .addClasses(AbstractEntityRepository.class, Repository.class, EntityRepository.class,
                         FirstResult.class, MaxResults.class, Modifying.class,
-                        Query.class, QueryParam.class, QueryResult.class,
+                        Query.class, QueryParam.class, QueryResult.class, ResultCursor.class,
                         EntityManagerConfig.class, EntityManagerResolver.class, SingleResultType.class,
                         QueryInvocationException.class, EntityManagerDelegate.class)
                 .addClasses(Criteria.class, QuerySelection.class, CriteriaSupport.class)
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.entitymanager;
+
+import org.apache.deltaspike.core.api.config.ConfigResolver;
+import org.apache.deltaspike.core.api.provider.BeanProvider;
+import org.apache.deltaspike.core.spi.activation.Deactivatable;
+import org.apache.deltaspike.core.util.ClassDeactivationUtils;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.Extension;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CDI Extension which starts to create the EntityManagerFactories of the persistence units configured via
+ * {@value #PRELOAD_UNITS_CONFIG_KEY} (comma separated) in the background, once the deployment got validated.
+ */
+public class EntityManagerFactoryPreloadExtension implements Extension, Deactivatable
+{
+    public static final String PRELOAD_UNITS_CONFIG_KEY = "deltaspike.jpa.preload_persistence_units";
+
+    protected void preloadEntityManagerFactories(@Observes AfterDeploymentValidation afterDeploymentValidation,
+                                                 BeanManager beanManager)
+    {
+        if (!ClassDeactivationUtils.isActivated(getClass()))
+        {
+            return;
+        }
+
+        String configuredUnitNames = ConfigResolver.getPropertyValue(PRELOAD_UNITS_CONFIG_KEY);
+        if (configuredUnitNames == null)
+        {
+            return;
+        }
+
+        List<String> unitNames = new ArrayList<String>();
+        for (String unitName : configuredUnitNames.split(","))
+        {
+            if (unitName.trim().length() > 0)
+            {
+                unitNames.add(unitName.trim());
+            }
+        }
+
+        if (!unitNames.isEmpty())
+        {
+            BeanProvider.getContextualReference(beanManager, EntityManagerFactoryRegistry.class, false)
+                .preload(unitNames);
+        }
+    }
+}
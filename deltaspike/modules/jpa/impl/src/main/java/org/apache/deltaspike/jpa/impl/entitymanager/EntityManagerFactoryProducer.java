@@ -23,11 +23,8 @@ import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.inject.Inject;
 import javax.persistence.EntityManagerFactory;
-import javax.persistence.Persistence;
-import java.util.Properties;
 import java.util.logging.Logger;
 
-import org.apache.deltaspike.jpa.spi.entitymanager.PersistenceConfigurationProvider;
 import org.apache.deltaspike.jpa.api.entitymanager.PersistenceUnitName;
 
 
@@ -37,7 +34,10 @@ import org.apache.deltaspike.jpa.api.entitymanager.PersistenceUnitName;
  * to express the desired persistence unit name.</p>
  *
  * <p>The EntityManagerFactory for the given persistence unit will be produced
- * as &#064;Dependent scoped. It can be used to easily implement own
+ * as &#064;Dependent scoped, but it gets created only once and is shared by all
+ * injection points (see {@link EntityManagerFactoryRegistry}). Therefore it shouldn't
+ * be closed by the application, since other beans might still use it. A closed factory
+ * gets replaced by a new one for subsequent injections. It can be used to easily implement own
  * EntityManagerProviders as shown in the following example which provides
  * a producer according to the entitymanager-per-request design pattern:</p>
  * <pre>
@@ -65,7 +65,7 @@ public class EntityManagerFactoryProducer
 
 
     @Inject
-    private PersistenceConfigurationProvider persistenceConfigurationProvider;
+    private EntityManagerFactoryRegistry entityManagerFactoryRegistry;
 
 
     @Produces
@@ -82,12 +82,6 @@ public class EntityManagerFactoryProducer
             return null;
         }
 
-        String unitName = unitNameAnnotation.value();
-
-        Properties properties = persistenceConfigurationProvider.getEntityManagerFactoryConfiguration(unitName);
-
-        EntityManagerFactory emf = Persistence.createEntityManagerFactory(unitName, properties);
-
-        return emf;
+        return entityManagerFactoryRegistry.getEntityManagerFactory(unitNameAnnotation.value());
     }
 }
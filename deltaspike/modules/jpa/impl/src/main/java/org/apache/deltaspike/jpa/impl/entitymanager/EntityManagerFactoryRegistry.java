@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.entitymanager;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.deltaspike.jpa.spi.entitymanager.PersistenceConfigurationProvider;
+
+/**
+ * <p>Creates the EntityManagerFactory of a persistence unit once and shares it between all
+ * injection points of the {@link EntityManagerFactoryProducer}. The factories are identified by the
+ * name of the persistence unit and the properties provided by the {@link PersistenceConfigurationProvider},
+ * and get closed once the application shuts down. Factories which are still getting created at that time
+ * are awaited and closed as well.</p>
+ *
+ * <p>Since the factories are shared, they shouldn't be closed by the application. A factory which got closed
+ * nevertheless (e.g. via an injected instance) gets replaced by a new one with the next lookup.</p>
+ */
+@ApplicationScoped
+public class EntityManagerFactoryRegistry
+{
+    private static final Logger LOG = Logger.getLogger(EntityManagerFactoryRegistry.class.getName());
+
+    private final ConcurrentMap<UnitKey, FutureTask<EntityManagerFactory>> entityManagerFactories =
+        new ConcurrentHashMap<UnitKey, FutureTask<EntityManagerFactory>>();
+
+    @Inject
+    private PersistenceConfigurationProvider persistenceConfigurationProvider;
+
+    private volatile ExecutorService preloadExecutorService;
+
+    private volatile boolean closed;
+
+    /**
+     * @param unitName the name of the persistence unit in persistence.xml
+     * @return the shared EntityManagerFactory for the given persistence unit
+     */
+    public EntityManagerFactory getEntityManagerFactory(String unitName)
+    {
+        return await(lookupOrCreate(unitName));
+    }
+
+    /**
+     * Starts to create the EntityManagerFactories for the given persistence units in parallel.
+     * Injection points which need one of them before it is ready wait for it.
+     *
+     * @param unitNames the names of the persistence units in persistence.xml
+     */
+    public void preload(List<String> unitNames)
+    {
+        if (unitNames.isEmpty())
+        {
+            return;
+        }
+
+        // Persistence#createEntityManagerFactory looks up the persistence.xml via the TCCL
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ExecutorService executorService = Executors.newFixedThreadPool(
+            Math.min(unitNames.size(), Runtime.getRuntime().availableProcessors()), new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(Runnable runnable)
+                {
+                    Thread thread = new Thread(runnable, "DeltaSpike EntityManagerFactory preloading");
+                    thread.setContextClassLoader(classLoader);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+        for (final String unitName : unitNames)
+        {
+            executorService.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        await(lookupOrCreate(unitName));
+                    }
+                    catch (RuntimeException e)
+                    {
+                        // expected if the application shuts down meanwhile
+                        Level level = closed ? Level.FINE : Level.WARNING;
+                        LOG.log(level, "Preloading the EntityManagerFactory for " + unitName + " failed", e);
+                    }
+                }
+            });
+        }
+        executorService.shutdown();
+        preloadExecutorService = executorService;
+    }
+
+    @PreDestroy
+    protected void closeEntityManagerFactories()
+    {
+        closed = true;
+
+        ExecutorService executorService = preloadExecutorService;
+        if (executorService != null)
+        {
+            // drops the preloading of persistence units which didn't start yet, running ones get awaited below
+            executorService.shutdownNow();
+        }
+
+        for (FutureTask<EntityManagerFactory> task : entityManagerFactories.values())
+        {
+            // waits for factories which are still getting created
+            close(task);
+        }
+        entityManagerFactories.clear();
+    }
+
+    private FutureTask<EntityManagerFactory> lookupOrCreate(final String unitName)
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("The EntityManagerFactories got closed already");
+        }
+
+        final Properties properties = persistenceConfigurationProvider.getEntityManagerFactoryConfiguration(unitName);
+        UnitKey key = new UnitKey(unitName, properties);
+
+        FutureTask<EntityManagerFactory> task = entityManagerFactories.get(key);
+        if (task != null && isClosed(task))
+        {
+            // closed by the application, e.g. via an injected instance
+            entityManagerFactories.remove(key, task);
+            task = null;
+        }
+        if (task == null)
+        {
+            FutureTask<EntityManagerFactory> newTask = new FutureTask<EntityManagerFactory>(
+                new Callable<EntityManagerFactory>()
+                {
+                    @Override
+                    public EntityManagerFactory call()
+                    {
+                        return Persistence.createEntityManagerFactory(unitName, properties);
+                    }
+                });
+
+            task = entityManagerFactories.putIfAbsent(key, newTask);
+            if (task == null)
+            {
+                task = newTask;
+                // the first caller creates the factory, all others wait for it
+                task.run();
+                if (isFailed(task))
+                {
+                    // allows to retry it with the next injection
+                    entityManagerFactories.remove(key, task);
+                }
+                else if (closed)
+                {
+                    // the registry got closed while the factory got created
+                    entityManagerFactories.remove(key, task);
+                    close(task);
+                    throw new IllegalStateException("The EntityManagerFactories got closed already");
+                }
+            }
+        }
+        return task;
+    }
+
+    private static void close(FutureTask<EntityManagerFactory> task)
+    {
+        try
+        {
+            EntityManagerFactory entityManagerFactory = task.get();
+            if (entityManagerFactory.isOpen())
+            {
+                entityManagerFactory.close();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            LOG.log(Level.FINE, "Interrupted while waiting for an EntityManagerFactory", e);
+        }
+        catch (Exception e)
+        {
+            LOG.log(Level.FINE, "Closing an EntityManagerFactory failed", e);
+        }
+    }
+
+    private static boolean isClosed(FutureTask<EntityManagerFactory> task)
+    {
+        if (!task.isDone() || isFailed(task))
+        {
+            return false;
+        }
+        return !await(task).isOpen();
+    }
+
+    private static boolean isFailed(FutureTask<EntityManagerFactory> task)
+    {
+        try
+        {
+            task.get();
+            return false;
+        }
+        catch (Exception e)
+        {
+            return true;
+        }
+    }
+
+    private static EntityManagerFactory await(FutureTask<EntityManagerFactory> task)
+    {
+        try
+        {
+            return task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the EntityManagerFactory", e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static final class UnitKey
+    {
+        private final String unitName;
+        private final Map<String, String> properties = new HashMap<String, String>();
+
+        private UnitKey(String unitName, Properties properties)
+        {
+            this.unitName = unitName;
+            if (properties != null)
+            {
+                // includes the defaults of the Properties
+                for (String propertyName : properties.stringPropertyNames())
+                {
+                    this.properties.put(propertyName, properties.getProperty(propertyName));
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof UnitKey))
+            {
+                return false;
+            }
+            UnitKey other = (UnitKey) o;
+            return unitName.equals(other.unitName) && properties.equals(other.properties);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * unitName.hashCode() + properties.hashCode();
+        }
+    }
+}
@@ -20,7 +20,7 @@ package org.apache.deltaspike.jpa.impl.transaction;
 
 
 import java.lang.annotation.Annotation;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.logging.Level;
@@ -36,7 +36,6 @@ import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
 
 import org.apache.deltaspike.core.api.literal.AnyLiteral;
-import org.apache.deltaspike.core.util.ProxyUtils;
 import org.apache.deltaspike.jpa.api.transaction.Transactional;
 import org.apache.deltaspike.jpa.impl.transaction.context.EntityManagerEntry;
 import org.apache.deltaspike.jpa.impl.transaction.context.TransactionBeanStorage;
@@ -67,6 +66,9 @@ public class ResourceLocalTransactionStrategy implements TransactionStrategy
 
     private static final Logger LOGGER = Logger.getLogger(ResourceLocalTransactionStrategy.class.getName());
 
+    private static final Set<Class<? extends Annotation>> DEFAULT_QUALIFIER =
+            Collections.<Class<? extends Annotation>>singleton(Default.class);
+
     @Inject
     private BeanManager beanManager;
 
@@ -79,14 +81,13 @@ public class ResourceLocalTransactionStrategy implements TransactionStrategy
     @Override
     public Object execute(InvocationContext invocationContext) throws Exception
     {
-        Transactional transactionalAnnotation = transactionHelper.extractTransactionalAnnotation(invocationContext);
-
-        Class targetClass = ProxyUtils.getUnproxiedClass(invocationContext.getTarget().getClass()); //see DELTASPIKE-517
+        TransactionMetaData transactionMetaData = transactionHelper.resolveTransactionMetaData(invocationContext);
+        Transactional transactionalAnnotation = transactionMetaData.getTransactional();
 
         // all the configured qualifier keys
         Set<Class<? extends Annotation>> emQualifiers = emHolder.isSet() ?
-                new HashSet<Class<? extends Annotation>>(Arrays.asList(Default.class)) :
-                transactionHelper.resolveEntityManagerQualifiers(transactionalAnnotation, targetClass);
+                DEFAULT_QUALIFIER :
+                transactionMetaData.getQualifiers();
 
         TransactionBeanStorage transactionBeanStorage = TransactionBeanStorage.getInstance();
 
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.transaction;
+
+import org.apache.deltaspike.jpa.api.transaction.Transactional;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The &#064;Transactional annotation and the EntityManager qualifiers of an intercepted method.
+ * Gets resolved once per target class and method by the {@link TransactionStrategyHelper}.
+ */
+public final class TransactionMetaData
+{
+    private final Transactional transactional;
+    private final Set<Class<? extends Annotation>> qualifiers;
+
+    TransactionMetaData(Transactional transactional, Set<Class<? extends Annotation>> qualifiers)
+    {
+        this.transactional = transactional;
+        this.qualifiers = Collections.unmodifiableSet(qualifiers);
+    }
+
+    /**
+     * @return the &#064;Transactional annotation or <code>null</code> if none is present
+     */
+    public Transactional getTransactional()
+    {
+        return transactional;
+    }
+
+    /**
+     * @return the (unmodifiable) qualifiers of the EntityManagers which take part in the transaction
+     */
+    public Set<Class<? extends Annotation>> getQualifiers()
+    {
+        return qualifiers;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.jpa.impl.transaction;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stores the {@link TransactionMetaData} per intercepted class and method,
+ * so it only gets resolved for the first invocation.
+ */
+@ApplicationScoped
+public class TransactionMetaDataStorage
+{
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, TransactionMetaData>> metaData =
+        new ConcurrentHashMap<Class<?>, ConcurrentMap<Method, TransactionMetaData>>();
+
+    /**
+     * @return the stored meta-data or <code>null</code> if it hasn't been resolved yet
+     */
+    public TransactionMetaData getMetaData(Class<?> targetClass, Method method)
+    {
+        ConcurrentMap<Method, TransactionMetaData> classMetaData = metaData.get(targetClass);
+        if (classMetaData == null)
+        {
+            return null;
+        }
+        return classMetaData.get(method);
+    }
+
+    /**
+     * Stores the meta-data unless it has been stored already, e.g. by a concurrent invocation.
+     *
+     * @return the stored meta-data
+     */
+    public TransactionMetaData storeMetaData(Class<?> targetClass, Method method,
+                                             TransactionMetaData transactionMetaData)
+    {
+        ConcurrentMap<Method, TransactionMetaData> classMetaData = metaData.get(targetClass);
+        if (classMetaData == null)
+        {
+            classMetaData = new ConcurrentHashMap<Method, TransactionMetaData>();
+            ConcurrentMap<Method, TransactionMetaData> existing = metaData.putIfAbsent(targetClass, classMetaData);
+            if (existing != null)
+            {
+                classMetaData = existing;
+            }
+        }
+        TransactionMetaData existingMetaData = classMetaData.putIfAbsent(method, transactionMetaData);
+        return existingMetaData != null ? existingMetaData : transactionMetaData;
+    }
+}
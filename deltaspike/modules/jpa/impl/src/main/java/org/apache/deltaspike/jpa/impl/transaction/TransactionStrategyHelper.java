@@ -19,6 +19,7 @@
 package org.apache.deltaspike.jpa.impl.transaction;
 
 import org.apache.deltaspike.core.util.AnnotationUtils;
+import org.apache.deltaspike.core.util.ProxyUtils;
 import org.apache.deltaspike.jpa.api.transaction.Transactional;
 
 import javax.enterprise.context.Dependent;
@@ -47,6 +48,34 @@ public class TransactionStrategyHelper implements Serializable
     @Inject
     private BeanManager beanManager;
 
+    @Inject
+    private TransactionMetaDataStorage metaDataStorage;
+
+    /**
+     * Resolves the &#064;Transactional annotation and the EntityManager qualifiers of the intercepted method.
+     * The result is cached per target class and method, so only the first invocation
+     * pays for the annotation and field scanning.
+     *
+     * @param context the invocation-context of the intercepted method
+     * @see #extractTransactionalAnnotation(InvocationContext)
+     * @see #resolveEntityManagerQualifiers(Transactional, Class)
+     */
+    public TransactionMetaData resolveTransactionMetaData(InvocationContext context)
+    {
+        Class targetClass = context.getTarget() != null ? context.getTarget().getClass() :
+            context.getMethod().getDeclaringClass();
+
+        TransactionMetaData result = metaDataStorage.getMetaData(targetClass, context.getMethod());
+        if (result == null)
+        {
+            Transactional transactionalAnnotation = extractTransactionalAnnotation(context);
+            result = new TransactionMetaData(transactionalAnnotation, resolveEntityManagerQualifiers(
+                transactionalAnnotation, ProxyUtils.getUnproxiedClass(targetClass))); //see DELTASPIKE-517
+            result = metaDataStorage.storeMetaData(targetClass, context.getMethod(), result);
+        }
+        return result;
+    }
+
     /**
      * <p>This method uses the InvocationContext to scan the &#064;Transactional
      * interceptor for a manually specified Qualifier.</p>
@@ -19,12 +19,13 @@
 package org.apache.deltaspike.jpa.impl.transaction.context;
 
 import javax.enterprise.context.spi.Contextual;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.Stack;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,6 +39,14 @@ import java.util.logging.Logger;
  * we subsequently destroy any left over TransactionScoped beans (which should not happen,
  * but who knows). We also don't need to do any fancy synchronization stuff since
  * we are sure that we are always in the same Thread.</p>
+ *
+ * <p>Since the storage is confined to a single Thread, the TransactionScopes are kept in an
+ * unsynchronized array-backed stack. The frames only allocate the bean map once a
+ * &#064;TransactionScoped bean is used. Frames of ended nested TransactionScopes (REQUIRES_NEW)
+ * get reset and reused, but only while the outermost transaction is running: the whole storage
+ * gets dropped together with the ThreadLocal in {@link #close()}, since keeping it on pooled
+ * container threads would pin the classes of the application. Therefore every outermost
+ * transaction still creates its own storage and frames.</p>
  */
 public class TransactionBeanStorage
 {
@@ -57,23 +66,35 @@ public class TransactionBeanStorage
          *     <li>top Element in the Stack -> Context beans for the transactionKey</li>
          * </ol>
          *
+         * Gets created lazily, since most transactions don't use &#064;TransactionScoped beans.
          */
-        private Map<Contextual, TransactionBeanEntry> contextualInstances =
-                new HashMap<Contextual, TransactionBeanEntry>();
+        private Map<Contextual, TransactionBeanEntry> contextualInstances;
 
-        private Set<EntityManagerEntry> ems = new HashSet<EntityManagerEntry>();
+        private final EntityManagerEntrySet ems = new EntityManagerEntrySet();
 
         /**
          * counts the 'depth' of the interceptor invocation.
          */
-        private AtomicInteger refCounter = new AtomicInteger(0);
+        private int refCounter;
+
+        private void reset()
+        {
+            if (contextualInstances != null)
+            {
+                contextualInstances.clear();
+            }
+            ems.clear();
+            refCounter = 0;
+        }
     }
 
     /**
-     * If we hit a layer with REQUIRES_NEW, then create a new TransactionContextInfo
-     * and push the old one on top of this stack.
+     * If we hit a layer with REQUIRES_NEW, then a new TransactionContextInfo gets pushed on top of this stack.
+     * The elements above {@link #depth} are ended frames which get reused until the storage gets closed.
      */
-    private Stack<TransactionContextInfo> oldTci = new Stack<TransactionContextInfo>();
+    private TransactionContextInfo[] frames = new TransactionContextInfo[2];
+
+    private int depth = 0;
 
     /**
      * The TransactionContextInfo which is on top of the stack.
@@ -122,7 +143,7 @@ public class TransactionBeanStorage
      */
     public int incrementRefCounter()
     {
-        return currentTci.refCounter.incrementAndGet() - 1;
+        return currentTci.refCounter++;
     }
 
     /**
@@ -137,7 +158,7 @@ public class TransactionBeanStorage
             return 0;
         }
 
-        return currentTci.refCounter.decrementAndGet();
+        return --currentTci.refCounter;
     }
 
     /**
@@ -154,12 +175,16 @@ public class TransactionBeanStorage
      */
     public void startTransactionScope()
     {
-        // first store away any previous TransactionContextInfo
-        if (currentTci != null)
+        // any previous TransactionContextInfo stays on the stack below the new one
+        if (depth == frames.length)
+        {
+            frames = Arrays.copyOf(frames, depth * 2);
+        }
+        if (frames[depth] == null)
         {
-            oldTci.push(currentTci);
+            frames[depth] = new TransactionContextInfo();
         }
-        currentTci = new TransactionContextInfo();
+        currentTci = frames[depth++];
 
         if (LOGGER.isLoggable(Level.FINER))
         {
@@ -181,11 +206,16 @@ public class TransactionBeanStorage
             LOGGER.finer("ending TransactionScope");
         }
 
-        destroyBeans(currentTci.contextualInstances);
+        if (currentTci.contextualInstances != null)
+        {
+            destroyBeans(currentTci.contextualInstances);
+        }
+        currentTci.reset();
+        depth--;
 
-        if (oldTci.size() > 0)
+        if (depth > 0)
         {
-            currentTci = oldTci.pop();
+            currentTci = frames[depth - 1];
             endTransactionScope();
         }
         else
@@ -220,6 +250,10 @@ public class TransactionBeanStorage
             return null;
         }
 
+        if (currentTci.contextualInstances == null)
+        {
+            currentTci.contextualInstances = new HashMap<Contextual, TransactionBeanEntry>();
+        }
         return currentTci.contextualInstances;
     }
 
@@ -242,5 +276,87 @@ public class TransactionBeanStorage
             beanEntry.getBean().destroy(beanEntry.getContextualInstance(), beanEntry.getCreationalContext());
         }
     }
-}
 
+    /**
+     * Array-backed Set for the EntityManagers of a transaction, usually there are just one or two of them.
+     */
+    private static class EntityManagerEntrySet extends AbstractSet<EntityManagerEntry>
+    {
+        private EntityManagerEntry[] entries = new EntityManagerEntry[2];
+
+        private int size = 0;
+
+        @Override
+        public boolean add(EntityManagerEntry entityManagerEntry)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                if (entries[i].equals(entityManagerEntry))
+                {
+                    return false;
+                }
+            }
+
+            if (size == entries.length)
+            {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entityManagerEntry;
+            return true;
+        }
+
+        @Override
+        public Iterator<EntityManagerEntry> iterator()
+        {
+            return new Iterator<EntityManagerEntry>()
+            {
+                private int next = 0;
+
+                private int last = -1;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return next < size;
+                }
+
+                @Override
+                public EntityManagerEntry next()
+                {
+                    if (next >= size)
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    last = next++;
+                    return entries[last];
+                }
+
+                @Override
+                public void remove()
+                {
+                    if (last < 0)
+                    {
+                        throw new IllegalStateException();
+                    }
+                    System.arraycopy(entries, last + 1, entries, last, size - last - 1);
+                    entries[--size] = null;
+                    next = last;
+                    last = -1;
+                }
+            };
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public void clear()
+        {
+            Arrays.fill(entries, 0, size, null);
+            size = 0;
+        }
+    }
+}
@@ -20,8 +20,11 @@ package org.apache.deltaspike.test.jpa.api.entitymanager;
 
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.spi.PersistenceProviderResolverHolder;
 
+import org.apache.deltaspike.jpa.api.entitymanager.PersistenceUnitName;
+import org.apache.deltaspike.jpa.impl.entitymanager.EntityManagerFactoryRegistry;
 import org.apache.deltaspike.test.category.SeCategory;
 import org.apache.deltaspike.test.jpa.api.shared.TestEntityManager;
 import org.apache.deltaspike.test.util.ArchiveUtils;
@@ -67,6 +70,17 @@ public class EntityManagerFactoryProducerTest
     @SampleDb
     private EntityManager entityManager;
 
+    @Inject
+    @PersistenceUnitName("testPersistenceUnit")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    @PersistenceUnitName("testPersistenceUnit")
+    private EntityManagerFactory otherEntityManagerFactory;
+
+    @Inject
+    private EntityManagerFactoryRegistry entityManagerFactoryRegistry;
+
     @Test
     public void testUnitDefinitionQualifier() throws Exception
     {
@@ -77,4 +91,24 @@ public class EntityManagerFactoryProducerTest
         TestEntityManager tem = (TestEntityManager) entityManager.getDelegate();
         Assert.assertEquals("testPersistenceUnit", tem.getUnitName());
     }
+
+    @Test
+    public void testEntityManagerFactoryIsShared() throws Exception
+    {
+        Assert.assertNotNull(entityManagerFactory);
+        Assert.assertSame(entityManagerFactory, otherEntityManagerFactory);
+    }
+
+    @Test
+    public void testClosedEntityManagerFactoryGetsRecreated() throws Exception
+    {
+        EntityManagerFactory closedEntityManagerFactory =
+            entityManagerFactoryRegistry.getEntityManagerFactory("testPersistenceUnit");
+        closedEntityManagerFactory.close();
+
+        EntityManagerFactory recreatedEntityManagerFactory =
+            entityManagerFactoryRegistry.getEntityManagerFactory("testPersistenceUnit");
+        Assert.assertNotSame(closedEntityManagerFactory, recreatedEntityManagerFactory);
+        Assert.assertTrue(recreatedEntityManagerFactory.isOpen());
+    }
 }
@@ -88,6 +88,7 @@ public class TestPersistenceProviderResolver implements PersistenceProviderResol
     {
         private final String emName;
         private final Map map;
+        private boolean open = true;
 
         public DummyEntityManagerFactory()
         {
@@ -106,6 +107,7 @@ public class TestPersistenceProviderResolver implements PersistenceProviderResol
         @Override
         public void close()
         {
+            open = false;
         }
 
         @Override
@@ -135,7 +137,7 @@ public class TestPersistenceProviderResolver implements PersistenceProviderResol
         @Override
         public boolean isOpen()
         {
-            return false;  
+            return open;
         }
 
         @Override
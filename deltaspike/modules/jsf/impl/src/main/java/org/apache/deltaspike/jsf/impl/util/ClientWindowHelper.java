@@ -43,6 +43,10 @@ public abstract class ClientWindowHelper
 
     private static final Logger LOG = Logger.getLogger(ClientWindowHelper.class.getName());
 
+    //10 is enough for the integer generated by DefaultClientWindow#generateNewWindowId - see DELTASPIKE-752
+    private static final ConfigResolver.TypedResolver<Integer> MAX_WINDOW_ID_LENGTH =
+        ConfigResolver.resolve("deltaspike.window-id.max_length").as(Integer.class).withDefault(10);
+
     /**
      * Handles the initial redirect for the URL modus, if no windowId is available in the current request URL.
      *
@@ -163,8 +167,7 @@ public abstract class ClientWindowHelper
 
     public static int getMaxWindowIdLength()
     {
-        //10 is enough for the integer generated by DefaultClientWindow#generateNewWindowId - see DELTASPIKE-752
-        int result = Integer.parseInt(ConfigResolver.getPropertyValue("deltaspike.window-id.max_length", "" + 10));
+        int result = MAX_WINDOW_ID_LENGTH.getValue();
 
         if (result > 10)
         {
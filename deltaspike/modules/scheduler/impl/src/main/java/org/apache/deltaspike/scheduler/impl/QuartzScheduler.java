@@ -29,6 +29,7 @@ import org.apache.deltaspike.core.util.metadata.AnnotationInstanceProvider;
 import org.apache.deltaspike.scheduler.api.Scheduled;
 import org.apache.deltaspike.scheduler.spi.Scheduler;
 import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
 import org.quartz.Job;
 import org.quartz.JobBuilder;
 import org.quartz.JobDetail;
@@ -36,25 +37,31 @@ import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.quartz.JobKey;
 import org.quartz.JobListener;
+import org.quartz.ObjectAlreadyExistsException;
 import org.quartz.SchedulerException;
 import org.quartz.SchedulerFactory;
 import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
 import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.matchers.GroupMatcher;
 
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.Stack;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 //vetoed class (see SchedulerExtension)
-public class QuartzScheduler implements Scheduler<Job>
+public class QuartzScheduler implements Scheduler<Job>, BatchJobRegistration<Job>
 {
     public static final String START_SCOPES_KEY = "deltaspike.scheduler.start_scopes_for_jobs";
 
@@ -183,62 +190,82 @@ public class QuartzScheduler implements Scheduler<Job>
         {
             Scheduled scheduled = jobClass.getAnnotation(Scheduled.class);
 
-            String description = scheduled.description();
-
-            if ("".equals(scheduled.description()))
-            {
-                description = jobClass.getName();
-            }
-
             JobDetail jobDetail = this.scheduler.getJobDetail(jobKey);
-            Trigger trigger;
 
             if (jobDetail == null)
             {
-                jobDetail = JobBuilder.newJob(jobClass)
-                        .withDescription(description)
-                        .withIdentity(jobKey)
-                        .build();
-
-                trigger = TriggerBuilder.newTrigger()
-                        .withSchedule(CronScheduleBuilder.cronSchedule(scheduled.cronExpression()))
-                        .build();
-
-                this.scheduler.scheduleJob(jobDetail, trigger);
+                try
+                {
+                    this.scheduler.scheduleJob(createJobDetail(jobClass, jobKey, scheduled), createTrigger(scheduled));
+                }
+                catch (ObjectAlreadyExistsException e)
+                {
+                    //e.g. stored by another node of the cluster in the meantime
+                    LOG.info(jobKey + " was stored concurrently and will be ignored.");
+                }
             }
             else if (scheduled.overrideOnStartup())
             {
-                List<? extends Trigger> existingTriggers = this.scheduler.getTriggersOfJob(jobKey);
+                overrideTrigger(jobKey, scheduled);
+            }
+            else
+            {
+                LOG.info(jobKey + " exists already and will be ignored.");
+            }
+        }
+        catch (SchedulerException e)
+        {
+            throw ExceptionUtils.throwAsRuntimeException(e);
+        }
+    }
 
-                if (existingTriggers == null || existingTriggers.isEmpty())
-                {
-                    //TODO re-visit it
-                    trigger = TriggerBuilder.newTrigger()
-                            .withSchedule(CronScheduleBuilder.cronSchedule(scheduled.cronExpression()))
-                            .build();
+    /**
+     * Reads the keys of all stored jobs once and stores all new jobs (and their triggers) via one call of
+     * {@link org.quartz.Scheduler#scheduleJobs(java.util.Map, boolean)}.
+     * Only the triggers of existing jobs which use {@link Scheduled#overrideOnStartup()} are loaded
+     * and they are just updated if the cron-expression changed. Quartz doesn't support loading the triggers
+     * of several jobs at once, therefore it's still one {@link org.quartz.Scheduler#getTriggersOfJob(JobKey)}
+     * call per such job.
+     *
+     * If another node of the cluster stored one of the new jobs in the meantime, none of them gets stored
+     * by {@link org.quartz.Scheduler#scheduleJobs(java.util.Map, boolean)} and they get registered one by one
+     * via {@link #registerNewJob(Class)} instead.
+     *
+     * @param jobClasses all jobs found during the bootstrapping process
+     */
+    @Override
+    public void registerNewJobs(List<Class<? extends Job>> jobClasses)
+    {
+        try
+        {
+            Set<JobKey> existingJobKeys = this.scheduler.getJobKeys(GroupMatcher.anyJobGroup());
+            Map<JobDetail, Set<? extends Trigger>> newJobs = new LinkedHashMap<JobDetail, Set<? extends Trigger>>();
+            List<Class<? extends Job>> newJobClasses = new ArrayList<Class<? extends Job>>();
 
-                    this.scheduler.scheduleJob(jobDetail, trigger);
-                    return;
-                }
+            for (Class<? extends Job> jobClass : jobClasses)
+            {
+                JobKey jobKey = createJobKey(jobClass);
+                Scheduled scheduled = jobClass.getAnnotation(Scheduled.class);
 
-                if (existingTriggers.size() > 1)
+                if (!existingJobKeys.contains(jobKey))
                 {
-                    throw new IllegalStateException("multiple triggers found for " + jobKey + " ('" + jobDetail + "')" +
-                        ", but aren't supported by @" + Scheduled.class.getName() + "#overrideOnStartup");
+                    newJobs.put(createJobDetail(jobClass, jobKey, scheduled),
+                        Collections.singleton(createTrigger(scheduled)));
+                    newJobClasses.add(jobClass);
+                }
+                else if (scheduled.overrideOnStartup())
+                {
+                    overrideTrigger(jobKey, scheduled);
+                }
+                else
+                {
+                    LOG.info(jobKey + " exists already and will be ignored.");
                 }
-
-                trigger = existingTriggers.iterator().next();
-
-                trigger = TriggerBuilder.newTrigger()
-                        .withIdentity(trigger.getKey())
-                        .withSchedule(CronScheduleBuilder.cronSchedule(scheduled.cronExpression()))
-                        .build();
-
-                this.scheduler.rescheduleJob(trigger.getKey(), trigger);
             }
-            else
+
+            if (!newJobs.isEmpty())
             {
-                Logger.getLogger(QuartzScheduler.class.getName()).info(jobKey + " exists already and will be ignored.");
+                scheduleNewJobs(newJobs, newJobClasses);
             }
         }
         catch (SchedulerException e)
@@ -247,6 +274,83 @@ public class QuartzScheduler implements Scheduler<Job>
         }
     }
 
+    private void scheduleNewJobs(Map<JobDetail, Set<? extends Trigger>> newJobs,
+                                 List<Class<? extends Job>> newJobClasses) throws SchedulerException
+    {
+        try
+        {
+            this.scheduler.scheduleJobs(newJobs, false);
+        }
+        catch (ObjectAlreadyExistsException e)
+        {
+            //the job-stores store either all or none of the jobs
+            LOG.log(Level.FINE, "jobs were stored concurrently, falling back to registering them one by one", e);
+
+            for (Class<? extends Job> jobClass : newJobClasses)
+            {
+                registerNewJob(jobClass);
+            }
+        }
+    }
+
+    private void overrideTrigger(JobKey jobKey, Scheduled scheduled) throws SchedulerException
+    {
+        List<? extends Trigger> existingTriggers = this.scheduler.getTriggersOfJob(jobKey);
+
+        if (existingTriggers == null || existingTriggers.isEmpty())
+        {
+            this.scheduler.scheduleJob(TriggerBuilder.newTrigger()
+                    .forJob(jobKey)
+                    .withSchedule(CronScheduleBuilder.cronSchedule(scheduled.cronExpression()))
+                    .build());
+            return;
+        }
+
+        if (existingTriggers.size() > 1)
+        {
+            throw new IllegalStateException("multiple triggers found for " + jobKey +
+                ", but aren't supported by @" + Scheduled.class.getName() + "#overrideOnStartup");
+        }
+
+        Trigger trigger = existingTriggers.iterator().next();
+
+        if (trigger instanceof CronTrigger &&
+                scheduled.cronExpression().equals(((CronTrigger) trigger).getCronExpression()))
+        {
+            //unchanged
+            return;
+        }
+
+        trigger = TriggerBuilder.newTrigger()
+                .withIdentity(trigger.getKey())
+                .withSchedule(CronScheduleBuilder.cronSchedule(scheduled.cronExpression()))
+                .build();
+
+        this.scheduler.rescheduleJob(trigger.getKey(), trigger);
+    }
+
+    private static JobDetail createJobDetail(Class<? extends Job> jobClass, JobKey jobKey, Scheduled scheduled)
+    {
+        String description = scheduled.description();
+
+        if ("".equals(scheduled.description()))
+        {
+            description = jobClass.getName();
+        }
+
+        return JobBuilder.newJob(jobClass)
+                .withDescription(description)
+                .withIdentity(jobKey)
+                .build();
+    }
+
+    private static Trigger createTrigger(Scheduled scheduled)
+    {
+        return TriggerBuilder.newTrigger()
+                .withSchedule(CronScheduleBuilder.cronSchedule(scheduled.cronExpression()))
+                .build();
+    }
+
     @Override
     public void startJobManually(Class<? extends Job> jobClass)
     {
@@ -37,11 +37,13 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class SchedulerExtension implements Extension, Deactivatable
 {
     public static final String JOB_CLASS_CONFIG_KEY = "deltaspike.scheduler.job-class";
+    public static final String REGISTER_JOBS_IN_BACKGROUND_KEY = "deltaspike.scheduler.register_jobs_in_background";
     private static final Logger LOG = Logger.getLogger(SchedulerExtension.class.getName());
 
     private Boolean isActivated = true;
@@ -52,6 +54,8 @@ public class SchedulerExtension implements Extension, Deactivatable
 
     private Class jobClass;
 
+    private Thread jobRegistrationThread;
+
     protected void init(@Observes BeforeBeanDiscovery beforeBeanDiscovery)
     {
         this.isActivated = ClassDeactivationUtils.isActivated(getClass());
@@ -123,7 +127,53 @@ public class SchedulerExtension implements Extension, Deactivatable
             }
 
             foundJobNames.add(jobClass.getSimpleName());
-            this.scheduler.registerNewJob(jobClass);
+        }
+
+        if (this.foundManagedJobClasses.isEmpty())
+        {
+            return;
+        }
+
+        final Scheduler currentScheduler = this.scheduler;
+        final List<Class> jobClasses = new ArrayList<Class>(this.foundManagedJobClasses);
+
+        if (!Boolean.parseBoolean(ConfigResolver.getPropertyValue(REGISTER_JOBS_IN_BACKGROUND_KEY, "false")))
+        {
+            registerJobs(currentScheduler, jobClasses);
+            return;
+        }
+
+        //the new thread inherits the context-classloader of the current thread
+        this.jobRegistrationThread = new Thread(SchedulerExtension.class.getSimpleName() + "-job-registration")
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    registerJobs(currentScheduler, jobClasses);
+                }
+                catch (RuntimeException e)
+                {
+                    LOG.log(Level.SEVERE, "failed to register the scheduled jobs", e);
+                }
+            }
+        };
+        this.jobRegistrationThread.setDaemon(true);
+        this.jobRegistrationThread.start();
+    }
+
+    private static void registerJobs(Scheduler scheduler, List<Class> jobClasses)
+    {
+        if (scheduler instanceof BatchJobRegistration)
+        {
+            ((BatchJobRegistration) scheduler).registerNewJobs(jobClasses);
+            return;
+        }
+
+        for (Class jobClass : jobClasses)
+        {
+            scheduler.registerNewJob(jobClass);
         }
     }
 
@@ -134,6 +184,19 @@ public class SchedulerExtension implements Extension, Deactivatable
             return;
         }
 
+        if (this.jobRegistrationThread != null)
+        {
+            try
+            {
+                this.jobRegistrationThread.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            this.jobRegistrationThread = null;
+        }
+
         if (this.scheduler != null)
         {
             this.scheduler.stop();
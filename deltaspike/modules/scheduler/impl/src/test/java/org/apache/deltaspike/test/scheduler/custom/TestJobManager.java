@@ -33,6 +33,7 @@ public class TestJobManager
 
     private List<Class<? extends CustomJob>> registeredJobs = new ArrayList<Class<? extends CustomJob>>();
     private List<Class<? extends CustomJob>> runningJobs = new ArrayList<Class<? extends CustomJob>>();
+    private List<String> registeringThreadNames = new ArrayList<String>();
 
     public static TestJobManager getInstance()
     {
@@ -80,6 +81,7 @@ public class TestJobManager
     {
         this.registeredJobs.add(jobClass);
         this.runningJobs.add(jobClass);
+        this.registeringThreadNames.add(Thread.currentThread().getName());
     }
 
     public void startJobManually(Class<? extends CustomJob> jobClass)
@@ -101,4 +103,9 @@ public class TestJobManager
     {
         return runningJobs;
     }
+
+    public List<String> getRegisteringThreadNames()
+    {
+        return registeringThreadNames;
+    }
 }
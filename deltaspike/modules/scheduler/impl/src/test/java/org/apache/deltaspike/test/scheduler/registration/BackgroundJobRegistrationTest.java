@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.scheduler.registration;
+
+import org.apache.deltaspike.scheduler.api.Scheduled;
+import org.apache.deltaspike.scheduler.impl.SchedulerExtension;
+import org.apache.deltaspike.test.scheduler.custom.AutoRegisteredJob;
+import org.apache.deltaspike.test.scheduler.custom.TestJobManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.enterprise.inject.spi.AfterBeanDiscovery;
+import javax.enterprise.inject.spi.AnnotatedType;
+import javax.enterprise.inject.spi.ProcessAnnotatedType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Tests the registration of the jobs in a background thread via
+ * {@link SchedulerExtension#REGISTER_JOBS_IN_BACKGROUND_KEY} (with the MockedScheduler configured for the tests).
+ */
+public class BackgroundJobRegistrationTest
+{
+    @Before
+    public void enableBackgroundRegistration()
+    {
+        System.setProperty(SchedulerExtension.REGISTER_JOBS_IN_BACKGROUND_KEY, "true");
+
+        //starts with a new instance
+        TestJobManager.getInstance().stop();
+    }
+
+    @After
+    public void resetBackgroundRegistration()
+    {
+        System.clearProperty(SchedulerExtension.REGISTER_JOBS_IN_BACKGROUND_KEY);
+    }
+
+    @Test
+    public void registerJobsInBackground()
+    {
+        TestSchedulerExtension schedulerExtension = new TestSchedulerExtension();
+        schedulerExtension.bootstrap(AutoRegisteredJob.class);
+
+        //the MockedScheduler replaces the instance once it gets stopped
+        TestJobManager testJobManager = TestJobManager.getInstance();
+
+        //waits for the registration
+        schedulerExtension.stopScheduler(null);
+
+        Assert.assertEquals(1, testJobManager.getRegisteredJobs().size());
+        Assert.assertEquals(AutoRegisteredJob.class, testJobManager.getRegisteredJobs().iterator().next());
+        Assert.assertEquals(1, testJobManager.getRegisteringThreadNames().size());
+        Assert.assertFalse(Thread.currentThread().getName().equals(
+                testJobManager.getRegisteringThreadNames().iterator().next()));
+    }
+
+    private static class TestSchedulerExtension extends SchedulerExtension
+    {
+        private void bootstrap(Class<?> jobClass)
+        {
+            init(null);
+            findScheduledJobs(createProcessAnnotatedType(jobClass), null);
+            scheduleJobs(createAfterBeanDiscovery(), null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X> ProcessAnnotatedType<X> createProcessAnnotatedType(final Class<X> jobClass)
+    {
+        final AnnotatedType<X> annotatedType = createProxy(AnnotatedType.class, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                if ("getJavaClass".equals(method.getName()))
+                {
+                    return jobClass;
+                }
+                if ("getAnnotation".equals(method.getName()))
+                {
+                    return jobClass.getAnnotation((Class<Scheduled>) args[0]);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+
+        return createProxy(ProcessAnnotatedType.class, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                if ("getAnnotatedType".equals(method.getName()))
+                {
+                    return annotatedType;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private static AfterBeanDiscovery createAfterBeanDiscovery()
+    {
+        return createProxy(AfterBeanDiscovery.class, new InvocationHandler()
+        {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+            {
+                if ("addDefinitionError".equals(method.getName()))
+                {
+                    throw new AssertionError(args[0]);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T createProxy(Class<?> type, InvocationHandler invocationHandler)
+    {
+        return (T) Proxy.newProxyInstance(
+                BackgroundJobRegistrationTest.class.getClassLoader(), new Class[] { type }, invocationHandler);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.test.scheduler.registration;
+
+import org.apache.deltaspike.scheduler.api.Scheduled;
+import org.apache.deltaspike.scheduler.impl.QuartzScheduler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.simpl.RAMJobStore;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Tests the registration of all jobs found during the bootstrapping process via
+ * {@link QuartzScheduler#registerNewJobs(List)} with a (not started) in-memory Quartz scheduler.
+ */
+@SuppressWarnings("unchecked")
+public class QuartzJobRegistrationTest
+{
+    private static final String CRON_EXPRESSION = "*/10 * * * * ?";
+
+    private Scheduler quartzScheduler;
+
+    @Before
+    public void init() throws SchedulerException
+    {
+        Properties properties = new Properties();
+        properties.put(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, getClass().getSimpleName());
+        properties.put(StdSchedulerFactory.PROP_SCHED_SKIP_UPDATE_CHECK, "true");
+        properties.put(StdSchedulerFactory.PROP_JOB_STORE_CLASS, RAMJobStore.class.getName());
+        properties.put(StdSchedulerFactory.PROP_THREAD_POOL_PREFIX + ".threadCount", "1");
+
+        this.quartzScheduler = new StdSchedulerFactory(properties).getScheduler();
+    }
+
+    @After
+    public void shutdown() throws SchedulerException
+    {
+        this.quartzScheduler.shutdown(false);
+    }
+
+    @Test
+    public void newJobs() throws SchedulerException
+    {
+        new TestQuartzScheduler(this.quartzScheduler).registerNewJobs(
+                Arrays.<Class<? extends Job>>asList(NewJob.class, OtherNewJob.class));
+
+        Assert.assertEquals(CRON_EXPRESSION, getCronTrigger(NewJob.class).getCronExpression());
+        Assert.assertEquals("*/20 * * * * ?", getCronTrigger(OtherNewJob.class).getCronExpression());
+        Assert.assertEquals(OtherNewJob.class.getName(),
+                this.quartzScheduler.getJobDetail(new JobKey(OtherNewJob.class.getSimpleName())).getDescription());
+    }
+
+    @Test
+    public void existingJobWithUnchangedCronExpression() throws SchedulerException
+    {
+        storeJob(OverriddenJob.class, CRON_EXPRESSION);
+
+        new TestQuartzScheduler(this.quartzScheduler).registerNewJobs(
+                Arrays.<Class<? extends Job>>asList(OverriddenJob.class));
+
+        //a rescheduled trigger wouldn't have the description
+        Assert.assertEquals("stored before", getCronTrigger(OverriddenJob.class).getDescription());
+    }
+
+    @Test
+    public void existingJobWithChangedCronExpression() throws SchedulerException
+    {
+        TriggerKey triggerKey = storeJob(OverriddenJob.class, "0 0 12 * * ?");
+
+        new TestQuartzScheduler(this.quartzScheduler).registerNewJobs(
+                Arrays.<Class<? extends Job>>asList(OverriddenJob.class));
+
+        CronTrigger trigger = getCronTrigger(OverriddenJob.class);
+        Assert.assertEquals(CRON_EXPRESSION, trigger.getCronExpression());
+        Assert.assertEquals(triggerKey, trigger.getKey());
+    }
+
+    @Test
+    public void existingJobWithoutTrigger() throws SchedulerException
+    {
+        storeJob(OverriddenJob.class, null);
+
+        new TestQuartzScheduler(this.quartzScheduler).registerNewJobs(
+                Arrays.<Class<? extends Job>>asList(OverriddenJob.class));
+
+        Assert.assertEquals(CRON_EXPRESSION, getCronTrigger(OverriddenJob.class).getCronExpression());
+    }
+
+    @Test
+    public void newJobStoredConcurrently() throws SchedulerException
+    {
+        //simulates another node of the cluster which stores the job after the existing jobs were read
+        Scheduler concurrentlyStoringScheduler = (Scheduler) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[] { Scheduler.class }, new InvocationHandler()
+                {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+                    {
+                        Object result = invokeQuartzScheduler(method, args);
+                        if ("getJobKeys".equals(method.getName()))
+                        {
+                            storeJob(NewJob.class, "0 0 12 * * ?");
+                        }
+                        return result;
+                    }
+                });
+
+        new TestQuartzScheduler(concurrentlyStoringScheduler).registerNewJobs(
+                Arrays.<Class<? extends Job>>asList(NewJob.class, OtherNewJob.class));
+
+        Assert.assertEquals("0 0 12 * * ?", getCronTrigger(NewJob.class).getCronExpression());
+        Assert.assertEquals("*/20 * * * * ?", getCronTrigger(OtherNewJob.class).getCronExpression());
+        Assert.assertEquals(2, this.quartzScheduler.getJobKeys(GroupMatcher.anyJobGroup()).size());
+    }
+
+    private Object invokeQuartzScheduler(Method method, Object[] args) throws Throwable
+    {
+        try
+        {
+            return method.invoke(this.quartzScheduler, args);
+        }
+        catch (InvocationTargetException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    private TriggerKey storeJob(Class<? extends Job> jobClass, String cronExpression) throws SchedulerException
+    {
+        JobDetail jobDetail = JobBuilder.newJob(jobClass)
+                .withIdentity(jobClass.getSimpleName())
+                .storeDurably()
+                .build();
+
+        if (cronExpression == null)
+        {
+            this.quartzScheduler.addJob(jobDetail, false);
+            return null;
+        }
+
+        Trigger trigger = TriggerBuilder.newTrigger()
+                .withDescription("stored before")
+                .withSchedule(CronScheduleBuilder.cronSchedule(cronExpression))
+                .build();
+        this.quartzScheduler.scheduleJob(jobDetail, trigger);
+        return trigger.getKey();
+    }
+
+    private CronTrigger getCronTrigger(Class<? extends Job> jobClass) throws SchedulerException
+    {
+        List<? extends Trigger> triggers = this.quartzScheduler.getTriggersOfJob(new JobKey(jobClass.getSimpleName()));
+
+        Assert.assertEquals(1, triggers.size());
+        return (CronTrigger) triggers.get(0);
+    }
+
+    private static class TestQuartzScheduler extends QuartzScheduler
+    {
+        private TestQuartzScheduler(Scheduler scheduler)
+        {
+            this.scheduler = scheduler;
+        }
+    }
+
+    @Scheduled(cronExpression = CRON_EXPRESSION)
+    public static class NewJob implements Job
+    {
+        @Override
+        public void execute(JobExecutionContext context)
+        {
+        }
+    }
+
+    @Scheduled(cronExpression = "*/20 * * * * ?")
+    public static class OtherNewJob implements Job
+    {
+        @Override
+        public void execute(JobExecutionContext context)
+        {
+        }
+    }
+
+    @Scheduled(cronExpression = CRON_EXPRESSION, overrideOnStartup = true)
+    public static class OverriddenJob implements Job
+    {
+        @Override
+        public void execute(JobExecutionContext context)
+        {
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.security.api.authorization;
+
+/**
+ * {@link AccessDecisionVoter} which allows to re-use its decisions.<p/>
+ * The result of {@link #checkPermission(AccessDecisionVoterContext)} gets cached per voter, secured method and
+ * the key returned by {@link #getDecisionCacheKey(AccessDecisionVoterContext)}. By default a decision is cached
+ * for the current request. If <code>deltaspike.security.access_decision_cache_ttl</code> is configured
+ * (in seconds), decisions are shared across requests until the time-to-live expires - in this case the key has
+ * to identify everything the decision depends on (e.g. the current user and the relevant parameter values).
+ */
+public interface CacheableAccessDecisionVoter extends AccessDecisionVoter
+{
+    /**
+     * Provides the key for caching the decision for the given {@link AccessDecisionVoterContext}.
+     * The key has to implement {@link Object#equals(Object)} and {@link Object#hashCode()}.
+     *
+     * @param accessDecisionVoterContext current access-decision-voter-context
+     * @return key which identifies the decision or null if the decision mustn't be cached
+     */
+    Object getDecisionCacheKey(AccessDecisionVoterContext accessDecisionVoterContext);
+}
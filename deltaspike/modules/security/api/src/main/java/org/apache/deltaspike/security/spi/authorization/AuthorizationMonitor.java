@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.security.spi.authorization;
+
+import org.apache.deltaspike.security.api.authorization.AccessDecisionVoter;
+
+import java.lang.reflect.Method;
+
+/**
+ * Receives the timing and the outcome of security checks performed by the default {@link SecurityStrategy}.
+ * Callbacks are invoked synchronously in the calling thread and have to be cheap.<p/>
+ * The default implementation aggregates the values per secured method and exposes them via JMX.
+ * A custom implementation can be provided via an alternative or by specializing the default implementation.
+ */
+public interface AuthorizationMonitor
+{
+    /**
+     * Allows to skip the measurement completely
+     * @return true if the callbacks should be invoked
+     */
+    boolean isEnabled();
+
+    /**
+     * Called after an authorizer (a method annotated with
+     * {@link org.apache.deltaspike.security.api.authorization.Secures}) was invoked
+     * @param securedMethod the intercepted method
+     * @param authorizerMethod the authorizer method
+     * @param phase before or after the invocation of the secured method
+     * @param outcome outcome of the authorizer
+     * @param durationNanos time spent in the authorizer
+     */
+    void authorizerInvoked(Method securedMethod, Method authorizerMethod, AuthorizationPhase phase,
+                           AuthorizationOutcome outcome, long durationNanos);
+
+    /**
+     * Called after an {@link AccessDecisionVoter} of
+     * {@link org.apache.deltaspike.security.api.authorization.Secured} was invoked
+     * (or its cached decision was used)
+     * @param securedMethod the intercepted method
+     * @param voterClass class of the voter
+     * @param outcome {@link AuthorizationOutcome#DENIED} if the voter found a violation
+     * @param durationNanos time spent in the voter
+     */
+    void voterInvoked(Method securedMethod, Class<? extends AccessDecisionVoter> voterClass,
+                      AuthorizationOutcome outcome, long durationNanos);
+
+    /**
+     * Called after a secured method was invoked and all authorizers granted access
+     * @param securedMethod the intercepted method
+     * @param authorizationNanos time spent in all authorizers before and after the invocation
+     * @param invocationNanos time spent in the secured method
+     */
+    void securedMethodInvoked(Method securedMethod, long authorizationNanos, long invocationNanos);
+}
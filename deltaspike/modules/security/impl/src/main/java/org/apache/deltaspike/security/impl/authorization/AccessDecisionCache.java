@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.security.impl.authorization;
+
+import org.apache.deltaspike.core.api.config.ConfigResolver;
+import org.apache.deltaspike.core.api.jmx.JmxManaged;
+import org.apache.deltaspike.core.api.jmx.MBean;
+import org.apache.deltaspike.security.api.authorization.AccessDecisionVoter;
+import org.apache.deltaspike.security.api.authorization.SecurityViolation;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.ContextNotActiveException;
+import javax.inject.Inject;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache for the decisions of {@link org.apache.deltaspike.security.api.authorization.CacheableAccessDecisionVoter}s.
+ *
+ * <p>
+ * Without a configured time-to-live decisions are stored in the {@link RequestAccessDecisionStore} and
+ * aren't cached outside of a request. With <code>deltaspike.security.access_decision_cache_ttl</code>
+ * (in seconds) they are stored in a bounded LRU cache shared by all requests.</p>
+ */
+@ApplicationScoped
+@MBean(description = "DeltaSpike Security access-decision cache")
+public class AccessDecisionCache
+{
+    public static final String TIME_TO_LIVE_CONFIG_KEY = "deltaspike.security.access_decision_cache_ttl";
+
+    private static final int MAX_SHARED_ENTRIES = 10000;
+
+    @Inject
+    private RequestAccessDecisionStore requestAccessDecisionStore;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private long timeToLiveMillis;
+
+    private Map<DecisionKey, SharedDecision> sharedDecisions;
+
+    @PostConstruct
+    protected void init()
+    {
+        long timeToLive = ConfigResolver.resolve(TIME_TO_LIVE_CONFIG_KEY).as(Long.class).withDefault(0L).getValue();
+        this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(timeToLive);
+
+        if (this.timeToLiveMillis > 0)
+        {
+            this.sharedDecisions = Collections.synchronizedMap(
+                new LinkedHashMap<DecisionKey, SharedDecision>(16, 0.75f, true)
+                {
+                    private static final long serialVersionUID = -2446421427413542960L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<DecisionKey, SharedDecision> eldest)
+                    {
+                        return size() > MAX_SHARED_ENTRIES;
+                    }
+                });
+        }
+    }
+
+    /**
+     * @return the cached violations (an empty set if access was granted)
+     *         or null if there is no cached decision for the given voter, method and cache-key
+     */
+    Set<SecurityViolation> getDecision(Class<? extends AccessDecisionVoter> voterClass,
+                                       Method method,
+                                       Object decisionCacheKey)
+    {
+        DecisionKey key = new DecisionKey(voterClass, method, decisionCacheKey);
+        Set<SecurityViolation> result;
+
+        if (this.sharedDecisions != null)
+        {
+            result = getSharedDecision(key);
+        }
+        else
+        {
+            try
+            {
+                result = this.requestAccessDecisionStore.get(key);
+            }
+            catch (ContextNotActiveException e)
+            {
+                //no request -> no cache
+                return null;
+            }
+        }
+
+        if (result == null)
+        {
+            this.misses.incrementAndGet();
+        }
+        else
+        {
+            this.hits.incrementAndGet();
+        }
+        return result;
+    }
+
+    void storeDecision(Class<? extends AccessDecisionVoter> voterClass,
+                       Method method,
+                       Object decisionCacheKey,
+                       Set<SecurityViolation> violations)
+    {
+        DecisionKey key = new DecisionKey(voterClass, method, decisionCacheKey);
+        Set<SecurityViolation> decision;
+
+        if (violations == null || violations.isEmpty())
+        {
+            decision = Collections.emptySet();
+        }
+        else
+        {
+            decision = Collections.unmodifiableSet(new HashSet<SecurityViolation>(violations));
+        }
+
+        if (this.sharedDecisions != null)
+        {
+            this.sharedDecisions.put(key,
+                new SharedDecision(decision, System.currentTimeMillis() + this.timeToLiveMillis));
+        }
+        else
+        {
+            try
+            {
+                this.requestAccessDecisionStore.put(key, decision);
+            }
+            catch (ContextNotActiveException e)
+            {
+                //no request -> no cache
+            }
+        }
+    }
+
+    private Set<SecurityViolation> getSharedDecision(DecisionKey key)
+    {
+        SharedDecision sharedDecision = this.sharedDecisions.get(key);
+
+        if (sharedDecision == null)
+        {
+            return null;
+        }
+        if (sharedDecision.expiresAt < System.currentTimeMillis())
+        {
+            this.sharedDecisions.remove(key);
+            return null;
+        }
+        return sharedDecision.violations;
+    }
+
+    @JmxManaged(description = "number of decisions served from the cache")
+    public long getHitCount()
+    {
+        return this.hits.get();
+    }
+
+    @JmxManaged(description = "number of decisions which had to be evaluated by the voter")
+    public long getMissCount()
+    {
+        return this.misses.get();
+    }
+
+    @JmxManaged(description = "hits / (hits + misses)")
+    public double getHitRatio()
+    {
+        long currentHits = this.hits.get();
+        long total = currentHits + this.misses.get();
+        return total == 0 ? 0 : (double) currentHits / total;
+    }
+
+    @JmxManaged(description = "time-to-live of shared decisions in seconds (0 = cached per request)")
+    public long getTimeToLive()
+    {
+        return TimeUnit.MILLISECONDS.toSeconds(this.timeToLiveMillis);
+    }
+
+    @JmxManaged(description = "removes all decisions shared across requests and resets the statistics")
+    public void clear()
+    {
+        if (this.sharedDecisions != null)
+        {
+            this.sharedDecisions.clear();
+        }
+        this.hits.set(0);
+        this.misses.set(0);
+    }
+
+    private static final class SharedDecision
+    {
+        private final Set<SecurityViolation> violations;
+        private final long expiresAt;
+
+        private SharedDecision(Set<SecurityViolation> violations, long expiresAt)
+        {
+            this.violations = violations;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class DecisionKey
+    {
+        private final Class<? extends AccessDecisionVoter> voterClass;
+        private final Method method;
+        private final Object decisionCacheKey;
+        private final int hashCode;
+
+        private DecisionKey(Class<? extends AccessDecisionVoter> voterClass, Method method, Object decisionCacheKey)
+        {
+            this.voterClass = voterClass;
+            this.method = method;
+            this.decisionCacheKey = decisionCacheKey;
+            this.hashCode = 31 * (31 * voterClass.hashCode() + method.hashCode()) + decisionCacheKey.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof DecisionKey))
+            {
+                return false;
+            }
+
+            DecisionKey other = (DecisionKey) o;
+            return this.hashCode == other.hashCode &&
+                    this.voterClass.equals(other.voterClass) &&
+                    this.method.equals(other.method) &&
+                    this.decisionCacheKey.equals(other.decisionCacheKey);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hashCode;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.security.impl.authorization;
+
+import org.apache.deltaspike.security.api.authorization.SecurityViolation;
+
+import javax.enterprise.context.RequestScoped;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decisions of {@link org.apache.deltaspike.security.api.authorization.CacheableAccessDecisionVoter}s
+ * cached for the current request
+ */
+@RequestScoped
+public class RequestAccessDecisionStore
+{
+    private final Map<Object, Set<SecurityViolation>> decisions = new HashMap<Object, Set<SecurityViolation>>();
+
+    Set<SecurityViolation> get(Object decisionKey)
+    {
+        return this.decisions.get(decisionKey);
+    }
+
+    void put(Object decisionKey, Set<SecurityViolation> violations)
+    {
+        this.decisions.put(decisionKey, violations);
+    }
+}
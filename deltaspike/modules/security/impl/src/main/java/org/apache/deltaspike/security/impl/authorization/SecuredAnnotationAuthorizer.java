@@ -18,15 +18,16 @@
  */
 package org.apache.deltaspike.security.impl.authorization;
 
-import org.apache.deltaspike.core.api.provider.BeanProvider;
 import org.apache.deltaspike.security.api.authorization.AccessDecisionState;
 import org.apache.deltaspike.security.api.authorization.AccessDecisionVoter;
 import org.apache.deltaspike.security.api.authorization.AccessDecisionVoterContext;
 import org.apache.deltaspike.security.api.authorization.AccessDeniedException;
+import org.apache.deltaspike.security.api.authorization.CacheableAccessDecisionVoter;
 import org.apache.deltaspike.security.api.authorization.Secured;
 import org.apache.deltaspike.security.api.authorization.Secures;
 import org.apache.deltaspike.security.api.authorization.SecurityViolation;
-import org.apache.deltaspike.security.impl.util.SecurityUtils;
+import org.apache.deltaspike.security.spi.authorization.AuthorizationMonitor;
+import org.apache.deltaspike.security.spi.authorization.AuthorizationOutcome;
 import org.apache.deltaspike.security.spi.authorization.EditableAccessDecisionVoterContext;
 
 import javax.enterprise.context.Dependent;
@@ -34,9 +35,6 @@ import javax.inject.Inject;
 import javax.interceptor.InvocationContext;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -52,47 +50,39 @@ public class SecuredAnnotationAuthorizer
     @Inject
     private AccessDeniedExceptionBroadcaster exceptionBroadcaster;
 
+    @Inject
+    private SecuredMetaDataStorage securedMetaDataStorage;
+
+    @Inject
+    private AccessDecisionCache accessDecisionCache;
+
+    @Inject
+    private AuthorizationMonitor authorizationMonitor;
+
     @Secures
     @Secured({ })
     @SuppressWarnings("UnusedDeclaration")
     public boolean doSecuredCheck(InvocationContext invocationContext) throws Exception
     {
-        List<Class<? extends AccessDecisionVoter>> voterClasses = new ArrayList<Class<? extends AccessDecisionVoter>>();
-
-        List<Annotation> annotatedTypeMetadata = extractMetadata(invocationContext);
+        SecuredMetaDataStorage.SecuredMetaData securedMetaData =
+                this.securedMetaDataStorage.getSecuredMetaData(invocationContext.getMethod());
 
-        for (Annotation annotation : annotatedTypeMetadata)
+        if (voterContext instanceof EditableAccessDecisionVoterContext)
         {
-            if (Secured.class.isAssignableFrom(annotation.annotationType()))
-            {
-                voterClasses.addAll(Arrays.asList(((Secured) annotation).value()));
-            }
-            else if (voterContext instanceof EditableAccessDecisionVoterContext)
+            for (Annotation annotation : securedMetaData.getMetaData())
             {
                 ((EditableAccessDecisionVoterContext) voterContext)
                         .addMetaData(annotation.annotationType().getName(), annotation);
             }
         }
 
-        invokeVoters(invocationContext, voterClasses);
+        invokeVoters(invocationContext, securedMetaData.getVoterClasses());
 
         //needed by @SecurityBindingType
         //X TODO check the use-cases for it
         return true;
     }
 
-    private List<Annotation> extractMetadata(InvocationContext invocationContext)
-    {
-        List<Annotation> result = new ArrayList<Annotation>();
-
-        Method method = invocationContext.getMethod();
-
-        result.addAll(SecurityUtils.getAllAnnotations(method.getAnnotations()));
-        result.addAll(SecurityUtils.getAllAnnotations(method.getDeclaringClass().getAnnotations()));
-
-        return result;
-    }
-
     /**
      * Helper for invoking the given {@link AccessDecisionVoter}s
      *
@@ -100,9 +90,9 @@ public class SecuredAnnotationAuthorizer
      * @param accessDecisionVoters current access-decision-voters
      */
     private void invokeVoters(InvocationContext invocationContext,
-                              List<Class<? extends AccessDecisionVoter>> accessDecisionVoters)
+                              Class<? extends AccessDecisionVoter>[] accessDecisionVoters)
     {
-        if (accessDecisionVoters.isEmpty())
+        if (accessDecisionVoters.length == 0)
         {
             return;
         }
@@ -118,12 +108,24 @@ public class SecuredAnnotationAuthorizer
 
             Set<SecurityViolation> violations;
 
+            boolean monitored = invocationContext != null && this.authorizationMonitor.isEnabled();
+            long start;
+
             AccessDecisionVoter voter;
             for (Class<? extends AccessDecisionVoter> voterClass : accessDecisionVoters)
             {
-                voter = BeanProvider.getContextualReference(voterClass, false);
+                voter = this.securedMetaDataStorage.getVoter(voterClass);
 
-                violations = voter.checkPermission(voterContext);
+                start = monitored ? System.nanoTime() : 0;
+                violations = checkPermission(invocationContext, voterClass, voter);
+
+                if (monitored)
+                {
+                    boolean violationFound = violations != null && violations.size() > 0;
+                    this.authorizationMonitor.voterInvoked(invocationContext.getMethod(), voterClass,
+                        violationFound ? AuthorizationOutcome.DENIED : AuthorizationOutcome.GRANTED,
+                        System.nanoTime() - start);
+                }
 
                 if (violations != null && violations.size() > 0)
                 {
@@ -152,4 +154,39 @@ public class SecuredAnnotationAuthorizer
             }
         }
     }
+
+    /**
+     * Re-uses the cached decision of a {@link CacheableAccessDecisionVoter} or invokes the voter
+     *
+     * @param invocationContext current invocation-context
+     * @param voterClass        class of the current voter
+     * @param voter             current voter
+     * @return violations found by the voter
+     */
+    private Set<SecurityViolation> checkPermission(InvocationContext invocationContext,
+                                                   Class<? extends AccessDecisionVoter> voterClass,
+                                                   AccessDecisionVoter voter)
+    {
+        if (invocationContext == null || !CacheableAccessDecisionVoter.class.isAssignableFrom(voterClass))
+        {
+            return voter.checkPermission(voterContext);
+        }
+
+        Object decisionCacheKey = ((CacheableAccessDecisionVoter) voter).getDecisionCacheKey(voterContext);
+
+        if (decisionCacheKey == null)
+        {
+            return voter.checkPermission(voterContext);
+        }
+
+        Method method = invocationContext.getMethod();
+        Set<SecurityViolation> result = this.accessDecisionCache.getDecision(voterClass, method, decisionCacheKey);
+
+        if (result == null)
+        {
+            result = voter.checkPermission(voterContext);
+            this.accessDecisionCache.storeDecision(voterClass, method, decisionCacheKey, result);
+        }
+        return result;
+    }
 }
\ No newline at end of file
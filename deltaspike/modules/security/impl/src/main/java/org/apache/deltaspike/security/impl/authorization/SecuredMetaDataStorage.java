@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.security.impl.authorization;
+
+import org.apache.deltaspike.core.api.provider.BeanProvider;
+import org.apache.deltaspike.security.api.authorization.AccessDecisionVoter;
+import org.apache.deltaspike.security.api.authorization.Secured;
+import org.apache.deltaspike.security.impl.util.SecurityUtils;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.inject.Inject;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches the {@link AccessDecisionVoter}s and the custom meta-data of methods secured via {@link Secured},
+ * to avoid scanning the annotations of the method and its class for every invocation.
+ * Contextual references of normal-scoped voters are cached as well, since their client proxies can be reused.
+ * For all other voters the resolved bean is cached, so that only a new contextual reference has to be created.
+ */
+@ApplicationScoped
+public class SecuredMetaDataStorage
+{
+    private final ConcurrentMap<Method, SecuredMetaData> securedMetaData =
+            new ConcurrentHashMap<Method, SecuredMetaData>();
+
+    private final ConcurrentMap<Class<? extends AccessDecisionVoter>, VoterLookup> voterLookups =
+            new ConcurrentHashMap<Class<? extends AccessDecisionVoter>, VoterLookup>();
+
+    @Inject
+    private BeanManager beanManager;
+
+    SecuredMetaData getSecuredMetaData(Method method)
+    {
+        SecuredMetaData result = this.securedMetaData.get(method);
+
+        if (result == null)
+        {
+            result = createSecuredMetaData(method);
+
+            SecuredMetaData existingMetaData = this.securedMetaData.putIfAbsent(method, result);
+            if (existingMetaData != null)
+            {
+                result = existingMetaData;
+            }
+        }
+        return result;
+    }
+
+    AccessDecisionVoter getVoter(Class<? extends AccessDecisionVoter> voterClass)
+    {
+        VoterLookup voterLookup = this.voterLookups.get(voterClass);
+
+        if (voterLookup != null)
+        {
+            return voterLookup.getVoter();
+        }
+
+        // fails if there is no such voter
+        AccessDecisionVoter result = BeanProvider.getContextualReference(voterClass, false);
+
+        Bean<?> voterBean = this.beanManager.resolve(this.beanManager.getBeans(voterClass));
+        if (voterBean != null)
+        {
+            boolean normalScoped = this.beanManager.isNormalScope(voterBean.getScope());
+            this.voterLookups.putIfAbsent(voterClass,
+                    new VoterLookup(voterClass, voterBean, normalScoped ? result : null));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private SecuredMetaData createSecuredMetaData(Method method)
+    {
+        List<Annotation> annotations = new ArrayList<Annotation>();
+        annotations.addAll(SecurityUtils.getAllAnnotations(method.getAnnotations()));
+        annotations.addAll(SecurityUtils.getAllAnnotations(method.getDeclaringClass().getAnnotations()));
+
+        List<Class<? extends AccessDecisionVoter>> voterClasses = new ArrayList<Class<? extends AccessDecisionVoter>>();
+        List<Annotation> metaData = new ArrayList<Annotation>();
+
+        for (Annotation annotation : annotations)
+        {
+            if (Secured.class.isAssignableFrom(annotation.annotationType()))
+            {
+                voterClasses.addAll(Arrays.asList(((Secured) annotation).value()));
+            }
+            else
+            {
+                metaData.add(annotation);
+            }
+        }
+
+        return new SecuredMetaData(
+                voterClasses.toArray(new Class[voterClasses.size()]),
+                metaData.toArray(new Annotation[metaData.size()]));
+    }
+
+    /**
+     * Resolved bean of an {@link AccessDecisionVoter} and its contextual reference, if it is normal-scoped
+     */
+    private final class VoterLookup
+    {
+        private final Class<? extends AccessDecisionVoter> voterClass;
+        private final Bean<?> voterBean;
+        private final AccessDecisionVoter normalScopedVoter;
+
+        private VoterLookup(Class<? extends AccessDecisionVoter> voterClass,
+                            Bean<?> voterBean,
+                            AccessDecisionVoter normalScopedVoter)
+        {
+            this.voterClass = voterClass;
+            this.voterBean = voterBean;
+            this.normalScopedVoter = normalScopedVoter;
+        }
+
+        private AccessDecisionVoter getVoter()
+        {
+            if (this.normalScopedVoter != null)
+            {
+                return this.normalScopedVoter;
+            }
+            return (AccessDecisionVoter) beanManager.getReference(
+                    this.voterBean, this.voterClass, beanManager.createCreationalContext(this.voterBean));
+        }
+    }
+
+    /**
+     * Immutable {@link Secured} meta-data of a method
+     */
+    static final class SecuredMetaData
+    {
+        private final Class<? extends AccessDecisionVoter>[] voterClasses;
+        private final Annotation[] metaData;
+
+        private SecuredMetaData(Class<? extends AccessDecisionVoter>[] voterClasses, Annotation[] metaData)
+        {
+            this.voterClasses = voterClasses;
+            this.metaData = metaData;
+        }
+
+        Class<? extends AccessDecisionVoter>[] getVoterClasses()
+        {
+            return voterClasses;
+        }
+
+        Annotation[] getMetaData()
+        {
+            return metaData;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -33,16 +34,17 @@ import javax.enterprise.inject.spi.AnnotatedMethod;
 import javax.enterprise.inject.spi.AnnotatedParameter;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.InjectionPoint;
 import javax.enterprise.util.Nonbinding;
 import javax.interceptor.InvocationContext;
 
-import org.apache.deltaspike.core.util.metadata.builder.InjectableMethod;
+import org.apache.deltaspike.core.util.BeanUtils;
+import org.apache.deltaspike.core.util.ReflectionUtils;
 import org.apache.deltaspike.security.api.authorization.AccessDeniedException;
 import org.apache.deltaspike.security.api.authorization.SecurityBindingType;
 import org.apache.deltaspike.security.api.authorization.SecurityDefinitionException;
 import org.apache.deltaspike.security.api.authorization.SecurityViolation;
 import org.apache.deltaspike.security.api.authorization.SecuredReturn;
-import org.apache.deltaspike.security.impl.authorization.SecurityParameterValueRedefiner;
 import org.apache.deltaspike.security.impl.util.SecurityUtils;
 
 /**
@@ -59,7 +61,12 @@ class Authorizer
     private volatile AnnotatedMethod<?> boundAuthorizerMethod;
     private volatile Bean<?> boundAuthorizerBean;
 
-    private volatile InjectableMethod<?> boundAuthorizerMethodProxy;
+    // only set for normal-scoped authorizer beans, since the client proxy can be reused
+    private Object boundAuthorizerReference;
+    private boolean creationalContextRequired;
+
+    // set at the end of #lazyInitTargetBean
+    private volatile AuthorizerArgument[] boundAuthorizerArguments;
 
     Authorizer(Annotation bindingAnnotation, AnnotatedMethod<?> boundAuthorizerMethod)
     {
@@ -169,18 +176,44 @@ class Authorizer
     void authorize(final InvocationContext ic, final Object returnValue, BeanManager beanManager)
         throws IllegalAccessException, IllegalArgumentException
     {
-        if (boundAuthorizerBean == null)
+        AuthorizerArgument[] arguments = boundAuthorizerArguments;
+        if (arguments == null)
         {
-            lazyInitTargetBean(beanManager);
+            arguments = lazyInitTargetBean(beanManager);
         }
 
-        final CreationalContext<?> creationalContext = beanManager.createCreationalContext(boundAuthorizerBean);
+        // dependent instances get destroyed after the check
+        CreationalContext<?> creationalContext = null;
+        if (creationalContextRequired)
+        {
+            creationalContext = beanManager.createCreationalContext(boundAuthorizerBean);
+        }
 
-        Object reference = beanManager.getReference(boundAuthorizerBean,
-            boundAuthorizerMethod.getJavaMember().getDeclaringClass(), creationalContext);
+        Object result;
+        try
+        {
+            Object reference = boundAuthorizerReference;
+            if (reference == null)
+            {
+                reference = beanManager.getReference(boundAuthorizerBean,
+                    boundAuthorizerMethod.getJavaMember().getDeclaringClass(), creationalContext);
+            }
 
-        Object result = boundAuthorizerMethodProxy.invoke(reference, creationalContext,
-                new SecurityParameterValueRedefiner(creationalContext, ic, returnValue));
+            Object[] parameterValues = new Object[arguments.length];
+            for (int i = 0; i < arguments.length; i++)
+            {
+                parameterValues[i] = arguments[i].getValue(ic, returnValue, creationalContext);
+            }
+
+            result = invokeAuthorizerMethod(reference, parameterValues);
+        }
+        finally
+        {
+            if (creationalContext != null)
+            {
+                creationalContext.release();
+            }
+        }
 
         if (Boolean.FALSE.equals(result))
         {
@@ -200,10 +233,29 @@ class Authorizer
         }
     }
 
-    @SuppressWarnings({ "unchecked" })
-    private synchronized void lazyInitTargetBean(BeanManager beanManager)
+    private Object invokeAuthorizerMethod(Object reference, Object[] parameterValues) throws IllegalAccessException
     {
-        if (boundAuthorizerBean == null)
+        try
+        {
+            return ReflectionUtils.invokeMethod(
+                reference, boundAuthorizerMethod.getJavaMember(), Object.class, true, parameterValues);
+        }
+        catch (RuntimeException e)
+        {
+            //workaround for OWB which wraps InvocationTargetException the original exception
+            //see InjectableMethod#invoke
+            if (RuntimeException.class.getName().equals(e.getClass().getName()) &&
+                    e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private synchronized AuthorizerArgument[] lazyInitTargetBean(BeanManager beanManager)
+    {
+        if (boundAuthorizerArguments == null)
         {
             Method method = boundAuthorizerMethod.getJavaMember();
 
@@ -217,8 +269,30 @@ class Authorizer
                         method.getName() + "]");
             }
 
-            boundAuthorizerMethodProxy = new InjectableMethod(boundAuthorizerMethod, boundAuthorizerBean, beanManager);
+            creationalContextRequired = false;
+            if (beanManager.isNormalScope(boundAuthorizerBean.getScope()))
+            {
+                boundAuthorizerReference = beanManager.getReference(boundAuthorizerBean,
+                    method.getDeclaringClass(), beanManager.createCreationalContext(boundAuthorizerBean));
+            }
+            else
+            {
+                creationalContextRequired = true;
+            }
+
+            List<InjectionPoint> injectionPoints =
+                BeanUtils.createInjectionPoints(boundAuthorizerMethod, boundAuthorizerBean, beanManager);
+            AuthorizerArgument[] arguments = new AuthorizerArgument[injectionPoints.size()];
+            for (int i = 0; i < arguments.length; i++)
+            {
+                arguments[i] = AuthorizerArgument.create(injectionPoints.get(i), beanManager);
+                creationalContextRequired |= arguments[i].requiresCreationalContext();
+            }
+
+            // publishes the other fields as well
+            boundAuthorizerArguments = arguments;
         }
+        return boundAuthorizerArguments;
     }
 
     boolean matchesBindings(Annotation annotation, Set<AuthorizationParameter> parameterBindings, Class<?> returnType)
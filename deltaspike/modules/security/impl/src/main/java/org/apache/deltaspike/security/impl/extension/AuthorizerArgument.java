@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.security.impl.extension;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.interceptor.InvocationContext;
+
+import org.apache.deltaspike.security.api.authorization.SecuredReturn;
+import org.apache.deltaspike.security.api.authorization.SecurityParameterBinding;
+
+/**
+ * Provides the value of a parameter of an authorizer (&#064;Secures) method.
+ * The kind of value is resolved once per parameter instead of once per invocation.
+ */
+abstract class AuthorizerArgument
+{
+    /**
+     * @param invocationContext the invocation of the secured method
+     * @param returnValue the return value of the secured method, <code>null</code> before the invocation
+     * @param creationalContext used for dependent instances, <code>null</code> if none are needed
+     */
+    abstract Object getValue(InvocationContext invocationContext, Object returnValue,
+                             CreationalContext<?> creationalContext);
+
+    /**
+     * @return <code>true</code> if the value might be a dependent instance, which requires a creational context
+     */
+    boolean requiresCreationalContext()
+    {
+        return false;
+    }
+
+    static AuthorizerArgument create(InjectionPoint injectionPoint, BeanManager beanManager)
+    {
+        if (injectionPoint.getAnnotated().getBaseType().equals(InvocationContext.class))
+        {
+            return new InvocationContextArgument();
+        }
+        if (injectionPoint.getAnnotated().isAnnotationPresent(SecuredReturn.class))
+        {
+            return new SecuredReturnArgument();
+        }
+
+        Set<Annotation> requiredBindingAnnotations = new HashSet<Annotation>();
+        for (Annotation annotation : injectionPoint.getAnnotated().getAnnotations())
+        {
+            if (annotation.annotationType().isAnnotationPresent(SecurityParameterBinding.class))
+            {
+                requiredBindingAnnotations.add(annotation);
+            }
+        }
+        if (!requiredBindingAnnotations.isEmpty())
+        {
+            return new SecurityParameterBindingArgument(requiredBindingAnnotations);
+        }
+
+        Set<Bean<?>> beans = beanManager.getBeans(injectionPoint.getType(),
+            injectionPoint.getQualifiers().toArray(new Annotation[injectionPoint.getQualifiers().size()]));
+        Bean<?> bean = beanManager.resolve(beans);
+        if (bean != null && beanManager.isNormalScope(bean.getScope()))
+        {
+            // the client proxy stays valid, the contextual instance gets resolved for every call
+            return new ContextualReferenceArgument(beanManager.getInjectableReference(
+                injectionPoint, beanManager.createCreationalContext(bean)));
+        }
+        return new InjectableReferenceArgument(injectionPoint, beanManager);
+    }
+
+    private static class InvocationContextArgument extends AuthorizerArgument
+    {
+        @Override
+        Object getValue(InvocationContext invocationContext, Object returnValue,
+                        CreationalContext<?> creationalContext)
+        {
+            return invocationContext;
+        }
+    }
+
+    private static class SecuredReturnArgument extends AuthorizerArgument
+    {
+        @Override
+        Object getValue(InvocationContext invocationContext, Object returnValue,
+                        CreationalContext<?> creationalContext)
+        {
+            return returnValue;
+        }
+    }
+
+    private static class ContextualReferenceArgument extends AuthorizerArgument
+    {
+        private final Object contextualReference;
+
+        private ContextualReferenceArgument(Object contextualReference)
+        {
+            this.contextualReference = contextualReference;
+        }
+
+        @Override
+        Object getValue(InvocationContext invocationContext, Object returnValue,
+                        CreationalContext<?> creationalContext)
+        {
+            return contextualReference;
+        }
+    }
+
+    private static class InjectableReferenceArgument extends AuthorizerArgument
+    {
+        private final InjectionPoint injectionPoint;
+        private final BeanManager beanManager;
+
+        private InjectableReferenceArgument(InjectionPoint injectionPoint, BeanManager beanManager)
+        {
+            this.injectionPoint = injectionPoint;
+            this.beanManager = beanManager;
+        }
+
+        @Override
+        Object getValue(InvocationContext invocationContext, Object returnValue,
+                        CreationalContext<?> creationalContext)
+        {
+            return beanManager.getInjectableReference(injectionPoint, creationalContext);
+        }
+
+        @Override
+        boolean requiresCreationalContext()
+        {
+            return true;
+        }
+    }
+
+    /**
+     * Provides the parameter of the secured method which is annotated with the same
+     * {@link SecurityParameterBinding} annotation(s). The position of that parameter is cached per secured method.
+     */
+    private static class SecurityParameterBindingArgument extends AuthorizerArgument
+    {
+        private final Set<Annotation> requiredBindingAnnotations;
+
+        private final ConcurrentMap<Method, Integer> parameterPositions = new ConcurrentHashMap<Method, Integer>();
+
+        private SecurityParameterBindingArgument(Set<Annotation> requiredBindingAnnotations)
+        {
+            this.requiredBindingAnnotations = requiredBindingAnnotations;
+        }
+
+        @Override
+        Object getValue(InvocationContext invocationContext, Object returnValue,
+                        CreationalContext<?> creationalContext)
+        {
+            Method method = invocationContext.getMethod();
+            Integer position = parameterPositions.get(method);
+            if (position == null)
+            {
+                position = findParameterPosition(method);
+                parameterPositions.put(method, position);
+            }
+            return invocationContext.getParameters()[position];
+        }
+
+        private int findParameterPosition(Method method)
+        {
+            Annotation[][] businessMethodParameterAnnotations = method.getParameterAnnotations();
+            for (int i = 0; i < businessMethodParameterAnnotations.length; i++)
+            {
+                List<Annotation> businessParameterAnnotations = Arrays.asList(businessMethodParameterAnnotations[i]);
+                for (Annotation annotation : requiredBindingAnnotations)
+                {
+                    if (businessParameterAnnotations.contains(annotation))
+                    {
+                        return i;
+                    }
+                }
+            }
+
+            throw new IllegalStateException("Missing required security parameter binding "
+                        + requiredBindingAnnotations + " on method invocation ["
+                        + method.getDeclaringClass().getName() + "." + method.getName()
+                        + Arrays.asList(method.getParameterTypes()).toString().replaceFirst("\\[", "(")
+                                    .replaceFirst("\\]$", ")") + "]");
+        }
+    }
+}
@@ -22,6 +22,9 @@ import org.apache.deltaspike.core.api.exception.control.event.ExceptionToCatchEv
 import org.apache.deltaspike.core.util.ProxyUtils;
 import org.apache.deltaspike.security.api.authorization.AccessDeniedException;
 import org.apache.deltaspike.security.impl.authorization.SkipInternalProcessingException;
+import org.apache.deltaspike.security.spi.authorization.AuthorizationMonitor;
+import org.apache.deltaspike.security.spi.authorization.AuthorizationOutcome;
+import org.apache.deltaspike.security.spi.authorization.AuthorizationPhase;
 import org.apache.deltaspike.security.spi.authorization.SecurityStrategy;
 
 import javax.enterprise.context.Dependent;
@@ -29,7 +32,6 @@ import javax.enterprise.inject.spi.BeanManager;
 import javax.inject.Inject;
 import javax.interceptor.InvocationContext;
 import java.lang.reflect.Method;
-import java.util.Set;
 
 /**
  * {@inheritDoc}
@@ -45,6 +47,9 @@ public class DefaultSecurityStrategy implements SecurityStrategy
     @Inject
     private SecurityExtension securityExtension;
 
+    @Inject
+    private AuthorizationMonitor authorizationMonitor;
+
     /**
      * {@inheritDoc}
      */
@@ -57,28 +62,36 @@ public class DefaultSecurityStrategy implements SecurityStrategy
 
         Class targetClass = ProxyUtils.getUnproxiedClass(invocationContext.getTarget().getClass()); //see DELTASPIKE-517
 
-        Set<Authorizer> authorizers = metaDataStorage.getAuthorizers(targetClass, method);
+        SecurityMetaDataStorage.MethodAuthorizers authorizers = metaDataStorage.getAuthorizers(targetClass, method);
+
+        boolean monitored = this.authorizationMonitor.isEnabled();
+        long start = monitored ? System.nanoTime() : 0;
 
-        invokeBeforeMethodInvocationAuthorizers(invocationContext, authorizers);
+        invokeBeforeMethodInvocationAuthorizers(invocationContext, authorizers.getBeforeMethodInvocationAuthorizers());
 
+        long invocationStart = monitored ? System.nanoTime() : 0;
         Object result = invocationContext.proceed();
+        long invocationEnd = monitored ? System.nanoTime() : 0;
 
-        invokeAfterMethodInvocationAuthorizers(invocationContext, authorizers, result);
+        invokeAfterMethodInvocationAuthorizers(
+            invocationContext, authorizers.getAfterMethodInvocationAuthorizers(), result);
 
+        if (monitored)
+        {
+            this.authorizationMonitor.securedMethodInvoked(method,
+                (invocationStart - start) + (System.nanoTime() - invocationEnd), invocationEnd - invocationStart);
+        }
         return result;
     }
 
     protected void invokeBeforeMethodInvocationAuthorizers(
-        InvocationContext invocationContext, Set<Authorizer> authorizers) throws IllegalAccessException
+        InvocationContext invocationContext, Authorizer[] authorizers) throws IllegalAccessException
     {
         try
         {
             for (Authorizer authorizer : authorizers)
             {
-                if (authorizer.isBeforeMethodInvocationAuthorizer())
-                {
-                    authorizer.authorize(invocationContext, null, this.beanManager);
-                }
+                authorize(invocationContext, authorizer, null, AuthorizationPhase.BEFORE_METHOD_INVOCATION);
             }
         }
         catch (SkipInternalProcessingException e)
@@ -96,16 +109,13 @@ public class DefaultSecurityStrategy implements SecurityStrategy
     }
 
     protected void invokeAfterMethodInvocationAuthorizers(InvocationContext invocationContext,
-        Set<Authorizer> authorizers, Object result) throws IllegalAccessException
+        Authorizer[] authorizers, Object result) throws IllegalAccessException
     {
         try
         {
             for (Authorizer authorizer : authorizers)
             {
-                if (authorizer.isAfterMethodInvocationAuthorizer())
-                {
-                    authorizer.authorize(invocationContext, result, this.beanManager);
-                }
+                authorize(invocationContext, authorizer, result, AuthorizationPhase.AFTER_METHOD_INVOCATION);
             }
         }
         catch (AccessDeniedException e)
@@ -118,6 +128,41 @@ public class DefaultSecurityStrategy implements SecurityStrategy
         }
     }
 
+    private void authorize(InvocationContext invocationContext,
+                           Authorizer authorizer,
+                           Object result,
+                           AuthorizationPhase phase) throws IllegalAccessException
+    {
+        if (!this.authorizationMonitor.isEnabled())
+        {
+            authorizer.authorize(invocationContext, result, this.beanManager);
+            return;
+        }
+
+        AuthorizationOutcome outcome = AuthorizationOutcome.FAILED;
+        long start = System.nanoTime();
+        try
+        {
+            authorizer.authorize(invocationContext, result, this.beanManager);
+            outcome = AuthorizationOutcome.GRANTED;
+        }
+        catch (AccessDeniedException e)
+        {
+            outcome = AuthorizationOutcome.DENIED;
+            throw e;
+        }
+        catch (SkipInternalProcessingException e)
+        {
+            outcome = AuthorizationOutcome.DENIED;
+            throw e;
+        }
+        finally
+        {
+            this.authorizationMonitor.authorizerInvoked(invocationContext.getMethod(),
+                authorizer.getBoundAuthorizerMethod(), phase, outcome, System.nanoTime() - start);
+        }
+    }
+
     /**
      * <p>Fires a {@link org.apache.deltaspike.core.api.exception.control.event.ExceptionToCatchEvent} for the given
      * {@link org.apache.deltaspike.security.api.authorization.AccessDeniedException}.</p>
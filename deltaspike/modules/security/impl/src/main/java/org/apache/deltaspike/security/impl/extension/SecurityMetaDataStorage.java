@@ -23,10 +23,13 @@ import org.apache.deltaspike.security.impl.util.SecurityUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.enterprise.inject.spi.AnnotatedMethod;
 import javax.enterprise.inject.spi.AnnotatedType;
@@ -44,10 +47,11 @@ class SecurityMetaDataStorage
     private Set<AnnotatedMethod<?>> securedMethods = new HashSet<AnnotatedMethod<?>>();
 
     /**
-     * A mapping between a secured method of a class and its authorizers
+     * A mapping between a secured method of a class and its authorizers.
+     * The entries are immutable, therefore a lookup doesn't need any locking.
      */
-    private Map<Class<?>, Map<Method, Set<Authorizer>>> methodAuthorizers =
-        new HashMap<Class<?>, Map<Method, Set<Authorizer>>>();
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, MethodAuthorizers>> methodAuthorizers =
+        new ConcurrentHashMap<Class<?>, ConcurrentMap<Method, MethodAuthorizers>>();
 
 
     void addAuthorizer(Authorizer authorizer)
@@ -82,14 +86,19 @@ class SecurityMetaDataStorage
      * This method is invoked by the security interceptor to obtain the
      * authorizer stack for a secured method
      */
-    Set<Authorizer> getAuthorizers(Class<?> targetClass, Method targetMethod)
+    MethodAuthorizers getAuthorizers(Class<?> targetClass, Method targetMethod)
     {
-        if (!isMethodMetaDataAvailable(targetClass, targetMethod))
+        ConcurrentMap<Method, MethodAuthorizers> resultForClass = methodAuthorizers.get(targetClass);
+        if (resultForClass != null)
         {
-            registerSecuredMethod(targetClass, targetMethod);
+            MethodAuthorizers result = resultForClass.get(targetMethod);
+            if (result != null)
+            {
+                return result;
+            }
         }
 
-        return getMethodAuthorizers(targetClass, targetMethod);
+        return registerSecuredMethod(targetClass, targetMethod);
     }
 
     void registerSecuredMethods()
@@ -100,11 +109,16 @@ class SecurityMetaDataStorage
         }
     }
 
-    synchronized <T> void registerSecuredMethod(Class<T> targetClass, Method targetMethod)
+    /**
+     * Resolves the authorizers of the given method, if that didn't happen already.
+     * It doesn't lock, since resolving them twice in case of a race condition leads to an equivalent result.
+     */
+    <T> MethodAuthorizers registerSecuredMethod(Class<T> targetClass, Method targetMethod)
     {
-        ensureInitializedAuthorizersForClass(targetClass);
+        ConcurrentMap<Method, MethodAuthorizers> resultForClass = ensureInitializedAuthorizersForClass(targetClass);
 
-        if (!containsMethodAuthorizers(targetClass, targetMethod))
+        MethodAuthorizers result = resultForClass.get(targetMethod);
+        if (result == null)
         {
             Set<AuthorizationParameter> parameterBindings = new HashSet<AuthorizationParameter>();
             Class<?>[] parameterTypes = targetMethod.getParameterTypes();
@@ -129,7 +143,7 @@ class SecurityMetaDataStorage
                 }
             }
             
-            Set<Authorizer> authorizerStack = new HashSet<Authorizer>();
+            Set<Authorizer> authorizerStack = new LinkedHashSet<Authorizer>();
 
             for (Annotation binding : SecurityUtils.getSecurityBindingTypes(targetClass, targetMethod))
             {
@@ -182,8 +196,15 @@ class SecurityMetaDataStorage
                                     targetMethod.getName() + "].");
                 }
             }
-            addMethodAuthorizer(targetClass, targetMethod, authorizerStack);
+
+            result = new MethodAuthorizers(authorizerStack);
+            MethodAuthorizers existingResult = resultForClass.putIfAbsent(targetMethod, result);
+            if (existingResult != null)
+            {
+                result = existingResult;
+            }
         }
+        return result;
     }
 
     Set<Authorizer> getAuthorizers()
@@ -191,59 +212,61 @@ class SecurityMetaDataStorage
         return authorizers;
     }
 
-    private boolean containsMethodAuthorizers(Class<?> targetClass, Method targetMethod)
+    private ConcurrentMap<Method, MethodAuthorizers> ensureInitializedAuthorizersForClass(Class<?> targetClass)
     {
-        Map<Method, Set<Authorizer>> resultForClass = methodAuthorizers.get(targetClass);
-        return resultForClass.containsKey(targetMethod);
-    }
-
-    private void ensureInitializedAuthorizersForClass(Class<?> targetClass)
-    {
-        Map<Method, Set<Authorizer>> resultForClass = methodAuthorizers.get(targetClass);
+        ConcurrentMap<Method, MethodAuthorizers> resultForClass = methodAuthorizers.get(targetClass);
 
         if (resultForClass == null)
         {
-            methodAuthorizers.put(targetClass, new HashMap<Method, Set<Authorizer>>());
+            resultForClass = new ConcurrentHashMap<Method, MethodAuthorizers>();
+            ConcurrentMap<Method, MethodAuthorizers> existingResult =
+                methodAuthorizers.putIfAbsent(targetClass, resultForClass);
+            if (existingResult != null)
+            {
+                resultForClass = existingResult;
+            }
         }
+        return resultForClass;
     }
 
-    private boolean isMethodMetaDataAvailable(Class<?> targetClass, Method targetMethod)
+    /**
+     * The authorizers of a secured method, already split into the ones which have to be invoked before
+     * and after the method invocation.
+     */
+    static final class MethodAuthorizers
     {
-        Map<Method, Set<Authorizer>> result = methodAuthorizers.get(targetClass);
-        return result != null && result.containsKey(targetMethod);
-    }
+        private static final Authorizer[] NO_AUTHORIZERS = new Authorizer[0];
 
-    private void addMethodAuthorizer(Class<?> targetClass, Method targetMethod, Set<Authorizer> authorizersToAdd)
-    {
-        Map<Method, Set<Authorizer>> authorizerMapping = methodAuthorizers.get(targetClass);
+        private final Authorizer[] beforeMethodInvocationAuthorizers;
+        private final Authorizer[] afterMethodInvocationAuthorizers;
 
-        if (authorizerMapping == null)
+        private MethodAuthorizers(Set<Authorizer> authorizers)
         {
-            authorizerMapping = new HashMap<Method, Set<Authorizer>>();
-            methodAuthorizers.put(targetClass, authorizerMapping);
+            List<Authorizer> before = new ArrayList<Authorizer>();
+            List<Authorizer> after = new ArrayList<Authorizer>();
+            for (Authorizer authorizer : authorizers)
+            {
+                if (authorizer.isBeforeMethodInvocationAuthorizer())
+                {
+                    before.add(authorizer);
+                }
+                if (authorizer.isAfterMethodInvocationAuthorizer())
+                {
+                    after.add(authorizer);
+                }
+            }
+            this.beforeMethodInvocationAuthorizers = before.toArray(NO_AUTHORIZERS);
+            this.afterMethodInvocationAuthorizers = after.toArray(NO_AUTHORIZERS);
         }
 
-        Set<Authorizer> authorizersForMethod = authorizerMapping.get(targetMethod);
-
-        if (authorizersForMethod == null)
+        Authorizer[] getBeforeMethodInvocationAuthorizers()
         {
-            authorizersForMethod = new HashSet<Authorizer>();
-            authorizerMapping.put(targetMethod, authorizersForMethod);
+            return beforeMethodInvocationAuthorizers;
         }
 
-        authorizersForMethod.addAll(authorizersToAdd);
-    }
-
-    private Set<Authorizer> getMethodAuthorizers(Class<?> targetClass, Method targetMethod)
-    {
-        Map<Method, Set<Authorizer>> resultForClass = methodAuthorizers.get(targetClass);
-
-        if (resultForClass == null)
+        Authorizer[] getAfterMethodInvocationAuthorizers()
         {
-            throw new IllegalStateException(
-                    "no meta-data available for: " + targetClass.getName() + targetMethod.getName());
+            return afterMethodInvocationAuthorizers;
         }
-
-        return resultForClass.get(targetMethod);
     }
 }
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.deltaspike.security.impl.monitoring;
+
+import org.apache.deltaspike.core.api.config.ConfigResolver;
+import org.apache.deltaspike.core.api.jmx.JmxManaged;
+import org.apache.deltaspike.core.api.jmx.MBean;
+import org.apache.deltaspike.security.api.authorization.AccessDecisionVoter;
+import org.apache.deltaspike.security.spi.authorization.AuthorizationMonitor;
+import org.apache.deltaspike.security.spi.authorization.AuthorizationOutcome;
+import org.apache.deltaspike.security.spi.authorization.AuthorizationPhase;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link AuthorizationMonitor} which aggregates latency percentiles per secured method, authorizer and voter
+ * and exposes them via JMX. It's disabled by default and can be enabled via
+ * <code>deltaspike.security.authorization_monitoring</code> or at runtime.
+ */
+@ApplicationScoped
+@MBean(description = "DeltaSpike Security authorization statistics")
+public class DefaultAuthorizationMonitor implements AuthorizationMonitor
+{
+    public static final String ENABLED_CONFIG_KEY = "deltaspike.security.authorization_monitoring";
+
+    private final ConcurrentMap<Method, SecuredMethodStatistics> securedMethodStatistics =
+            new ConcurrentHashMap<Method, SecuredMethodStatistics>();
+
+    private final ConcurrentMap<Method, OutcomeStatistics> authorizerStatistics =
+            new ConcurrentHashMap<Method, OutcomeStatistics>();
+
+    private final ConcurrentMap<Class<?>, OutcomeStatistics> voterStatistics =
+            new ConcurrentHashMap<Class<?>, OutcomeStatistics>();
+
+    private volatile boolean enabled;
+
+    @PostConstruct
+    protected void init()
+    {
+        this.enabled = Boolean.parseBoolean(ConfigResolver.getPropertyValue(ENABLED_CONFIG_KEY, "false").trim());
+    }
+
+    @Override
+    @JmxManaged(description = "is the monitoring enabled")
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    @Override
+    public void authorizerInvoked(Method securedMethod, Method authorizerMethod, AuthorizationPhase phase,
+                                  AuthorizationOutcome outcome, long durationNanos)
+    {
+        getStatistics(this.authorizerStatistics, authorizerMethod).record(outcome, durationNanos);
+
+        if (outcome != AuthorizationOutcome.GRANTED)
+        {
+            getSecuredMethodStatistics(securedMethod).outcomes.incrementAndGet(outcome.ordinal());
+        }
+    }
+
+    @Override
+    public void voterInvoked(Method securedMethod, Class<? extends AccessDecisionVoter> voterClass,
+                             AuthorizationOutcome outcome, long durationNanos)
+    {
+        getStatistics(this.voterStatistics, voterClass).record(outcome, durationNanos);
+    }
+
+    @Override
+    public void securedMethodInvoked(Method securedMethod, long authorizationNanos, long invocationNanos)
+    {
+        SecuredMethodStatistics statistics = getSecuredMethodStatistics(securedMethod);
+        statistics.outcomes.incrementAndGet(AuthorizationOutcome.GRANTED.ordinal());
+        statistics.authorizationLatency.record(authorizationNanos);
+        statistics.invocationLatency.record(invocationNanos);
+    }
+
+    @JmxManaged(description = "enables or disables the monitoring")
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    @JmxManaged(description = "outcomes as well as authorization and invocation latency percentiles (in microseconds) "
+        + "per secured method")
+    public String[] getSecuredMethodStatistics()
+    {
+        Map<String, String> result = new TreeMap<String, String>();
+
+        for (Map.Entry<Method, SecuredMethodStatistics> entry : this.securedMethodStatistics.entrySet())
+        {
+            SecuredMethodStatistics statistics = entry.getValue();
+            String name = toString(entry.getKey());
+
+            result.put(name, name + ": " + formatOutcomes(statistics.outcomes) +
+                    ", authorization " + formatLatency(statistics.authorizationLatency) +
+                    ", invocation " + formatLatency(statistics.invocationLatency));
+        }
+        return result.values().toArray(new String[result.size()]);
+    }
+
+    @JmxManaged(description = "outcomes and latency percentiles (in microseconds) per authorizer method")
+    public String[] getAuthorizerStatistics()
+    {
+        Map<String, String> result = new TreeMap<String, String>();
+
+        for (Map.Entry<Method, OutcomeStatistics> entry : this.authorizerStatistics.entrySet())
+        {
+            String name = toString(entry.getKey());
+            result.put(name, name + ": " + entry.getValue());
+        }
+        return result.values().toArray(new String[result.size()]);
+    }
+
+    @JmxManaged(description = "outcomes and latency percentiles (in microseconds) per access-decision-voter")
+    public String[] getVoterStatistics()
+    {
+        Map<String, String> result = new TreeMap<String, String>();
+
+        for (Map.Entry<Class<?>, OutcomeStatistics> entry : this.voterStatistics.entrySet())
+        {
+            String name = entry.getKey().getName();
+            result.put(name, name + ": " + entry.getValue());
+        }
+        return result.values().toArray(new String[result.size()]);
+    }
+
+    @JmxManaged(description = "resets all statistics")
+    public void reset()
+    {
+        this.securedMethodStatistics.clear();
+        this.authorizerStatistics.clear();
+        this.voterStatistics.clear();
+    }
+
+    private SecuredMethodStatistics getSecuredMethodStatistics(Method securedMethod)
+    {
+        SecuredMethodStatistics result = this.securedMethodStatistics.get(securedMethod);
+
+        if (result == null)
+        {
+            result = new SecuredMethodStatistics();
+
+            SecuredMethodStatistics existingStatistics =
+                    this.securedMethodStatistics.putIfAbsent(securedMethod, result);
+            if (existingStatistics != null)
+            {
+                result = existingStatistics;
+            }
+        }
+        return result;
+    }
+
+    private static <K> OutcomeStatistics getStatistics(ConcurrentMap<K, OutcomeStatistics> statistics, K key)
+    {
+        OutcomeStatistics result = statistics.get(key);
+
+        if (result == null)
+        {
+            result = new OutcomeStatistics();
+
+            OutcomeStatistics existingStatistics = statistics.putIfAbsent(key, result);
+            if (existingStatistics != null)
+            {
+                result = existingStatistics;
+            }
+        }
+        return result;
+    }
+
+    private static String toString(Method method)
+    {
+        return method.getDeclaringClass().getName() + "#" + method.getName();
+    }
+
+    private static String formatOutcomes(AtomicLongArray outcomes)
+    {
+        StringBuilder result = new StringBuilder();
+
+        for (AuthorizationOutcome outcome : AuthorizationOutcome.values())
+        {
+            if (result.length() > 0)
+            {
+                result.append(", ");
+            }
+            result.append(outcome.name().toLowerCase()).append('=').append(outcomes.get(outcome.ordinal()));
+        }
+        return result.toString();
+    }
+
+    private static String formatLatency(LatencyHistogram histogram)
+    {
+        return "count=" + histogram.getCount() +
+                " mean=" + toMicros(histogram.getMean()) +
+                " p50=" + toMicros(histogram.getPercentile(0.5)) +
+                " p90=" + toMicros(histogram.getPercentile(0.9)) +
+                " p99=" + toMicros(histogram.getPercentile(0.99)) +
+                " max=" + toMicros(histogram.getMax());
+    }
+
+    private static String toMicros(long nanos)
+    {
+        return String.valueOf(nanos / 1000.0);
+    }
+
+    private static class SecuredMethodStatistics
+    {
+        private final AtomicLongArray outcomes = new AtomicLongArray(AuthorizationOutcome.values().length);
+        private final LatencyHistogram authorizationLatency = new LatencyHistogram();
+        private final LatencyHistogram invocationLatency = new LatencyHistogram();
+    }
+
+    private static class OutcomeStatistics
+    {
+        private final AtomicLongArray outcomes = new AtomicLongArray(AuthorizationOutcome.values().length);
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        void record(AuthorizationOutcome outcome, long durationNanos)
+        {
+            this.outcomes.incrementAndGet(outcome.ordinal());
+            this.latency.record(durationNanos);
+        }
+
+        @Override
+        public String toString()
+        {
+            return formatOutcomes(this.outcomes) + ", " + formatLatency(this.latency);
+        }
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.deltaspike.test.security.impl.authorization.secured;
 
 import org.apache.deltaspike.core.api.provider.BeanProvider;
 import org.apache.deltaspike.security.api.authorization.AccessDeniedException;
+import org.apache.deltaspike.security.impl.monitoring.DefaultAuthorizationMonitor;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -133,4 +134,63 @@ public abstract class SecuredAnnotationTest
         Assert.assertTrue(voter1.isCalled());
         Assert.assertTrue(voter2.isCalled());
     }
+
+    @Test
+    public void cachedDecisionOfCacheableVoter()
+    {
+        SecuredBean6 testBean = BeanProvider.getContextualReference(SecuredBean6.class, false);
+
+        CacheableTestAccessDecisionVoter voter =
+                BeanProvider.getContextualReference(CacheableTestAccessDecisionVoter.class, false);
+
+        int callCount = voter.getCallCount();
+
+        Assert.assertEquals("result", testBean.getResult());
+        Assert.assertEquals("result", testBean.getResult());
+
+        Assert.assertEquals(callCount + 1, voter.getCallCount());
+    }
+
+    @Test
+    public void authorizationMonitoring()
+    {
+        DefaultAuthorizationMonitor monitor =
+                BeanProvider.getContextualReference(DefaultAuthorizationMonitor.class, false);
+        Assert.assertFalse(monitor.isEnabled());
+        monitor.reset();
+        monitor.setEnabled(true);
+
+        SecuredBean3 testBean = BeanProvider.getContextualReference(SecuredBean3.class, false);
+
+        try
+        {
+            Assert.assertEquals("result", testBean.getResult());
+
+            try
+            {
+                testBean.getBlockedResult();
+                Assert.fail("AccessDeniedException expect, but was not thrown");
+            }
+            catch (AccessDeniedException e)
+            {
+                //expected exception
+            }
+        }
+        finally
+        {
+            monitor.setEnabled(false);
+        }
+
+        String[] voterStatistics = monitor.getVoterStatistics();
+        Assert.assertEquals(1, voterStatistics.length);
+        Assert.assertTrue(voterStatistics[0].startsWith(
+                TestAccessDecisionVoter.class.getName() + ": granted=1, denied=1, failed=0"));
+
+        String[] securedMethodStatistics = monitor.getSecuredMethodStatistics();
+        Assert.assertEquals(2, securedMethodStatistics.length);
+        Assert.assertTrue(securedMethodStatistics[0].startsWith(
+                SecuredBean3.class.getName() + "#getBlockedResult: granted=0, denied=1"));
+        Assert.assertTrue(securedMethodStatistics[1].startsWith(
+                SecuredBean3.class.getName() + "#getResult: granted=1, denied=0"));
+    }
 }